@@ -0,0 +1,20 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import danogl.benchmarks.BlitBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link BlitBenchmark} under JMH.
+ */
+public class Blit extends SuiteBenchmark {
+    @Param({"64"})
+    public int imageSize;
+    @Param({"abgr", "argb", "compatible"})
+    public String format;
+
+    @Override
+    protected Benchmark createBenchmark() {
+        return new BlitBenchmark(imageSize, format);
+    }
+}
@@ -0,0 +1,21 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import danogl.benchmarks.GameManagerUpdateBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link GameManagerUpdateBenchmark} under JMH.
+ * Pass -p updateThreads=1,2,4 to measure the parallel update.
+ */
+public class GameManagerUpdate extends SuiteBenchmark {
+    @Param({"100", "1000", "5000"})
+    public int objects;
+    @Param({"0"})
+    public int updateThreads;
+
+    @Override
+    protected Benchmark createBenchmark() {
+        return new GameManagerUpdateBenchmark(objects, updateThreads);
+    }
+}
@@ -0,0 +1,23 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import danogl.benchmarks.CollisionBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link CollisionBenchmark} under JMH.
+ * Pass -p narrowPhaseThreads=1,2,4 to measure the parallel narrow phase.
+ */
+public class HandleCollisions extends PreparedSuiteBenchmark {
+    @Param({"100", "1000", "5000"})
+    public int objects;
+    @Param({"33"})
+    public int staticPercent;
+    @Param({"0"})
+    public int narrowPhaseThreads;
+
+    @Override
+    protected Benchmark createBenchmark() {
+        return new CollisionBenchmark(objects, staticPercent, narrowPhaseThreads);
+    }
+}
@@ -0,0 +1,18 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import danogl.benchmarks.ImageCropBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link ImageCropBenchmark} under JMH.
+ */
+public class ImageCrop extends SuiteBenchmark {
+    @Param({"64", "512"})
+    public int imageSize;
+
+    @Override
+    protected Benchmark createBenchmark() {
+        return new ImageCropBenchmark(imageSize);
+    }
+}
@@ -0,0 +1,20 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import danogl.benchmarks.ImageReadBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link ImageReadBenchmark} under JMH.
+ */
+public class ImageRead extends SuiteBenchmark {
+    @Param({"64", "512"})
+    public int imageSize;
+    @Param({"false", "true"})
+    public boolean transparency;
+
+    @Override
+    protected Benchmark createBenchmark() {
+        return new ImageReadBenchmark(imageSize, transparency);
+    }
+}
@@ -0,0 +1,18 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import danogl.benchmarks.ModifiableListBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link ModifiableListBenchmark} under JMH.
+ */
+public class ModifiableListAddRemoveFlush extends SuiteBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    @Override
+    protected Benchmark createBenchmark() {
+        return new ModifiableListBenchmark(size);
+    }
+}
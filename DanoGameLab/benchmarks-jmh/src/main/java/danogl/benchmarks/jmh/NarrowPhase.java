@@ -0,0 +1,21 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import danogl.benchmarks.NarrowPhaseBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link NarrowPhaseBenchmark} under JMH.
+ * Pass -p narrowPhaseThreads=1,2,4 to measure the parallel narrow phase.
+ */
+public class NarrowPhase extends PreparedSuiteBenchmark {
+    @Param({"5000"})
+    public int objects;
+    @Param({"0"})
+    public int narrowPhaseThreads;
+
+    @Override
+    protected Benchmark createBenchmark() {
+        return new NarrowPhaseBenchmark(objects, narrowPhaseThreads);
+    }
+}
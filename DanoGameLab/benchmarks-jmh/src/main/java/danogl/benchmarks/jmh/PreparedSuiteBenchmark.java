@@ -0,0 +1,16 @@
+package danogl.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * A {@link SuiteBenchmark} for benchmarks that prepare each operation
+ * (see {@link danogl.benchmarks.Benchmark#isOperationPrepared()}): the preparation runs
+ * before every invocation, outside of the timed region.
+ */
+public abstract class PreparedSuiteBenchmark extends SuiteBenchmark {
+    @Setup(Level.Invocation)
+    public void prepareOperation() {
+        benchmark().prepareOperation();
+    }
+}
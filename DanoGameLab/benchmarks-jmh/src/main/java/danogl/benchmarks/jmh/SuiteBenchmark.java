@@ -0,0 +1,54 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one of the suite's benchmarks under JMH: each subclass creates a benchmark from its
+ * JMH parameters, which are named after the benchmark's own parameters. JMH sets the benchmark
+ * up once per trial and times its operation, as the suite's runner does, in nanoseconds.
+ * @see PreparedSuiteBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public abstract class SuiteBenchmark {
+    private Benchmark benchmark;
+
+    /**
+     * Creates the benchmark from the subclass's parameters.
+     */
+    protected abstract Benchmark createBenchmark();
+
+    /**
+     * The benchmark created for the current trial.
+     */
+    protected Benchmark benchmark() {
+        return benchmark;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        benchmark = createBenchmark();
+        benchmark.setUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        benchmark.tearDown();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long operation() {
+        return benchmark.runOperation();
+    }
+}
@@ -0,0 +1,18 @@
+package danogl.benchmarks.jmh;
+
+import danogl.benchmarks.Benchmark;
+import danogl.benchmarks.Vector2Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link Vector2Benchmark} under JMH.
+ */
+public class Vector2ArithmeticChain extends SuiteBenchmark {
+    @Param({"1024"})
+    public int vectors;
+
+    @Override
+    protected Benchmark createBenchmark() {
+        return new Vector2Benchmark(vectors);
+    }
+}
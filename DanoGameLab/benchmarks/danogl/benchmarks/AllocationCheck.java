@@ -0,0 +1,202 @@
+package danogl.benchmarks;
+
+import danogl.GameObject;
+import danogl.collisions.BroadPhase;
+import danogl.collisions.BruteForceBroadPhase;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.collisions.SpatialHashBroadPhase;
+import danogl.collisions.SweepAndPruneBroadPhase;
+import danogl.components.GameObjectPhysics;
+import danogl.util.ModifiableList;
+import danogl.util.Vector2;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Checks that the engine's allocation-free paths stay allocation-free: after a warmup,
+ * each checked operation is run for a number of frames while the bytes allocated by the
+ * current thread are counted (with com.sun.management.ThreadMXBean), and the check fails
+ * if the operation allocated more than a few bytes per frame on average.
+ * <br>The checks cover collision handling with each of the broad phases, in a world
+ * where objects rest on each other and are resolved every frame while others move past them.
+ * The collision data of a pair is only created on the first frame of its collision,
+ * which is not measured. They also cover traversing the objects of a GameObjectCollection
+ * with its forEach methods, and iterating a ModifiableList, including nested iterations,
+ * which reuse the list's pooled iterators.
+ * <br>Run it like the benchmarks (see the package documentation):
+ * <pre>
+ * java -Djava.awt.headless=true -cp out:out-benchmarks danogl.benchmarks.AllocationCheck
+ * </pre>
+ * It prints the bytes per frame of each check, and exits with status 1 if any of them failed.
+ */
+public class AllocationCheck {
+    private static final float DELTA_TIME = 1/60f;
+    private static final int WARMUP_FRAMES = 20_000;
+    private static final int MEASURED_FRAMES = 2_000;
+    private static final float WORLD_WIDTH = 1000;
+    //leaves room for rare allocations that do not depend on the frame, such as the JIT's
+    private static final double MAX_BYTES_PER_FRAME = 8;
+    //the depth of the nested iterations checked, as deep as ModifiableList pools iterators for
+    private static final int NESTED_ITERATIONS = 4;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+    /**
+     * Runs the checks.
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        if(!THREADS.isThreadAllocatedMemorySupported()) {
+            System.out.println("This JVM does not count allocated bytes; nothing was checked");
+            return;
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        boolean passed = true;
+        passed &= checkCollisions("default", null);
+        passed &= checkCollisions("BruteForceBroadPhase", BruteForceBroadPhase::new);
+        passed &= checkCollisions("SweepAndPruneBroadPhase", SweepAndPruneBroadPhase::new);
+        passed &= checkCollisions("SpatialHashBroadPhase", SpatialHashBroadPhase::new);
+        passed &= checkTraversal();
+        passed &= checkModifiableList();
+        if(!passed)
+            System.exit(1);
+    }
+
+    /**
+     * Checks LayerManager.handleCollisions.
+     * @param broadPhase creates the broad phase to set, which then also handles the static layer,
+     *                   or null to keep the default one and the static layer's index
+     */
+    private static boolean checkCollisions(String name, Supplier<BroadPhase> broadPhase) {
+        var gameObjects = new GameObjectCollection(null);
+        if(broadPhase != null) {
+            gameObjects.layers().setBroadPhase(broadPhase.get());
+            gameObjects.layers().setStaticLayerIndexed(false);
+        }
+        List<GameObject> movingObjects = new ArrayList<>();
+        //boxes that fall onto a static floor and come to rest in stacks, where they are
+        //resolved every frame, and boxes that pass above them, each in its own row,
+        //without touching anything
+        for(int i = 0 ; i < 20 ; i++) {
+            var floor = new GameObject(new Vector2(i*50, 500), new Vector2(50, 50), null);
+            floor.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+            floor.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+            gameObjects.addGameObject(floor, Layer.STATIC_OBJECTS);
+            for(int j = 0 ; j < 5 ; j++) {
+                var box = new GameObject(new Vector2(i*50 + j*3, 400 - j*30), new Vector2(25, 25), null);
+                box.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+                box.transform().setAccelerationY(500);
+                gameObjects.addGameObject(box);
+                movingObjects.add(box);
+            }
+            var passingBox = new GameObject(new Vector2(i*50, 50 + i*15), new Vector2(10, 10), null);
+            passingBox.setVelocity(new Vector2(50 + i*10, 0));
+            gameObjects.addGameObject(passingBox);
+            movingObjects.add(passingBox);
+        }
+        gameObjects.update(0);
+
+        //the collisions of the landing boxes begin during the warmup, where their data is created
+        long allocated = 0;
+        for(int frame = 0 ; frame < WARMUP_FRAMES + MEASURED_FRAMES ; frame++) {
+            for(int i = 0 ; i < movingObjects.size() ; i++) {
+                var obj = movingObjects.get(i);
+                obj.update(DELTA_TIME);
+                if(obj.getTopLeftCorner().x() > WORLD_WIDTH)
+                    obj.transform().setTopLeftCorner(0, obj.getTopLeftCorner().y());
+            }
+            gameObjects.update(DELTA_TIME);
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            gameObjects.handleCollisions();
+            if(frame >= WARMUP_FRAMES)
+                allocated += THREADS.getCurrentThreadAllocatedBytes() - before;
+        }
+        return report("LayerManager.handleCollisions, " + name, allocated);
+    }
+
+    /**
+     * Checks GameObjectCollection.update when nothing was added or removed,
+     * and the forEach methods of GameObjectCollection.
+     */
+    private static boolean checkTraversal() {
+        var gameObjects = new GameObjectCollection(null);
+        int[] layers = {Layer.BACKGROUND, Layer.STATIC_OBJECTS, Layer.DEFAULT, Layer.FOREGROUND, Layer.UI};
+        for(int i = 0 ; i < 1000 ; i++) {
+            var obj = new GameObject(new Vector2(i % 40, i / 40).mult(30), new Vector2(20, 20), null);
+            gameObjects.addGameObject(obj, layers[i % layers.length]);
+        }
+        gameObjects.update(0);
+        long[] visited = new long[1];
+        Consumer<GameObject> visit = obj -> visited[0]++;
+        Runnable afterEachLayer = () -> visited[0]++;
+        var viewTopLeftCorner = new Vector2(100, 100);
+        var viewDimensions = new Vector2(400, 300);
+
+        boolean passed = true;
+        passed &= check("GameObjectCollection.update", () -> gameObjects.update(DELTA_TIME));
+        passed &= check("GameObjectCollection.forEachInDrawOrder",
+                () -> gameObjects.forEachInDrawOrder(visit));
+        passed &= check("GameObjectCollection.forEachInDrawOrder, afterEachLayer",
+                () -> gameObjects.forEachInDrawOrder(visit, afterEachLayer));
+        passed &= check("GameObjectCollection.forEachInReverseDrawOrder",
+                () -> gameObjects.forEachInReverseDrawOrder(visit));
+        passed &= check("GameObjectCollection.forEachInDrawOrderInView",
+                () -> gameObjects.forEachInDrawOrderInView(viewTopLeftCorner, viewDimensions, 1, visit));
+        return passed && visited[0] > 0;
+    }
+
+    /**
+     * Checks iterating a ModifiableList, with its forEach methods and with foreach loops
+     * nested as deep as it pools iterators for, and flushing it when nothing changed.
+     */
+    private static boolean checkModifiableList() {
+        var list = new ModifiableList<Integer>(true);
+        for(int i = 0 ; i < 10 ; i++)
+            list.add(i);
+        list.flushChanges();
+        long[] sum = new long[1];
+        Consumer<Integer> add = i -> sum[0] += i;
+
+        boolean passed = true;
+        passed &= check("ModifiableList.flushChanges", list::flushChanges);
+        passed &= check("ModifiableList.forEach", () -> list.forEach(add));
+        passed &= check("ModifiableList.forEachInReverse", () -> list.forEachInReverse(add));
+        passed &= check("ModifiableList.iterator, nested " + NESTED_ITERATIONS + " deep",
+                () -> sum[0] += sumNested(list, NESTED_ITERATIONS));
+        passed &= check("ModifiableList.reverseOrder", () -> {
+            for(int i : list.reverseOrder())
+                sum[0] += i;
+        });
+        return passed && sum[0] > 0;
+    }
+
+    private static long sumNested(ModifiableList<Integer> list, int depth) {
+        long sum = 0;
+        for(int i : list)
+            sum += depth == 1 ? i : sumNested(list, depth - 1);
+        return sum;
+    }
+
+    //runs the frame for the warmup and then for the measured frames
+    private static boolean check(String name, Runnable frame) {
+        for(int i = 0 ; i < WARMUP_FRAMES ; i++)
+            frame.run();
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for(int i = 0 ; i < MEASURED_FRAMES ; i++)
+            frame.run();
+        return report(name, THREADS.getCurrentThreadAllocatedBytes() - before);
+    }
+
+    private static boolean report(String name, long allocatedBytes) {
+        double bytesPerFrame = (double)allocatedBytes/MEASURED_FRAMES;
+        boolean passed = bytesPerFrame <= MAX_BYTES_PER_FRAME;
+        System.out.printf("%s %s: %.1f bytes/frame%n", passed ? "PASS" : "FAIL", name, bytesPerFrame);
+        return passed;
+    }
+}
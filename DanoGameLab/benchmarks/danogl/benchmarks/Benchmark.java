@@ -0,0 +1,79 @@
+package danogl.benchmarks;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single measured operation, together with the parameters it was set up with.
+ * The {@link BenchmarkRunner} calls {@link #setUp()}, then {@link #runOperation()} repeatedly
+ * while timing it, then {@link #tearDown()}. If the benchmark prepares its operations
+ * (see {@link #isOperationPrepared()}), {@link #prepareOperation()} is called before each
+ * operation, without being timed.
+ */
+public abstract class Benchmark {
+    private final String name;
+    private final Map<String, String> params = new LinkedHashMap<>();
+
+    /**
+     * @param name the name of the benchmark, e.g. "ModifiableList.addRemoveFlush"
+     */
+    protected Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a parameter the benchmark was set up with, to be reported with its results.
+     */
+    protected void param(String key, Object value) {
+        params.put(key, String.valueOf(value));
+    }
+
+    /** The name of the benchmark */
+    public String name() {
+        return name;
+    }
+
+    /** The parameters the benchmark was set up with, in the order they were recorded */
+    public Map<String, String> params() {
+        return Collections.unmodifiableMap(params);
+    }
+
+    /** The name and the parameters, e.g. "GameManager.update{objects=1000}" */
+    public String fullName() {
+        return params.isEmpty() ? name : name + params.toString().replace(", ", ",");
+    }
+
+    /**
+     * Prepares the state the operation runs on. Not timed.
+     */
+    public void setUp() throws Exception { }
+
+    /**
+     * Runs the measured operation once.
+     * @return a value computed from the operation's results, which the runner consumes so that
+     * the JIT cannot discard the operation as dead code
+     */
+    public abstract long runOperation();
+
+    /**
+     * Whether {@link #prepareOperation()} should be called before each operation.
+     * The operations of such benchmarks are timed one by one rather than in batches,
+     * so they should take much longer than reading the clock. False by default.
+     */
+    public boolean isOperationPrepared() {
+        return false;
+    }
+
+    /**
+     * Brings the state the operation runs on to where the next operation should start,
+     * for benchmarks that measure a single step of a longer process. Not timed.
+     * Only called if {@link #isOperationPrepared()}.
+     */
+    public void prepareOperation() { }
+
+    /**
+     * Releases what setUp acquired. Not timed.
+     */
+    public void tearDown() { }
+}
@@ -0,0 +1,254 @@
+package danogl.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs benchmarks and reports the average time of their operation, in nanoseconds.
+ * <br>Each benchmark is set up, warmed up for a number of iterations (so that the JIT compiles
+ * the code it runs), and then measured for a number of iterations of fixed duration.
+ * Operations are run in batches, large enough to make the cost of reading the clock
+ * negligible even for very short operations.
+ * <br>The results can be written as JSON, in the layout of JMH's JSON output
+ * (benchmark, params, mode, primaryMetric with score, scoreError, scoreUnit and rawData),
+ * so that they can be fed to the same tools. The score error is the half-width of a
+ * 99.9% confidence interval around the mean of the iterations.
+ */
+public class BenchmarkRunner {
+    /** The default number of warmup iterations */
+    public static final int DEFAULT_WARMUP_ITERATIONS = 5;
+    /** The default number of measurement iterations */
+    public static final int DEFAULT_MEASUREMENT_ITERATIONS = 5;
+    /** The default duration of an iteration */
+    public static final long DEFAULT_ITERATION_MILLIS = 1000;
+    //batches are grown until they take at least this long
+    private static final long MIN_BATCH_NANOS = 1_000_000;
+    //the z-score of a two-sided 99.9% confidence interval
+    private static final double Z_999 = 3.291;
+
+    /**
+     * The measured results of a single benchmark.
+     */
+    public static class Result {
+        private final Benchmark benchmark;
+        private final double[] nanosPerOperation;
+
+        Result(Benchmark benchmark, double[] nanosPerOperation) {
+            this.benchmark = benchmark;
+            this.nanosPerOperation = nanosPerOperation;
+        }
+
+        /** The benchmark that was measured */
+        public Benchmark benchmark() { return benchmark; }
+
+        /** The average time of the operation, in nanoseconds, over all iterations */
+        public double score() {
+            double sum = 0;
+            for(double value : nanosPerOperation)
+                sum += value;
+            return sum/nanosPerOperation.length;
+        }
+
+        /** The half-width of a 99.9% confidence interval around the score */
+        public double scoreError() {
+            int n = nanosPerOperation.length;
+            if(n < 2)
+                return Double.NaN;
+            double mean = score(), sumOfSquares = 0;
+            for(double value : nanosPerOperation)
+                sumOfSquares += (value - mean)*(value - mean);
+            return Z_999 * Math.sqrt(sumOfSquares/(n - 1)) / Math.sqrt(n);
+        }
+
+        /** The average time of the operation in each measurement iteration */
+        public double[] iterations() { return nanosPerOperation.clone(); }
+    }
+
+    private int warmupIterations = DEFAULT_WARMUP_ITERATIONS;
+    private int measurementIterations = DEFAULT_MEASUREMENT_ITERATIONS;
+    private long iterationNanos = DEFAULT_ITERATION_MILLIS * 1_000_000;
+    //consumed results of the operations, so that they are not optimized away
+    private volatile long sink;
+
+    /**
+     * @throws IllegalArgumentException if warmupIterations is negative
+     */
+    public void setWarmupIterations(int warmupIterations) {
+        if(warmupIterations < 0)
+            throw new IllegalArgumentException("Warmup iterations cannot be negative");
+        this.warmupIterations = warmupIterations;
+    }
+
+    /**
+     * @throws IllegalArgumentException if measurementIterations is not positive
+     */
+    public void setMeasurementIterations(int measurementIterations) {
+        if(measurementIterations <= 0)
+            throw new IllegalArgumentException("Measurement iterations must be positive");
+        this.measurementIterations = measurementIterations;
+    }
+
+    /**
+     * @throws IllegalArgumentException if millis is not positive
+     */
+    public void setIterationMillis(long millis) {
+        if(millis <= 0)
+            throw new IllegalArgumentException("The iteration duration must be positive");
+        iterationNanos = millis * 1_000_000;
+    }
+
+    /**
+     * Sets up, measures and tears down a benchmark.
+     */
+    public Result run(Benchmark benchmark) throws Exception {
+        benchmark.setUp();
+        try {
+            int batchSize = calibrateBatchSize(benchmark);
+            for(int i = 0 ; i < warmupIterations ; i++)
+                runIteration(benchmark, batchSize);
+            double[] nanosPerOperation = new double[measurementIterations];
+            for(int i = 0 ; i < measurementIterations ; i++)
+                nanosPerOperation[i] = runIteration(benchmark, batchSize);
+            return new Result(benchmark, nanosPerOperation);
+        }
+        finally {
+            benchmark.tearDown();
+        }
+    }
+
+    /**
+     * Writes results in the layout of JMH's JSON output.
+     */
+    public void writeJson(List<Result> results, Path path) throws IOException {
+        try(var out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            out.println("[");
+            for(int i = 0 ; i < results.size() ; i++) {
+                var result = results.get(i);
+                out.println("    {");
+                out.printf("        \"benchmark\" : %s,%n", quote(result.benchmark().name()));
+                out.println("        \"mode\" : \"avgt\",");
+                out.printf("        \"warmupIterations\" : %d,%n", warmupIterations);
+                out.printf("        \"measurementIterations\" : %d,%n", measurementIterations);
+                out.printf("        \"measurementTime\" : \"%d ms\",%n", iterationNanos/1_000_000);
+                out.println("        \"params\" : {");
+                int paramIndex = 0;
+                for(Map.Entry<String, String> param : result.benchmark().params().entrySet()) {
+                    out.printf("            %s : %s%s%n", quote(param.getKey()), quote(param.getValue()),
+                            ++paramIndex < result.benchmark().params().size() ? "," : "");
+                }
+                out.println("        },");
+                out.println("        \"primaryMetric\" : {");
+                out.printf("            \"score\" : %s,%n", number(result.score()));
+                out.printf("            \"scoreError\" : %s,%n", number(result.scoreError()));
+                out.println("            \"scoreUnit\" : \"ns/op\",");
+                var iterations = result.iterations();
+                var rawData = new StringBuilder();
+                for(int j = 0 ; j < iterations.length ; j++)
+                    rawData.append(j == 0 ? "" : ", ").append(number(iterations[j]));
+                out.printf("            \"rawData\" : [ [ %s ] ]%n", rawData);
+                out.println("        }");
+                out.println(i < results.size()-1 ? "    }," : "    }");
+            }
+            out.println("]");
+        }
+    }
+
+    //doubles the batch until one takes long enough to time reliably
+    private int calibrateBatchSize(Benchmark benchmark) {
+        int batchSize = 1;
+        while(batchSize < Integer.MAX_VALUE/2 && timeBatch(benchmark, batchSize) < MIN_BATCH_NANOS)
+            batchSize *= 2;
+        return batchSize;
+    }
+
+    //returns the average time of an operation in this iteration
+    private double runIteration(Benchmark benchmark, int batchSize) {
+        long operations = 0, elapsedNanos = 0;
+        while(elapsedNanos < iterationNanos) {
+            elapsedNanos += timeBatch(benchmark, batchSize);
+            operations += batchSize;
+        }
+        return (double)elapsedNanos/operations;
+    }
+
+    private long timeBatch(Benchmark benchmark, int batchSize) {
+        if(benchmark.isOperationPrepared())
+            return timePreparedOperations(benchmark, batchSize);
+        long result = 0;
+        long startTime = System.nanoTime();
+        for(int i = 0 ; i < batchSize ; i++)
+            result += benchmark.runOperation();
+        long elapsed = System.nanoTime() - startTime;
+        sink += result;
+        return elapsed;
+    }
+
+    //times the operations one by one, leaving out their preparation
+    private long timePreparedOperations(Benchmark benchmark, int count) {
+        long result = 0, elapsed = 0;
+        for(int i = 0 ; i < count ; i++) {
+            benchmark.prepareOperation();
+            long startTime = System.nanoTime();
+            result += benchmark.runOperation();
+            elapsed += System.nanoTime() - startTime;
+        }
+        sink += result;
+        return elapsed;
+    }
+
+    private static String quote(String str) {
+        return "\"" + str.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.3f", value) : "\"NaN\"";
+    }
+
+    /**
+     * Runs the suite, or the benchmarks whose full name contains any of the given filters.
+     * <br>Options: -wi (warmup iterations), -i (measurement iterations),
+     * -t (iteration duration in milliseconds), -o (a JSON file to write the results to),
+     * -l (list the benchmarks without running them).
+     */
+    public static void main(String[] args) throws Exception {
+        var runner = new BenchmarkRunner();
+        Path jsonPath = null;
+        boolean listOnly = false;
+        List<String> filters = new ArrayList<>();
+        for(int i = 0 ; i < args.length ; i++) {
+            switch(args[i]) {
+                case "-wi": runner.setWarmupIterations(Integer.parseInt(args[++i])); break;
+                case "-i": runner.setMeasurementIterations(Integer.parseInt(args[++i])); break;
+                case "-t": runner.setIterationMillis(Long.parseLong(args[++i])); break;
+                case "-o": jsonPath = Path.of(args[++i]); break;
+                case "-l": listOnly = true; break;
+                default: filters.add(args[i]);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        for(var benchmark : Suite.benchmarks()) {
+            if(!filters.isEmpty() && filters.stream().noneMatch(benchmark.fullName()::contains))
+                continue;
+            if(listOnly) {
+                System.out.println(benchmark.fullName());
+                continue;
+            }
+            var result = runner.run(benchmark);
+            results.add(result);
+            System.out.printf(Locale.ROOT, "%-70s %14.1f +- %10.1f ns/op%n",
+                    benchmark.fullName(), result.score(), result.scoreError());
+        }
+        if(jsonPath != null && !listOnly) {
+            runner.writeJson(results, jsonPath);
+            System.out.println("Results written to " + jsonPath);
+        }
+    }
+}
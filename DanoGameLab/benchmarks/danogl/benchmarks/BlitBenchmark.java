@@ -0,0 +1,72 @@
+package danogl.benchmarks;
+
+import danogl.gui.rendering.CompatibleImages;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws a sprite with translucent edges many times, scaled, into an image in the format of
+ * the screen, as the engine draws images into its back buffer. The sprite is either in the
+ * format ImageIO reads PNG files with an alpha channel into ("abgr"), in the format the engine
+ * created images in before converting them ("argb"), or converted to the format of the screen
+ * ("compatible", see {@link CompatibleImages}).
+ */
+public class BlitBenchmark extends Benchmark {
+    private static final int BLITS = 100;
+    private static final int TARGET_WIDTH = 1280, TARGET_HEIGHT = 720;
+    private static final float SCALE = 1.5f;
+
+    private final int imageSize;
+    private final String format;
+    private BufferedImage sprite, target;
+    private Graphics2D g;
+
+    /**
+     * @param format "abgr", "argb" or "compatible"
+     */
+    public BlitBenchmark(int imageSize, String format) {
+        super("Graphics2D.drawImage");
+        this.imageSize = imageSize;
+        this.format = format;
+        param("imageSize", imageSize);
+        param("format", format);
+    }
+
+    @Override
+    public void setUp() {
+        switch(format) {
+            case "abgr":
+                sprite = TestImages.transparentSprite(imageSize, BufferedImage.TYPE_4BYTE_ABGR);
+                break;
+            case "argb":
+                sprite = TestImages.transparentSprite(imageSize, BufferedImage.TYPE_INT_ARGB);
+                break;
+            case "compatible":
+                sprite = CompatibleImages.toCompatible(
+                        TestImages.transparentSprite(imageSize, BufferedImage.TYPE_INT_ARGB));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        target = CompatibleImages.create(TARGET_WIDTH, TARGET_HEIGHT, Transparency.OPAQUE);
+        g = target.createGraphics();
+    }
+
+    @Override
+    public long runOperation() {
+        int size = (int)(imageSize*SCALE);
+        for(int i = 0 ; i < BLITS ; i++) {
+            int x = (i*97) % (TARGET_WIDTH - size), y = (i*61) % (TARGET_HEIGHT - size);
+            g.drawImage(sprite, x, y, size, size, null);
+        }
+        return target.getRGB(TARGET_WIDTH/2, TARGET_HEIGHT/2);
+    }
+
+    @Override
+    public void tearDown() {
+        g.dispose();
+        g = null;
+        sprite = target = null;
+    }
+}
@@ -0,0 +1,138 @@
+package danogl.benchmarks;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.components.GameObjectPhysics;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A frame of collision handling (LayerManager.handleCollisions, through
+ * {@link GameObjectCollection#handleCollisions()}): a given share of the objects are static
+ * (by default a third), and the rest move in random directions, some of them under gravity, and wrap around
+ * the edges of the world. The world grows with the number of objects, so that the
+ * density of objects, and so the number of collisions per object, stays the same.
+ * <br>Only the collision handling is timed: before each operation, the moving objects are
+ * updated and the collection is flushed, as GameManager.update does before handling collisions.
+ * <br>With narrowPhaseThreads, the candidate pairs are tested on a pool of that many threads
+ * (see {@link GameObjectCollection#setNarrowPhasePool(ForkJoinPool)}).
+ */
+public class CollisionBenchmark extends Benchmark {
+    private static final float DELTA_TIME = 1/60f;
+    private static final float SPACE_PER_OBJECT = 60;
+    private static final long SEED = 1;
+    /** The default percentage of static objects */
+    public static final int DEFAULT_STATIC_PERCENT = 33;
+
+    private final int objectCount;
+    private final int staticPercent;
+    private final int narrowPhaseThreads;
+    private GameObjectCollection gameObjects;
+    private final List<GameObject> movingObjects = new ArrayList<>();
+    private float worldSize;
+    private ForkJoinPool pool;
+
+    /**
+     * @param narrowPhaseThreads the parallelism of the narrow phase, or 0 for none
+     */
+    public CollisionBenchmark(int objectCount, int narrowPhaseThreads) {
+        this(objectCount, DEFAULT_STATIC_PERCENT, narrowPhaseThreads);
+    }
+
+    /**
+     * @param staticPercent the percentage of the objects that are static
+     * @param narrowPhaseThreads the parallelism of the narrow phase, or 0 for none
+     * @throws IllegalArgumentException if staticPercent is not between 0 and 100
+     */
+    public CollisionBenchmark(int objectCount, int staticPercent, int narrowPhaseThreads) {
+        super("LayerManager.handleCollisions");
+        if(staticPercent < 0 || staticPercent > 100)
+            throw new IllegalArgumentException("The static percentage must be between 0 and 100");
+        this.objectCount = objectCount;
+        this.staticPercent = staticPercent;
+        this.narrowPhaseThreads = narrowPhaseThreads;
+        param("objects", objectCount);
+        param("staticPercent", staticPercent);
+        param("narrowPhaseThreads", narrowPhaseThreads);
+    }
+
+    @Override
+    public void setUp() {
+        var random = new Random(SEED);
+        worldSize = (float)Math.sqrt(objectCount) * SPACE_PER_OBJECT;
+        gameObjects = new GameObjectCollection(null);
+        movingObjects.clear();
+        for(int i = 0 ; i < objectCount ; i++) {
+            var obj = new GameObject(
+                    new Vector2(random.nextFloat()*worldSize, random.nextFloat()*worldSize),
+                    new Vector2(10 + random.nextInt(40), 10 + random.nextInt(40)), null);
+            //static objects are spread evenly over the indices
+            if((i+1)*staticPercent/100 != i*staticPercent/100) {
+                obj.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+                obj.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+                gameObjects.addGameObject(obj, Layer.STATIC_OBJECTS);
+                continue;
+            }
+            obj.setVelocity(new Vector2(random.nextInt(200)-100, random.nextInt(200)-100));
+            if(i%2 == 0) {
+                obj.transform().setAccelerationY(100);
+                obj.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+            }
+            gameObjects.addGameObject(obj);
+            movingObjects.add(obj);
+        }
+        if(narrowPhaseThreads > 0) {
+            pool = new ForkJoinPool(narrowPhaseThreads);
+            gameObjects.setNarrowPhasePool(pool);
+        }
+        gameObjects.update(0);
+    }
+
+    @Override
+    public boolean isOperationPrepared() {
+        return true;
+    }
+
+    @Override
+    public void prepareOperation() {
+        for(int i = 0 ; i < movingObjects.size() ; i++) {
+            var obj = movingObjects.get(i);
+            obj.update(DELTA_TIME);
+            wrapAround(obj);
+        }
+        gameObjects.update(DELTA_TIME);
+    }
+
+    @Override
+    public long runOperation() {
+        gameObjects.handleCollisions();
+        return gameObjects.getPairsCheckedLastFrame();
+    }
+
+    @Override
+    public void tearDown() {
+        if(pool != null)
+            pool.shutdown();
+        pool = null;
+        gameObjects = null;
+        movingObjects.clear();
+    }
+
+    //keeps the objects, and so the density, within the world
+    private void wrapAround(GameObject obj) {
+        var corner = obj.getTopLeftCorner();
+        float x = corner.x(), y = corner.y();
+        if(x >= 0 && x < worldSize && y >= 0 && y < worldSize)
+            return;
+        x = ((x % worldSize) + worldSize) % worldSize;
+        y = ((y % worldSize) + worldSize) % worldSize;
+        obj.transform().setTopLeftCorner(x, y);
+        //falling objects would otherwise accelerate forever
+        obj.setVelocity(obj.getVelocity().multY(0.5f));
+    }
+}
@@ -0,0 +1,124 @@
+package danogl.benchmarks;
+
+import danogl.GameManager;
+import danogl.GameObject;
+import danogl.components.Transition;
+import danogl.gui.HeadlessGameRunner;
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A full frame of {@link GameManager#update(float)}, run headless: objects moving around the
+ * window and colliding, each animated by transitions, as in a typical scene.
+ * The objects are self-contained, so with updateThreads they are updated on a pool of that
+ * many threads (see {@link GameManager#setUpdatePool(ForkJoinPool)}).
+ */
+public class GameManagerUpdateBenchmark extends Benchmark {
+    private static final float DELTA_TIME = 1/60f;
+    private static final float SPACE_PER_OBJECT = 60;
+    private static final long SEED = 1;
+
+    private final int objectCount;
+    private final int updateThreads;
+    private GameManager game;
+    private ForkJoinPool pool;
+
+    /**
+     * @param updateThreads the parallelism of the update, or 0 to update serially
+     */
+    public GameManagerUpdateBenchmark(int objectCount, int updateThreads) {
+        super("GameManager.update");
+        this.objectCount = objectCount;
+        this.updateThreads = updateThreads;
+        param("objects", objectCount);
+        param("updateThreads", updateThreads);
+    }
+
+    @Override
+    public void setUp() {
+        float windowSize = (float)Math.sqrt(objectCount) * SPACE_PER_OBJECT;
+        game = new Scene(objectCount);
+        var runner = new HeadlessGameRunner(game, Vector2.ONES.mult(windowSize));
+        game.initializeGame(new ImageReader(runner.messages()), new SoundReader(runner.messages()),
+                runner.inputListener(), runner);
+        if(updateThreads > 0) {
+            pool = new ForkJoinPool(updateThreads);
+            game.setUpdatePool(pool);
+        }
+    }
+
+    @Override
+    public long runOperation() {
+        game.update(DELTA_TIME);
+        return 1;
+    }
+
+    @Override
+    public void tearDown() {
+        game.setUpdatePool(null);
+        if(pool != null)
+            pool.shutdown();
+        pool = null;
+        game = null;
+    }
+
+    private static class Scene extends GameManager {
+        private final int objectCount;
+
+        Scene(int objectCount) {
+            this.objectCount = objectCount;
+        }
+
+        @Override
+        public void initializeGame(ImageReader imageReader, SoundReader soundReader,
+                                   UserInputListener inputListener, WindowController windowController) {
+            super.initializeGame(imageReader, soundReader, inputListener, windowController);
+            var random = new Random(SEED);
+            var windowDimensions = windowController.getWindowDimensions();
+            for(int i = 0 ; i < objectCount ; i++) {
+                var obj = new Mover(
+                        new Vector2(random.nextFloat()*windowDimensions.x(),
+                                random.nextFloat()*windowDimensions.y()),
+                        new Vector2(10 + random.nextInt(30), 10 + random.nextInt(30)),
+                        windowDimensions);
+                obj.setVelocity(new Vector2(random.nextInt(200)-100, random.nextInt(200)-100));
+                var dimensions = obj.getDimensions();
+                new Transition<>(obj, obj::setDimensions, dimensions, dimensions.mult(0.5f),
+                        Transition.LINEAR_INTERPOLATOR_VECTOR, 1 + random.nextFloat()*2,
+                        Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
+                new Transition<>(obj, obj.renderer()::setRenderableAngle, 0f, 90f,
+                        Transition.CUBIC_INTERPOLATOR_FLOAT, 1 + random.nextFloat(),
+                        Transition.TransitionType.TRANSITION_LOOP, null);
+                gameObjects().addGameObject(obj);
+            }
+        }
+    }
+
+    //bounces off the edges of the window, touching nothing but itself
+    private static class Mover extends GameObject {
+        private final Vector2 bounds;
+
+        Mover(Vector2 topLeftCorner, Vector2 dimensions, Vector2 bounds) {
+            super(topLeftCorner, dimensions, null);
+            this.bounds = bounds;
+            setUpdateSelfContained(true);
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            super.update(deltaTime);
+            var corner = getTopLeftCorner();
+            var velocity = getVelocity();
+            if((corner.x() < 0 && velocity.x() < 0) || (corner.x() > bounds.x() && velocity.x() > 0))
+                setVelocity(velocity.multX(-1));
+            if((corner.y() < 0 && velocity.y() < 0) || (corner.y() > bounds.y() && velocity.y() > 0))
+                setVelocity(getVelocity().multY(-1));
+        }
+    }
+}
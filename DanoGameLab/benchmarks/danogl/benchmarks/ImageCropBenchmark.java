@@ -0,0 +1,39 @@
+package danogl.benchmarks;
+
+import danogl.gui.rendering.ImageRenderable;
+import danogl.util.Vector2;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Crops the central quarter of a square image, as ImageReader does for each sprite
+ * read from a sprite sheet ({@link ImageRenderable#crop(Vector2, Vector2)}).
+ */
+public class ImageCropBenchmark extends Benchmark {
+    private final int imageSize;
+    private ImageRenderable image;
+    private Vector2 topLeft, bottomRight;
+
+    public ImageCropBenchmark(int imageSize) {
+        super("ImageRenderable.crop");
+        this.imageSize = imageSize;
+        param("imageSize", imageSize);
+    }
+
+    @Override
+    public void setUp() {
+        image = new ImageRenderable(TestImages.sprite(imageSize, BufferedImage.TYPE_INT_ARGB));
+        topLeft = Vector2.ONES.mult(imageSize/4f);
+        bottomRight = Vector2.ONES.mult(imageSize*3/4f);
+    }
+
+    @Override
+    public long runOperation() {
+        return image.crop(topLeft, bottomRight).getImage().getRGB(0, 0);
+    }
+
+    @Override
+    public void tearDown() {
+        image = null;
+    }
+}
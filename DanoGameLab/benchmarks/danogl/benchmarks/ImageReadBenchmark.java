@@ -0,0 +1,49 @@
+package danogl.benchmarks;
+
+import danogl.gui.ImageReader;
+import danogl.gui.MessageHandler;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+/**
+ * Reads an opaque sprite whose background is a solid color from a PNG file, bypassing
+ * the reader's cache. With transparency, the background is made transparent
+ * (ImageReader.addTransparency); the difference between the two variants is the cost of that.
+ */
+public class ImageReadBenchmark extends Benchmark {
+    private final int imageSize;
+    private final boolean isTopLeftPixelTransparency;
+    private File file;
+    private ImageReader imageReader;
+
+    public ImageReadBenchmark(int imageSize, boolean isTopLeftPixelTransparency) {
+        super("ImageReader.readImage");
+        this.imageSize = imageSize;
+        this.isTopLeftPixelTransparency = isTopLeftPixelTransparency;
+        param("imageSize", imageSize);
+        param("transparency", isTopLeftPixelTransparency);
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        file = File.createTempFile("danogl-benchmark", ".png");
+        file.deleteOnExit();
+        ImageIO.write(TestImages.sprite(imageSize, BufferedImage.TYPE_INT_RGB), "png", file);
+        imageReader = new ImageReader(new MessageHandler(null));
+    }
+
+    @Override
+    public long runOperation() {
+        imageReader.clearCache();
+        return imageReader.readImage(file.getPath(), isTopLeftPixelTransparency)
+                .getImage().getRGB(imageSize/2, imageSize/2);
+    }
+
+    @Override
+    public void tearDown() {
+        file.delete();
+        imageReader = null;
+    }
+}
@@ -0,0 +1,52 @@
+package danogl.benchmarks;
+
+import danogl.util.ModifiableList;
+
+/**
+ * Removes a tenth of a {@link ModifiableList}'s elements, flushes, adds them back and flushes
+ * again, as a game does when objects come and go. The removed tenth changes from operation
+ * to operation, so removals happen throughout the list.
+ */
+public class ModifiableListBenchmark extends Benchmark {
+    private static final int CHANGED_FRACTION = 10;
+
+    private final int size;
+    private Object[] elements;
+    private ModifiableList<Object> list;
+    private int offset = 0;
+
+    public ModifiableListBenchmark(int size) {
+        super("ModifiableList.addRemoveFlush");
+        this.size = size;
+        param("size", size);
+    }
+
+    @Override
+    public void setUp() {
+        elements = new Object[size];
+        list = new ModifiableList<>(false);
+        for(int i = 0 ; i < size ; i++) {
+            elements[i] = new Object();
+            list.add(elements[i]);
+        }
+        list.flushChanges();
+    }
+
+    @Override
+    public long runOperation() {
+        for(int i = offset ; i < size ; i += CHANGED_FRACTION)
+            list.remove(elements[i]);
+        list.flushChanges();
+        for(int i = offset ; i < size ; i += CHANGED_FRACTION)
+            list.add(elements[i]);
+        list.flushChanges();
+        offset = (offset + 1) % CHANGED_FRACTION;
+        return list.size();
+    }
+
+    @Override
+    public void tearDown() {
+        elements = null;
+        list = null;
+    }
+}
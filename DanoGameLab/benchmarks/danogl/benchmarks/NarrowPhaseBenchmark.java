@@ -0,0 +1,80 @@
+package danogl.benchmarks;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A frame of collision handling in which the narrow phase does most of the work: the objects
+ * are tiles laid side by side, so that every tile touches its neighbors without intersecting
+ * them. The broad phase passes on every pair of neighbors (touching boxes may collide), and
+ * every pair is rejected by the narrow phase. The tiles are kept from falling asleep,
+ * so that their pairs are checked every frame. Only the collision handling is timed.
+ * <br>With narrowPhaseThreads 0 the pairs are tested one by one as they are handled, and
+ * otherwise they are tested in batches on a pool of that many threads beforehand
+ * (see {@link GameObjectCollection#setNarrowPhasePool(ForkJoinPool)}), so the two can be compared.
+ */
+public class NarrowPhaseBenchmark extends Benchmark {
+    private static final float DELTA_TIME = 1/60f;
+    private static final float TILE_SIZE = 16;
+
+    private final int objectCount;
+    private final int narrowPhaseThreads;
+    private GameObjectCollection gameObjects;
+    private ForkJoinPool pool;
+
+    /**
+     * @param narrowPhaseThreads the parallelism of the narrow phase, or 0 for none
+     */
+    public NarrowPhaseBenchmark(int objectCount, int narrowPhaseThreads) {
+        super("GameObjectCollection.handleCollisions.narrowPhase");
+        this.objectCount = objectCount;
+        this.narrowPhaseThreads = narrowPhaseThreads;
+        param("objects", objectCount);
+        param("narrowPhaseThreads", narrowPhaseThreads);
+    }
+
+    @Override
+    public void setUp() {
+        gameObjects = new GameObjectCollection(null);
+        int columns = (int)Math.ceil(Math.sqrt(objectCount));
+        for(int i = 0 ; i < objectCount ; i++) {
+            var tile = new GameObject(
+                    new Vector2(i % columns, i / columns).mult(TILE_SIZE),
+                    Vector2.ONES.mult(TILE_SIZE), null);
+            tile.physics().setCanSleep(false);
+            gameObjects.addGameObject(tile);
+        }
+        if(narrowPhaseThreads > 0) {
+            pool = new ForkJoinPool(narrowPhaseThreads);
+            gameObjects.setNarrowPhasePool(pool);
+        }
+        gameObjects.update(0);
+    }
+
+    @Override
+    public boolean isOperationPrepared() {
+        return true;
+    }
+
+    @Override
+    public void prepareOperation() {
+        gameObjects.update(DELTA_TIME);
+    }
+
+    @Override
+    public long runOperation() {
+        gameObjects.handleCollisions();
+        return gameObjects.getPairsCheckedLastFrame();
+    }
+
+    @Override
+    public void tearDown() {
+        if(pool != null)
+            pool.shutdown();
+        pool = null;
+        gameObjects = null;
+    }
+}
@@ -0,0 +1,187 @@
+package danogl.benchmarks;
+
+import danogl.GameManager;
+import danogl.GameObject;
+import danogl.collisions.BatchCollisionResolver;
+import danogl.collisions.CollisionResolver;
+import danogl.collisions.Layer;
+import danogl.components.GameObjectPhysics;
+import danogl.gui.HeadlessGameRunner;
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the default collision resolver, which resolves each collision as soon as it is
+ * found, with {@link BatchCollisionResolver}, which resolves the collisions of a frame together.
+ * Both run the same game headless: columns of boxes fall onto the ground under gravity,
+ * and a wide box lands across the tops of two columns, so that it rests on several boxes
+ * at once. The check measures when the boxes stop moving, how much they move afterwards
+ * (jitter), and how deep any two of them intersect, and fails if either resolver lets the
+ * stacks sink or keep moving, or if the batched resolver settles later, jitters more or
+ * lets boxes sink deeper than the default one.
+ * <br>Run it like the benchmarks (see the package documentation):
+ * <pre>
+ * java -Djava.awt.headless=true -cp out:out-benchmarks danogl.benchmarks.ResolverCheck
+ * </pre>
+ * It prints the measurements of each resolver, and exits with status 1 if a check failed.
+ */
+public class ResolverCheck {
+    private static final int FRAMES = 900;
+    //the last frames, in which the stacks should be at rest
+    private static final int MEASURED_FRAMES = 120;
+    private static final int[] STACK_HEIGHTS = {3, 6, 10};
+    private static final int COLUMNS = 3;
+    private static final float BOX_SIZE = 40;
+    private static final float GROUND_Y = 500;
+    //moving less than this, in total over all boxes in a frame, counts as being at rest
+    private static final float REST_MOVEMENT = 0.01f;
+    //how deep boxes at rest may intersect; the resolvers leave them touching by about a pixel
+    private static final float MAX_PENETRATION = 1.5f;
+    //the measurements of the two resolvers are compared with this much leeway
+    private static final float TOLERANCE = 0.001f;
+
+    /**
+     * Runs the checks.
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        boolean passed = true;
+        for(int stackHeight : STACK_HEIGHTS) {
+            var inline = run("CollisionResolver", CollisionResolver::new, stackHeight);
+            var batched = run("BatchCollisionResolver", BatchCollisionResolver::new, stackHeight);
+            passed &= inline.check() & batched.check();
+            passed &= report(batched.settledFrame <= inline.settledFrame,
+                    "batched settles no later than inline", stackHeight);
+            passed &= report(batched.jitter <= inline.jitter + TOLERANCE,
+                    "batched jitters no more than inline", stackHeight);
+            passed &= report(batched.maxPenetration <= inline.maxPenetration + TOLERANCE,
+                    "batched sinks no deeper than inline", stackHeight);
+        }
+        if(!passed)
+            System.exit(1);
+    }
+
+    private static Stacks run(String name, Supplier<CollisionResolver> resolver, int stackHeight) {
+        var stacks = new Stacks(name, resolver, stackHeight);
+        new HeadlessGameRunner(stacks, null).run(FRAMES);
+        return stacks;
+    }
+
+    private static boolean report(boolean passed, String check, int stackHeight) {
+        System.out.printf("%s %s, stacks of %d%n", passed ? "PASS" : "FAIL", check, stackHeight);
+        return passed;
+    }
+
+    //the game, which also measures the boxes after each frame
+    private static class Stacks extends GameManager {
+        private final String name;
+        private final Supplier<CollisionResolver> resolver;
+        private final int stackHeight;
+        private final List<GameObject> boxes = new ArrayList<>();
+        private float[] lastCorners;
+        private int frame;
+        //the first frame from which the boxes stayed at rest, or -1 if they are still moving
+        int settledFrame = -1;
+        float jitter, maxPenetration;
+
+        Stacks(String name, Supplier<CollisionResolver> resolver, int stackHeight) {
+            this.name = name;
+            this.resolver = resolver;
+            this.stackHeight = stackHeight;
+        }
+
+        @Override
+        public void initializeGame(ImageReader imageReader, SoundReader soundReader,
+                                   UserInputListener inputListener, WindowController windowController) {
+            super.initializeGame(imageReader, soundReader, inputListener, windowController);
+            gameObjects().setResolver(resolver.get());
+            var ground = new GameObject(new Vector2(0, GROUND_Y), new Vector2(1000, 50), null);
+            ground.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+            ground.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+            gameObjects().addGameObject(ground, Layer.STATIC_OBJECTS);
+            //the boxes start slightly apart and slightly askew
+            for(int column = 0 ; column < COLUMNS ; column++) {
+                for(int i = 0 ; i < stackHeight ; i++)
+                    addBox(new Vector2(100 + column*200 + i*3, GROUND_Y - 40 - i*41),
+                            new Vector2(BOX_SIZE, BOX_SIZE));
+            }
+            addBox(new Vector2(120, GROUND_Y - 40 - stackHeight*41 - 60), new Vector2(200, BOX_SIZE));
+            lastCorners = new float[2*boxes.size()];
+            saveCorners();
+        }
+
+        private void addBox(Vector2 topLeftCorner, Vector2 dimensions) {
+            var box = new GameObject(topLeftCorner, dimensions, null);
+            box.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+            box.transform().setAccelerationY(500);
+            gameObjects().addGameObject(box);
+            boxes.add(box);
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            super.update(deltaTime);
+            float movement = 0;
+            for(int i = 0 ; i < boxes.size() ; i++) {
+                var corner = boxes.get(i).getTopLeftCorner();
+                movement += Math.abs(corner.x() - lastCorners[2*i])
+                        + Math.abs(corner.y() - lastCorners[2*i + 1]);
+            }
+            saveCorners();
+            if(movement >= REST_MOVEMENT)
+                settledFrame = -1;
+            else if(settledFrame < 0)
+                settledFrame = frame;
+            if(frame >= FRAMES - MEASURED_FRAMES) {
+                jitter += movement/MEASURED_FRAMES;
+                maxPenetration = Math.max(maxPenetration, maxPenetration());
+            }
+            frame++;
+        }
+
+        private void saveCorners() {
+            for(int i = 0 ; i < boxes.size() ; i++) {
+                lastCorners[2*i] = boxes.get(i).getTopLeftCorner().x();
+                lastCorners[2*i + 1] = boxes.get(i).getTopLeftCorner().y();
+            }
+        }
+
+        //how deep the deepest intersection of two boxes, or of a box and the ground, is
+        private float maxPenetration() {
+            float max = 0;
+            for(int i = 0 ; i < boxes.size() ; i++) {
+                var box1 = boxes.get(i);
+                max = Math.max(max, box1.getTopLeftCorner().y() + box1.getDimensions().y() - GROUND_Y);
+                for(int j = i + 1 ; j < boxes.size() ; j++) {
+                    var box2 = boxes.get(j);
+                    float overlapX = Math.min(box1.getTopLeftCorner().x() + box1.getDimensions().x(),
+                            box2.getTopLeftCorner().x() + box2.getDimensions().x())
+                            - Math.max(box1.getTopLeftCorner().x(), box2.getTopLeftCorner().x());
+                    float overlapY = Math.min(box1.getTopLeftCorner().y() + box1.getDimensions().y(),
+                            box2.getTopLeftCorner().y() + box2.getDimensions().y())
+                            - Math.max(box1.getTopLeftCorner().y(), box2.getTopLeftCorner().y());
+                    if(overlapX > 0 && overlapY > 0)
+                        max = Math.max(max, Math.min(overlapX, overlapY));
+                }
+            }
+            return max;
+        }
+
+        //prints the measurements, and whether the stacks came to rest without sinking
+        boolean check() {
+            System.out.printf("%s, stacks of %d: settled at frame %d, jitter %.5f per frame, "
+                    + "deepest intersection %.3f%n", name, stackHeight, settledFrame, jitter, maxPenetration);
+            boolean passed = report(settledFrame >= 0 && settledFrame < FRAMES - MEASURED_FRAMES,
+                    name + " comes to rest", stackHeight);
+            return passed & report(maxPenetration <= MAX_PENETRATION,
+                    name + " keeps the boxes from sinking", stackHeight);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package danogl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * package-private. The benchmarks run by {@link BenchmarkRunner}, with their parameters.
+ */
+class Suite {
+    private static final int[] OBJECT_COUNTS = {100, 1000, 5000};
+    //the object count at which the parallel variants are scaled over the cores
+    private static final int SCALING_OBJECT_COUNT = 5000;
+    //a large world that is mostly static, like a tile world with some moving objects in it
+    private static final int MOSTLY_STATIC_OBJECT_COUNT = 10_000;
+    private static final int MOSTLY_STATIC_PERCENT = 90;
+
+    private Suite() { }
+
+    static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        for(int objectCount : OBJECT_COUNTS)
+            benchmarks.add(new CollisionBenchmark(objectCount, 0));
+        benchmarks.add(new CollisionBenchmark(MOSTLY_STATIC_OBJECT_COUNT, MOSTLY_STATIC_PERCENT, 0));
+        for(int threads : threadCounts())
+            benchmarks.add(new CollisionBenchmark(SCALING_OBJECT_COUNT, threads));
+        benchmarks.add(new NarrowPhaseBenchmark(SCALING_OBJECT_COUNT, 0));
+        for(int threads : threadCounts())
+            benchmarks.add(new NarrowPhaseBenchmark(SCALING_OBJECT_COUNT, threads));
+
+        for(int size : new int[] {100, 10_000})
+            benchmarks.add(new ModifiableListBenchmark(size));
+        benchmarks.add(new Vector2Benchmark(1024));
+        for(int imageSize : new int[] {64, 512})
+            benchmarks.add(new ImageCropBenchmark(imageSize));
+        for(int imageSize : new int[] {64, 512}) {
+            benchmarks.add(new ImageReadBenchmark(imageSize, false));
+            benchmarks.add(new ImageReadBenchmark(imageSize, true));
+        }
+        for(String format : new String[] {"abgr", "argb", "compatible"})
+            benchmarks.add(new BlitBenchmark(64, format));
+
+        for(int objectCount : OBJECT_COUNTS)
+            benchmarks.add(new GameManagerUpdateBenchmark(objectCount, 0));
+        for(int threads : threadCounts())
+            benchmarks.add(new GameManagerUpdateBenchmark(SCALING_OBJECT_COUNT, threads));
+        return benchmarks;
+    }
+
+    //1, 2, 4... up to the number of cores, and the number of cores itself
+    private static List<Integer> threadCounts() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for(int threads = 1 ; threads < cores ; threads *= 2)
+            counts.add(threads);
+        counts.add(cores);
+        return counts;
+    }
+}
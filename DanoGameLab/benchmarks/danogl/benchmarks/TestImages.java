@@ -0,0 +1,44 @@
+package danogl.benchmarks;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * package-private. Generates the images the image benchmarks work on.
+ */
+class TestImages {
+    private static final Color BACKGROUND = Color.MAGENTA;
+    private static final Color SHAPE = new Color(40, 120, 200);
+
+    private TestImages() { }
+
+    /**
+     * A sprite-like square image: an antialiased disc on a solid background, so that
+     * its edges blend with the background as in downsampled sprites.
+     */
+    static BufferedImage sprite(int size, int imageType) {
+        var image = new BufferedImage(size, size, imageType);
+        var g = image.createGraphics();
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, size, size);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(SHAPE);
+        g.fillOval(size/8, size/8, size*3/4, size*3/4);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * A sprite-like square image with a transparent background: an antialiased disc,
+     * whose edges are translucent.
+     */
+    static BufferedImage transparentSprite(int size, int imageType) {
+        var image = new BufferedImage(size, size, imageType);
+        var g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(SHAPE);
+        g.fillOval(size/8, size/8, size*3/4, size*3/4);
+        g.dispose();
+        return image;
+    }
+}
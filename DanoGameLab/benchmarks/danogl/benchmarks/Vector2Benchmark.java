@@ -0,0 +1,52 @@
+package danogl.benchmarks;
+
+import danogl.util.Vector2;
+
+import java.util.Random;
+
+/**
+ * Chains of {@link Vector2} arithmetic, as game objects compute their movement each frame:
+ * each operation runs a chain of adds, multiplications, subtractions, normalization
+ * and a dot product over an array of vectors.
+ */
+public class Vector2Benchmark extends Benchmark {
+    private static final long SEED = 1;
+
+    private final int vectorCount;
+    private Vector2[] positions, velocities;
+
+    public Vector2Benchmark(int vectorCount) {
+        super("Vector2.arithmeticChain");
+        this.vectorCount = vectorCount;
+        param("vectors", vectorCount);
+    }
+
+    @Override
+    public void setUp() {
+        var random = new Random(SEED);
+        positions = new Vector2[vectorCount];
+        velocities = new Vector2[vectorCount];
+        for(int i = 0 ; i < vectorCount ; i++) {
+            positions[i] = new Vector2(random.nextFloat()*1000, random.nextFloat()*1000);
+            velocities[i] = new Vector2(random.nextFloat()*200-100, random.nextFloat()*200-100);
+        }
+    }
+
+    @Override
+    public long runOperation() {
+        float sum = 0;
+        var target = Vector2.ONES.mult(500);
+        for(int i = 0 ; i < vectorCount ; i++) {
+            var toTarget = target.subtract(positions[i]).normalized();
+            var newVelocity = velocities[i].mult(0.9f).add(toTarget.mult(10));
+            var newPosition = positions[i].add(newVelocity.mult(1/60f));
+            sum += newPosition.dot(toTarget);
+        }
+        return Float.floatToIntBits(sum);
+    }
+
+    @Override
+    public void tearDown() {
+        positions = velocities = null;
+    }
+}
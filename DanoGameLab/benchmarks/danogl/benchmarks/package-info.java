@@ -0,0 +1,22 @@
+/**
+ * Benchmarks of the engine's hot paths: collision handling, ModifiableList, Vector2, reading,
+ * cropping and drawing images, and whole headless frames of GameManager.update. The parallel
+ * collision and update paths are measured at 1, 2, 4... threads, up to the number of cores.
+ * <br>The benchmarks need nothing but the JDK and the engine. To compile and run them
+ * from the DanoGameLab directory:
+ * <pre>
+ * javac -d out $(find src -name '*.java')
+ * javac -d out-benchmarks -cp out $(find benchmarks -name '*.java')
+ * java -Djava.awt.headless=true -cp out:out-benchmarks danogl.benchmarks.BenchmarkRunner -o results.json
+ * </pre>
+ * Arguments other than options select the benchmarks whose name contains them, e.g.
+ * "ModifiableList" or "narrowPhaseThreads". See {@link danogl.benchmarks.BenchmarkRunner#main}
+ * for the options.
+ * <br>The same benchmarks can be run under JMH, through the Maven build in the
+ * benchmarks-jmh directory, which adapts each of them to JMH (see its pom.xml).
+ * <br>{@link danogl.benchmarks.AllocationCheck} checks, in the same way, that the paths that
+ * should not allocate do not, and fails with a nonzero exit status if they do.
+ * {@link danogl.benchmarks.ResolverCheck} likewise checks that stacks of objects come to rest
+ * with each collision resolver, and that the batched one settles them no worse than the default.
+ */
+package danogl.benchmarks;
@@ -3,10 +3,17 @@ package danogl;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
 import danogl.gui.mouse.MouseActionParams;
+import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.Camera;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.gui.rendering.SpriteBatch;
+import danogl.gui.rendering.TextureAtlas;
 import danogl.util.*;
 import danogl.gui.*;
 import java.awt.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * The principle class of the game.
@@ -29,6 +36,65 @@ public class GameManager {
     private GameGUIComponent gameGUIComponent;
     private Camera camera;
     private NotifyOfMouseActions mouseActionNotifier;
+    //the arguments of the current update and render, so that the traversals do not allocate
+    private float updateDeltaTime;
+    private Graphics2D renderGraphics;
+    private float renderInterpolation = 1;
+    private SpriteBatch spriteBatch = null;
+    private final Consumer<GameObject> updateObject = obj -> obj.update(updateDeltaTime);
+    private final Consumer<GameObject> renderObject = obj -> {
+        if(spriteBatch == null) {
+            renderObject(obj);
+            return;
+        }
+        //objects that may draw themselves are drawn in order with the images they render
+        if(isRenderOverridden.get(obj.getClass())) {
+            spriteBatch.suspend();
+            try {
+                renderObject(obj);
+            }
+            finally {
+                spriteBatch.resume();
+            }
+            return;
+        }
+        //anything other than an image is drawn immediately, so the images before it are drawn first
+        if(!isBatched(obj.renderer().getRenderable()))
+            spriteBatch.flush();
+        renderObject(obj);
+    };
+    //whether objects of a class override render, and so may draw into the Graphics2D themselves
+    private static final ClassValue<Boolean> isRenderOverridden = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("render", Graphics2D.class).getDeclaringClass() != GameObject.class
+                        || type.getMethod("render", Graphics2D.class, Camera.class)
+                                .getDeclaringClass() != GameObject.class
+                        || type.getMethod("render", Graphics2D.class, Camera.class, float.class)
+                                .getDeclaringClass() != GameObject.class;
+            }
+            catch(NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+    private static final Consumer<GameObject> savePosition =
+            obj -> obj.transform().savePreviousTopLeftCorner();
+    private FrameProfiler frameProfiler = null;
+    private boolean isRenderCulling = false;
+    private final Runnable flushSpriteBatch = () -> spriteBatch.flush();
+    //with an update pool, runs of self-contained objects are updated in parallel, and each
+    //other object is updated serially once the objects before it were
+    private ParallelUpdate parallelUpdate = null;
+    private final Consumer<GameObject> scheduleUpdate = obj -> {
+        if(obj.isUpdateSelfContained())
+            parallelUpdate.add(obj);
+        else {
+            parallelUpdate.updateAll(updateDeltaTime);
+            obj.update(updateDeltaTime);
+        }
+    };
 
     /**
      * Creates a new full-screen window with a default title.
@@ -62,8 +128,16 @@ public class GameManager {
     /**
      * Begins execution of the GameManager: after calling this method,
      * initializeGame will run and then all other callbacks.
+     * <br>If the system property {@value HeadlessGameRunner#FRAMES_PROPERTY} is set to a
+     * number of frames, the game instead runs that many frames without a window,
+     * and the time they took is printed.
      */
     public void run() {
+        Integer headlessFrames = Integer.getInteger(HeadlessGameRunner.FRAMES_PROPERTY);
+        if(headlessFrames != null) {
+            runHeadless(headlessFrames);
+            return;
+        }
         if(windowDimensions == null) {
             gameGUIComponent = new GameGUIComponent(this, windowTitle);
         }
@@ -75,6 +149,24 @@ public class GameManager {
         gameGUIComponent.run();
     }
 
+    /**
+     * Runs the game without a window, as fast as possible, for the given number of frames
+     * or until it closes itself. For more control (input, pacing), use a
+     * {@link HeadlessGameRunner} directly.
+     * @return the number of frames that ran
+     */
+    public int runHeadless(int frames) {
+        var runner = new HeadlessGameRunner(this, windowDimensions);
+        long startTime = System.nanoTime();
+        int framesRan = runner.run(frames);
+        double millis = (System.nanoTime() - startTime)/1_000_000D;
+        runner.messages().showMessage(
+                String.format("Ran %d frames headless in %.1f ms (%.1f frames per second)",
+                        framesRan, millis, framesRan*1000/millis),
+                MsgLevel.INFO);
+        return framesRan;
+    }
+
     /**
      * The method will be called once when a GameGUIComponent is created,
      * and again after every invocation of windowController.resetGame().
@@ -98,8 +190,11 @@ public class GameManager {
             WindowController windowController) {
         gameObjects = new GameObjectCollection(windowController.messages());
         mouseActionNotifier = new NotifyOfMouseActions(this, inputListener);
-        gameGUIComponent.addMouseListener(mouseActionNotifier);
-        gameGUIComponent.addMouseWheelListener(mouseActionNotifier);
+        //a headless game has no window to report mouse actions
+        if(gameGUIComponent != null) {
+            gameGUIComponent.addMouseListener(mouseActionNotifier);
+            gameGUIComponent.addMouseWheelListener(mouseActionNotifier);
+        }
         setCamera(null);
 
         Tools.shelf().registerToolIfAbsent(gameObjects());
@@ -123,12 +218,151 @@ public class GameManager {
      */
     public void update(float deltaTime) {
         //update all objects and look for collisions.
-        for(GameObject obj : gameObjects)
-            obj.update(deltaTime);
+        long time = frameProfiler == null ? 0 : System.nanoTime();
+        updateDeltaTime = deltaTime;
+        var transformWorld = gameObjects.transformWorld();
+        if(transformWorld != null)
+            transformWorld.integrateAll(deltaTime);
+        if(parallelUpdate == null)
+            gameObjects.forEachInDrawOrder(updateObject);
+        else
+            updateObjectsInParallel(deltaTime);
+        time = profile(FrameProfiler.Phase.OBJECT_UPDATE, time);
         if(camera != null)
             camera.update(deltaTime);
+        time = profile(FrameProfiler.Phase.CAMERA_UPDATE, time);
         gameObjects.update(deltaTime);
+        time = profile(FrameProfiler.Phase.COLLECTION_FLUSH, time);
         gameObjects.handleCollisions();
+        profile(FrameProfiler.Phase.COLLISIONS, time);
+        if(frameProfiler != null) {
+            frameProfiler.setObjectCount(gameObjects.size());
+            frameProfiler.addPairCount(gameObjects.getPairsCheckedLastFrame());
+        }
+    }
+
+    /**
+     * Sets a profiler that records the durations of the phases of every frame, and what
+     * the frames handled. The game loop, windowed or headless, records each frame into it.
+     * @param profiler the profiler to record into, or null to not profile (the default).
+     * @see danogl.util.ProfilerOverlay
+     */
+    public void setFrameProfiler(FrameProfiler profiler) {
+        frameProfiler = profiler;
+    }
+
+    /**
+     * Returns the profiler frames are recorded into, or null if they are not profiled.
+     */
+    public FrameProfiler frameProfiler() {
+        return frameProfiler;
+    }
+
+    /**
+     * Sets whether render skips the objects in world coordinates that lie outside the camera's
+     * view, so that rendering costs what is visible rather than what is in the world.
+     * This assumes that objects are drawn within their box (or, if rotated, within the circle
+     * around it); objects that override render to draw elsewhere should not be culled.
+     * Has no effect while there is no camera.
+     * @param isRenderCulling true to cull, false to render all objects (the default).
+     * @see GameObjectCollection#forEachInDrawOrderInView
+     */
+    public void setRenderCulling(boolean isRenderCulling) {
+        this.isRenderCulling = isRenderCulling;
+    }
+
+    /**
+     * Sets whether render draws the images of each layer grouped by the image they are drawn
+     * from, rather than one by one (see {@link SpriteBatch}). This pays off when the images were
+     * packed into a few large ones, by passing a {@link TextureAtlas} to
+     * {@link ImageReader#setAtlas(TextureAtlas)} before reading them.
+     * Within a layer, images drawn from different images may then be drawn in a different order
+     * than their objects, unless an object of another kind is drawn between them.
+     * Animations are batched frame by frame. Objects whose class overrides render are drawn
+     * without batching, in order with the objects around them, since they may draw directly
+     * into the Graphics2D.
+     * @param isRenderBatching true to batch, false to draw objects one by one (the default).
+     */
+    public void setRenderBatching(boolean isRenderBatching) {
+        spriteBatch = isRenderBatching ? new SpriteBatch() : null;
+    }
+
+    /**
+     * Returns the batch images are drawn through, or null if they are drawn one by one.
+     */
+    public SpriteBatch spriteBatch() {
+        return spriteBatch;
+    }
+
+    /**
+     * Sets a pool on which the objects declared as self-contained
+     * (see {@link GameObject#setUpdateSelfContained(boolean)}) are updated in parallel.
+     * Objects are still updated in drawing order: the self-contained objects between two
+     * other objects are updated in parallel with each other, after the first of the two
+     * and before the second, and the other objects are updated on the thread calling update.
+     * The more self-contained objects are drawn consecutively (e.g. in a layer of their own),
+     * the more of them are updated in parallel.
+     * @param pool the pool to use, for example {@link ForkJoinPool#commonPool()}, or null
+     *             to update all objects serially (the default).
+     */
+    public void setUpdatePool(ForkJoinPool pool) {
+        parallelUpdate = pool == null ? null : new ParallelUpdate(pool);
+    }
+
+    /**
+     * Called by the game loop, in fixed-timestep mode, before each update: remembers the
+     * positions of the objects and of the camera, so that they can be rendered between
+     * these positions and the ones they move to.
+     * @see WindowController#setFixedTimestep(float)
+     */
+    public void saveStateForInterpolation() {
+        gameObjects.forEachInDrawOrder(savePosition);
+        if(camera != null)
+            camera.transform().savePreviousTopLeftCorner();
+    }
+
+    /**
+     * Called by the game loop before render, in fixed-timestep mode: sets where render places
+     * the objects between their positions before the last update and their current positions.
+     * @param alpha the fraction of a timestep that passed since the last update:
+     *              0 for the positions before the last update, 1 for the current positions.
+     * @see GameObject#render(Graphics2D, Camera, float)
+     */
+    public void setRenderInterpolation(float alpha) {
+        renderInterpolation = alpha;
+    }
+
+    private void renderObject(GameObject obj) {
+        if(renderInterpolation >= 1)
+            obj.render(renderGraphics, camera);
+        else
+            obj.render(renderGraphics, camera, renderInterpolation);
+    }
+
+    //whether the renderable only draws through the sprite batch (or draws nothing)
+    private static boolean isBatched(Renderable renderable) {
+        if(renderable instanceof AnimationRenderable)
+            renderable = ((AnimationRenderable)renderable).currentClip();
+        return renderable == null || renderable instanceof ImageRenderable;
+    }
+
+    //adds the time since startTime to the phase, and returns the current time
+    private long profile(FrameProfiler.Phase phase, long startTime) {
+        if(frameProfiler == null)
+            return 0;
+        long now = System.nanoTime();
+        frameProfiler.addPhaseNanos(phase, now - startTime);
+        return now;
+    }
+
+    private void updateObjectsInParallel(float deltaTime) {
+        try {
+            gameObjects.forEachInDrawOrder(scheduleUpdate);
+            parallelUpdate.updateAll(deltaTime);
+        }
+        finally {
+            parallelUpdate.clear();
+        }
     }
 
     /**
@@ -137,8 +371,32 @@ public class GameManager {
      * @param g A utility object for drawing shapes, text, and images.
      */
     public void render(Graphics2D g) {
-        for (GameObject obj : gameObjects)
-            obj.render(g, camera);
+        long time = frameProfiler == null ? 0 : System.nanoTime();
+        renderGraphics = g;
+        if(spriteBatch != null)
+            spriteBatch.begin(g);
+        //the batch is global, so it must not stay active if an object fails to render
+        try {
+            var afterEachLayer = spriteBatch == null ? null : flushSpriteBatch;
+            if(isRenderCulling && camera != null) {
+                //the camera's view, where it is rendered
+                var viewTopLeftCorner = renderInterpolation >= 1 ? camera.getTopLeftCorner()
+                        : camera.transform().getInterpolatedTopLeftCorner(renderInterpolation);
+                int culled = gameObjects.forEachInDrawOrderInView(
+                        viewTopLeftCorner, camera.getDimensions(), renderInterpolation,
+                        renderObject, afterEachLayer);
+                if(frameProfiler != null)
+                    frameProfiler.addCulledCount(culled);
+            }
+            else
+                gameObjects.forEachInDrawOrder(renderObject, afterEachLayer);
+        }
+        finally {
+            if(spriteBatch != null)
+                spriteBatch.end();
+            renderGraphics = null;
+        }
+        profile(FrameProfiler.Phase.RENDER, time);
     }
 
     /**
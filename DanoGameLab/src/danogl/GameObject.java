@@ -13,6 +13,7 @@ import danogl.util.MutableVector2;
 import danogl.util.Vector2;
 
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents an object in the game. For example, an object has dimensions, a certain
@@ -21,12 +22,28 @@ import java.awt.*;
  * @author Dan Nirel
  */
 public class GameObject {
+    private static final AtomicInteger idCounter = new AtomicInteger();
+
+    private final int id = idCounter.getAndIncrement();
     private RendererComponent renderer;
     private Transform transform;
     private GameObjectPhysics physics;
     private CoordinateSpace coordinateSpace = CoordinateSpace.WORLD_COORDINATES;
     private String tag = "";
     private ModifiableList<Component> components;
+    private boolean isUpdateSelfContained = false;
+    //whether objects of a class override update, and so may change their motion before integrating it
+    private static final ClassValue<Boolean> isUpdateOverridden = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("update", float.class).getDeclaringClass() != GameObject.class;
+            }
+            catch(NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
 
     /**
      * Use with care. this a general-purpose container vector for calculations where
@@ -44,6 +61,7 @@ public class GameObject {
      */
     public GameObject(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
         this.transform = new Transform(topLeftCorner, dimensions);
+        transform.setIntegratedInBulk(!isUpdateOverridden.get(getClass()));
         this.renderer = new RendererComponent(this, renderable);
         this.physics = new GameObjectPhysics();
         this.physics.setCollider(new AABBCollider(0, 0, 1, 1));
@@ -98,6 +116,36 @@ public class GameObject {
         renderer.render(g, camera.worldToScreenCoords(getTopLeftCorner()), freeCalculationsVector);
     }
 
+    /**
+     * Renders the object, and the camera, between their positions before the last update and
+     * their current positions. Used by the fixed-timestep game loop, which updates
+     * the objects at a different rate than it renders them.
+     * The object and the camera are placed there for the duration of a call to
+     * {@link #render(Graphics2D, Camera)} (see {@link Transform#beginInterpolation(float)}),
+     * so objects that override it are rendered between their positions as well.
+     * @param alpha 0 for the positions before the last update, 1 for the current positions,
+     *              in which case this is the same as {@link #render(Graphics2D, Camera)}.
+     * @see danogl.gui.WindowController#setFixedTimestep(float)
+     */
+    public void render(Graphics2D g, Camera camera, float alpha) {
+        if(alpha >= 1) {
+            render(g, camera);
+            return;
+        }
+        var cameraTransform = camera == null ? null : camera.transform();
+        boolean isObjectPlaced = transform.beginInterpolation(alpha);
+        boolean isCameraPlaced = cameraTransform != null && cameraTransform.beginInterpolation(alpha);
+        try {
+            render(g, camera);
+        }
+        finally {
+            if(isCameraPlaced)
+                cameraTransform.endInterpolation();
+            if(isObjectPlaced)
+                transform.endInterpolation();
+        }
+    }
+
     /**
      * Should this object be allowed to collide the the specified other object.
      * If both this object returns true for the other, and the other returns true
@@ -105,6 +153,9 @@ public class GameObject {
      * respective onCollisionEnter/onCollisionStay/onCollisionExit will be called.
      * Note that this assumes that both objects have been added to the same
      * GameObjectCollection, and that its handleCollisions() method is invoked.
+     * For rules that depend only on the kinds of objects involved, prefer the cheaper
+     * collision filter (see {@link GameObjectPhysics#setCollisionFilter(int, int)}):
+     * this method is only invoked for pairs that pass it.
      * @param other The other GameObject.
      * @return true if the objects should collide. This does not guarantee a collision
      * would actually collide if they overlap, since the other object has to confirm
@@ -148,6 +199,7 @@ public class GameObject {
      */
     public void setCenter(Vector2 center) {
         transform.setCenter(center);
+        physics.wakeUp();
     }
 
     /**
@@ -163,6 +215,7 @@ public class GameObject {
      */
     public void setTopLeftCorner(Vector2 topLeftCorner) {
         transform.setTopLeftCorner(topLeftCorner);
+        physics.wakeUp();
     }
 
     /**
@@ -177,6 +230,7 @@ public class GameObject {
      */
     public void setVelocity(Vector2 velocity) {
         transform.setVelocity(velocity);
+        physics.wakeUp();
     }
 
     /**
@@ -192,6 +246,15 @@ public class GameObject {
      */
     public void setDimensions(Vector2 dimensions) {
         transform.setDimensions(dimensions);
+        physics.wakeUp();
+    }
+
+    /**
+     * A unique non-negative number identifying this object, which never changes.
+     * Used by the engine for bookkeeping, such as caching the collisions of pairs of objects.
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -232,6 +295,28 @@ public class GameObject {
         components.remove(component);
     }
 
+    /**
+     * Whether this object's update only reads and changes the object itself: its transform,
+     * its renderer and its components (for example, an object that only animates itself
+     * using Transitions). Such objects may be updated in parallel with each other,
+     * if the GameManager has an update pool.
+     * Adding objects to and removing objects from the game's collection is allowed.
+     * @see GameManager#setUpdatePool(java.util.concurrent.ForkJoinPool)
+     */
+    public boolean isUpdateSelfContained() {
+        return isUpdateSelfContained;
+    }
+
+    /**
+     * Declares whether this object's update only reads and changes the object itself.
+     * An object should not be declared self-contained if its renderable is shared with
+     * other objects, or if its update reads other objects that might change meanwhile.
+     * @see #isUpdateSelfContained()
+     */
+    public void setUpdateSelfContained(boolean isUpdateSelfContained) {
+        this.isUpdateSelfContained = isUpdateSelfContained;
+    }
+
     /**
      * access to attributes concerning the rendering of the object (the Renderable
      * that represents it, the Renderable's angle etc.)
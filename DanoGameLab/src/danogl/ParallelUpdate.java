@@ -0,0 +1,86 @@
+package danogl;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * package-private. Updates runs of self-contained objects on a ForkJoinPool,
+ * in chunks of consecutive objects.
+ * @see GameObject#isUpdateSelfContained()
+ * @see GameManager#setUpdatePool(ForkJoinPool)
+ */
+class ParallelUpdate {
+    //fewer objects are not worth the overhead of the pool
+    private static final int MIN_OBJECTS = 256;
+    private static final int OBJECTS_PER_TASK = 64;
+
+    private final ForkJoinPool pool;
+    private GameObject[] objects = new GameObject[MIN_OBJECTS];
+    private int count = 0;
+    private float deltaTime;
+
+    ParallelUpdate(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Adds an object to update in the next call to {@link #updateAll(float)}.
+     */
+    void add(GameObject obj) {
+        if(count == objects.length)
+            objects = Arrays.copyOf(objects, count*2);
+        objects[count++] = obj;
+    }
+
+    /**
+     * Updates the added objects, and forgets them.
+     */
+    void updateAll(float deltaTime) {
+        if(count == 0)
+            return;
+        this.deltaTime = deltaTime;
+        try {
+            if(count < MIN_OBJECTS) {
+                for(int i = 0 ; i < count ; i++)
+                    objects[i].update(deltaTime);
+            }
+            else
+                pool.invoke(new UpdateObjects(0, count));
+        }
+        finally {
+            clear();
+        }
+    }
+
+    /**
+     * Forgets the added objects without updating them.
+     */
+    void clear() {
+        Arrays.fill(objects, 0, count, null);
+        count = 0;
+    }
+
+    //updates the objects in [from,to), splitting the range between tasks
+    private class UpdateObjects extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        UpdateObjects(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > OBJECTS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new UpdateObjects(from, mid), new UpdateObjects(mid, to));
+                return;
+            }
+            for(int i = from ; i < to ; i++)
+                objects[i].update(deltaTime);
+        }
+    }
+}
@@ -15,6 +15,8 @@ class AABBCollision implements Collision {
     private MutableVector2 normal, collisionPoint,
             penetrationArea, relativeVelocity;
     private boolean alreadyComputedRelativeVelocityThisFrame = false;
+    //the revision of the intersection rect from which normal etc. were computed
+    private int computedRevision;
 
     public AABBCollision(AABBPairCollisionData pairCollisionData, int myIndex) {
         this.pairCollisionData = pairCollisionData;
@@ -28,41 +30,45 @@ class AABBCollision implements Collision {
 
     @Override
     public Vector2 getNormal() {
-        if(normal == null)
-            normal = new MutableVector2();
-        var x = pairCollisionData.getIntersectionRect();
-        pairCollisionData.updateIntersectionRect();
-        x = pairCollisionData.getIntersectionRect();
-        var y = x.getCenterX();
-        normal.setX((float)(pairCollisionData.getRectWorld(myIndex).getCenterX()
-                -pairCollisionData.getIntersectionRect().getCenterX()));
-        normal.setY((float)(pairCollisionData.getRectWorld(myIndex).getCenterY()
-                -pairCollisionData.getIntersectionRect().getCenterY()));
-        return normal.selfNormalize();
+        updateFromIntersectionRect();
+        return normal;
     }
 
     @Override
     public Vector2 getCollisionPoint() {
-        if(collisionPoint == null)
-            collisionPoint = new MutableVector2();
-        pairCollisionData.updateIntersectionRect();
-        collisionPoint.setXY(
-                (float)pairCollisionData.getIntersectionRect().getCenterX(),
-                (float)pairCollisionData.getIntersectionRect().getCenterY());
+        updateFromIntersectionRect();
         return collisionPoint;
     }
 
     @Override
     public Vector2 getPenetrationArea() {
-        if(penetrationArea == null)
-            penetrationArea = new MutableVector2();
-        pairCollisionData.updateIntersectionRect();
-        penetrationArea.setXY(
-                pairCollisionData.getIntersectionRect().width,
-                pairCollisionData.getIntersectionRect().height);
+        updateFromIntersectionRect();
         return penetrationArea;
     }
 
+    //recomputes the normal, collision point and penetration area if the intersection rect changed
+    private void updateFromIntersectionRect() {
+        pairCollisionData.updateIntersectionRect();
+        if(normal != null && computedRevision == pairCollisionData.getRevision())
+            return;
+        if(normal == null) {
+            normal = new MutableVector2();
+            collisionPoint = new MutableVector2();
+            penetrationArea = new MutableVector2();
+        }
+        computedRevision = pairCollisionData.getRevision();
+        var intersectionRect = pairCollisionData.getIntersectionRect();
+        normal.setX((float)(pairCollisionData.getRectWorld(myIndex).getCenterX()
+                -intersectionRect.getCenterX()));
+        normal.setY((float)(pairCollisionData.getRectWorld(myIndex).getCenterY()
+                -intersectionRect.getCenterY()));
+        normal.selfNormalize();
+        collisionPoint.setXY(
+                (float)intersectionRect.getCenterX(),
+                (float)intersectionRect.getCenterY());
+        penetrationArea.setXY(intersectionRect.width, intersectionRect.height);
+    }
+
     @Override
     public Vector2 getRelativeVelocity() {
         if(alreadyComputedRelativeVelocityThisFrame)
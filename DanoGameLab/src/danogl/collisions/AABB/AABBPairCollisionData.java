@@ -11,10 +11,17 @@ import java.awt.geom.Rectangle2D;
  * @author Dan Nirel
  */
 class AABBPairCollisionData extends PairCollisionData {
-    private int lastCalcedHash;
     private Rectangle2D.Float rect1World, rect2World;
     private Rectangle2D.Float intersectionRect;
+    private boolean isIntersecting = false;
     private boolean alreadyComputedIntersectionRectThisFrame = false;
+    //the state of the objects when the intersection rect was last computed
+    private int transformVersion1, transformVersion2;
+    private final float[] transform1 = new float[4], transform2 = new float[4];
+    private final Rectangle2D.Float colliderRect1 = new Rectangle2D.Float();
+    private final Rectangle2D.Float colliderRect2 = new Rectangle2D.Float();
+    //incremented whenever the intersection rect is recomputed
+    private int revision = 0;
 
     public AABBPairCollisionData(GameObject go1,GameObject go2) {
         super(go1, go2);
@@ -36,19 +43,30 @@ class AABBPairCollisionData extends PairCollisionData {
         if(rect1World == null) {
             rect1World = new Rectangle2D.Float();
             rect2World = new Rectangle2D.Float();
+            intersectionRect = new Rectangle2D.Float();
         }
 
-        intersectionRect =
+        isIntersecting =
             AABBPairCollisionHandler.calcIntersectionRect(
-                    go1(), go2(), rect1World, rect2World);
+                    go1(), go2(), rect1World, rect2World, intersectionRect)
+            && !intersectionRect.isEmpty();
 
         alreadyComputedIntersectionRectThisFrame = true;
+        revision++;
+    }
+
+    /**
+     * A number that changes whenever the intersection rect is recomputed, so that
+     * values derived from it only need to be recomputed when it changes.
+     */
+    public int getRevision() {
+        return revision;
     }
 
     @Override
     public boolean areColliding() {
         updateIntersectionRect();
-        return intersectionRect != null && !intersectionRect.isEmpty();
+        return isIntersecting;
     }
 
     public Rectangle2D.Float getRectWorld(int index) {
@@ -60,18 +78,37 @@ class AABBPairCollisionData extends PairCollisionData {
     }
 
     private boolean hasAnythingChanged() {
-        if(rect1World == null)
-            return true; //then wasn't ever inited
-        int newHash =
-                go1().getTopLeftCorner().hashCode()
-                        + 31*go2().getTopLeftCorner().hashCode()
-                        + go1().getDimensions().hashCode()
-                        + go2().getDimensions().hashCode()
-                        + ((AABBCollider)go1().physics().collider()).getRectangle().hashCode()
-                        + ((AABBCollider)go2().physics().collider()).getRectangle().hashCode();
-        if(newHash == lastCalcedHash)
+        var colliderRect1 = ((AABBCollider)go1().physics().collider()).getRectangle();
+        var colliderRect2 = ((AABBCollider)go2().physics().collider()).getRectangle();
+        boolean wasInited = rect1World != null;
+        //evaluate both, so that both snapshots are updated
+        boolean transform1Changed = updateTransform(go1(), transform1, transformVersion1, !wasInited);
+        boolean transform2Changed = updateTransform(go2(), transform2, transformVersion2, !wasInited);
+        transformVersion1 = go1().transform().getVersion();
+        transformVersion2 = go2().transform().getVersion();
+        if(wasInited && !transform1Changed && !transform2Changed
+                && colliderRect1.equals(this.colliderRect1) && colliderRect2.equals(this.colliderRect2))
+            return false;
+        this.colliderRect1.setRect(colliderRect1);
+        this.colliderRect2.setRect(colliderRect2);
+        return true;
+    }
+
+    //compares an object's corner and dimensions to a snapshot of them and updates the snapshot.
+    //if its transform's version did not change since the snapshot, neither did the values.
+    private static boolean updateTransform(GameObject go, float[] snapshot, int snapshotVersion,
+                                           boolean isFirst) {
+        if(!isFirst && go.transform().getVersion() == snapshotVersion)
+            return false;
+        var corner = go.getTopLeftCorner();
+        var dimensions = go.getDimensions();
+        if(snapshot[0] == corner.x() && snapshot[1] == corner.y()
+                && snapshot[2] == dimensions.x() && snapshot[3] == dimensions.y())
             return false;
-        lastCalcedHash = newHash;
+        snapshot[0] = corner.x();
+        snapshot[1] = corner.y();
+        snapshot[2] = dimensions.x();
+        snapshot[3] = dimensions.y();
         return true;
     }
 }
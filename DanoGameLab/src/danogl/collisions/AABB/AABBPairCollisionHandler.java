@@ -14,13 +14,14 @@ import java.awt.geom.Rectangle2D;
 public class AABBPairCollisionHandler implements PairCollisionHandler {
     private Rectangle2D.Float rect1World = new Rectangle2D.Float();
     private Rectangle2D.Float rect2World = new Rectangle2D.Float();
+    private Rectangle2D.Float intersectionRect = new Rectangle2D.Float();
 
     @Override
     public PairCollisionData computeCollisionData(GameObject go1, GameObject go2) {
         if(!supportsPair(go1, go2))
             return null;
 
-        if(calcIntersectionRect(go1, go2, rect1World, rect2World) == null)
+        if(!calcIntersectionRect(go1, go2, rect1World, rect2World, intersectionRect))
             return null;
 
         return new AABBPairCollisionData(go1, go2);
@@ -40,7 +41,8 @@ public class AABBPairCollisionHandler implements PairCollisionHandler {
      *                   object 1. updated if supplied. can be null.
      * @param rect2World a container for the world space rect of game
      *                   object 2. updated if supplied. can be null.
-     * @return the intersection rectangle. if null, no intersection occurs.
+     * @return a new intersection rectangle. if null, no intersection occurs.
+     * @see #calcIntersectionRect(GameObject, GameObject, Rectangle2D.Float, Rectangle2D.Float, Rectangle2D.Float)
      */
     public static Rectangle2D.Float calcIntersectionRect(
             GameObject go1, GameObject go2,
@@ -50,26 +52,54 @@ public class AABBPairCollisionHandler implements PairCollisionHandler {
             rect1World = new Rectangle2D.Float();
             rect2World = new Rectangle2D.Float();
         }
+        var intersectionRect = new Rectangle2D.Float();
+        if(!calcIntersectionRect(go1, go2, rect1World, rect2World, intersectionRect))
+            return null;
+        return intersectionRect;
+    }
 
-        var rect1 = ((AABBCollider)go1.physics().collider()).getRectangle();
-        var rect2 = ((AABBCollider)go2.physics().collider()).getRectangle();
-
-        var go1Corner = go1.getTopLeftCorner();
-        rect1World.setRect(
-                go1Corner.x() + rect1.x*go1.getDimensions().x(),
-                go1Corner.y() + rect1.y*go1.getDimensions().y(),
-                rect1.width * go1.getDimensions().x(),
-                rect1.height * go1.getDimensions().y());
+    /**
+     * Calculates the intersection rect of two game objects, without allocating.
+     * @param go1 game object 1
+     * @param go2 game object 2
+     * @param rect1World a container for the world space rect of game object 1. Updated.
+     * @param rect2World a container for the world space rect of game object 2. Updated.
+     * @param intersectionRect a container for the intersection rect. Updated only
+     *                         if an intersection occurs.
+     * @return whether the objects intersect.
+     */
+    public static boolean calcIntersectionRect(
+            GameObject go1, GameObject go2,
+            Rectangle2D.Float rect1World, Rectangle2D.Float rect2World,
+            Rectangle2D.Float intersectionRect) {
+        setWorldRect(go1, rect1World);
+        setWorldRect(go2, rect2World);
 
-        var go2Corner = go2.getTopLeftCorner();
-        rect2World.setRect(
-                go2Corner.x() + rect2.x*go2.getDimensions().x(),
-                go2Corner.y() + rect2.y*go2.getDimensions().y(),
-                rect2.width * go2.getDimensions().x(),
-                rect2.height * go2.getDimensions().y());
+        //same arithmetic as Rectangle2D.intersects and createIntersection, which work in doubles
+        if(rect1World.width <= 0 || rect1World.height <= 0
+                || rect2World.width <= 0 || rect2World.height <= 0)
+            return false;
+        double maxX1 = (double)rect1World.x + rect1World.width;
+        double maxY1 = (double)rect1World.y + rect1World.height;
+        double maxX2 = (double)rect2World.x + rect2World.width;
+        double maxY2 = (double)rect2World.y + rect2World.height;
+        if(!(maxX2 > rect1World.x && maxY2 > rect1World.y
+                && rect2World.x < maxX1 && rect2World.y < maxY1))
+            return false;
+        double minX = Math.max(rect1World.x, rect2World.x);
+        double minY = Math.max(rect1World.y, rect2World.y);
+        intersectionRect.setRect(minX, minY,
+                Math.min(maxX1, maxX2) - minX, Math.min(maxY1, maxY2) - minY);
+        return true;
+    }
 
-        if(!rect1World.intersects(rect2World))
-            return null;
-        return (Rectangle2D.Float) rect1World.createIntersection(rect2World);
+    private static void setWorldRect(GameObject go, Rectangle2D.Float rectWorld) {
+        var rect = ((AABBCollider)go.physics().collider()).getRectangle();
+        var corner = go.getTopLeftCorner();
+        var dimensions = go.getDimensions();
+        rectWorld.x = corner.x() + rect.x*dimensions.x();
+        rectWorld.y = corner.y() + rect.y*dimensions.y();
+        rectWorld.width = rect.width*dimensions.x();
+        rectWorld.height = rect.height*dimensions.y();
     }
 }
@@ -0,0 +1,213 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.collisions.AABB.AABBCollider;
+import danogl.collisions.AABB.AABBPairCollisionHandler;
+import danogl.util.MutableVector2;
+import danogl.util.Vector2;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * A collision resolver that does not resolve each collision as soon as it is found, but collects
+ * the collisions of the whole frame and resolves them together once all pairs were handled.
+ * The collisions are resolved in a number of iterations: in each, the deepest penetrations
+ * are resolved first, and every collision is recomputed from the objects' current positions.
+ * Thus an object touching several others is not pushed by each of them in turn, in whatever
+ * order the pairs happened to be found.
+ * <br>A collision that persists from the previous frame is resolved along the same axis as
+ * in that frame, unless the penetration along the other axis became clearly deeper.
+ * This keeps objects resting on several others from jittering between the axes.
+ * <br>Only collisions of AABB colliders are deferred; other collisions are resolved immediately.
+ * <br>To use, pass an instance to {@link GameObjectCollection#setResolver(CollisionResolver)}.
+ */
+public class BatchCollisionResolver extends CollisionResolver {
+    /** The default number of iterations */
+    public static final int DEFAULT_ITERATIONS = 4;
+    /** A budget that does not limit the number of collisions resolved per frame */
+    public static final int UNLIMITED_BUDGET = Integer.MAX_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int iterations = DEFAULT_ITERATIONS;
+    private int budget = UNLIMITED_BUDGET;
+    //the contacts of this frame, and those of the previous frame that weren't found yet
+    private LongKeyedTable<Contact> contactsByPair = new LongKeyedTable<>();
+    private LongKeyedTable<Contact> previousContactsByPair = new LongKeyedTable<>();
+    private Contact[] contacts = new Contact[INITIAL_CAPACITY];
+    private int contactCount;
+    //(depth, index) of the contacts, packed into longs so they can be sorted without boxing
+    private long[] order = new long[INITIAL_CAPACITY];
+
+    /**
+     * Sets the number of times the collisions of a frame are iterated over.
+     * More iterations let stacked objects settle faster, at a higher cost.
+     * @throws IllegalArgumentException if iterations is not positive
+     */
+    public void setIterations(int iterations) {
+        if(iterations <= 0)
+            throw new IllegalArgumentException("Iterations must be positive");
+        this.iterations = iterations;
+    }
+
+    /**
+     * Returns the number of times the collisions of a frame are iterated over.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Sets the maximum number of collisions resolved in a frame, over all iterations.
+     * Once it is reached, the remaining collisions are left for the next frame.
+     * The iterations also stop early once no collision needs resolving.
+     * @throws IllegalArgumentException if budget is not positive
+     */
+    public void setBudget(int budget) {
+        if(budget <= 0)
+            throw new IllegalArgumentException("Budget must be positive");
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the maximum number of collisions resolved in a frame.
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    @Override
+    public void resolve(GameObject go1, Collision collision1,
+                        GameObject go2, Collision collision2) {
+        if(!isAABB(go1.physics().collider()) || !isAABB(go2.physics().collider())) {
+            super.resolve(go1, collision1, go2, collision2);
+            return;
+        }
+        long key = key(go1, go2);
+        if(contactsByPair.get(key) != null)
+            return;
+        var contact = previousContactsByPair.get(key);
+        if(contact != null)
+            previousContactsByPair.remove(key);
+        else
+            contact = new Contact();
+        contact.go1 = go1;
+        contact.go2 = go2;
+        contactsByPair.put(key, contact);
+        if(contactCount == contacts.length) {
+            contacts = Arrays.copyOf(contacts, contactCount*2);
+            order = new long[contacts.length];
+        }
+        contacts[contactCount++] = contact;
+    }
+
+    @Override
+    public void onCollisionsHandled() {
+        int resolvesLeft = budget;
+        for(int iteration = 0 ; iteration < iterations && resolvesLeft > 0 ; iteration++) {
+            //deepest first
+            int count = 0;
+            for(int i = 0 ; i < contactCount ; i++) {
+                if(contacts[i].update())
+                    order[count++] = ((long)(Integer.MAX_VALUE - Float.floatToIntBits(contacts[i].depth())) << 32) | i;
+            }
+            Arrays.sort(order, 0, count);
+
+            boolean wasAnyResolved = false;
+            for(int i = 0 ; i < count && resolvesLeft > 0 ; i++) {
+                var contact = contacts[(int)order[i]];
+                //resolving the previous contacts might have moved this one's objects
+                if(i > 0 && !contact.update())
+                    continue;
+                resolvesLeft--;
+                int axis = resolve(contact.go1, contact.collision1, contact.go2, contact.collision2,
+                        contact.axis);
+                if(axis != NO_AXIS) {
+                    contact.axis = axis;
+                    wasAnyResolved = true;
+                }
+            }
+            if(!wasAnyResolved)
+                break;
+        }
+
+        //keep this frame's contacts for the next frame
+        for(int i = 0 ; i < contactCount ; i++)
+            contacts[i] = null;
+        contactCount = 0;
+        previousContactsByPair.clear();
+        var table = previousContactsByPair;
+        previousContactsByPair = contactsByPair;
+        contactsByPair = table;
+    }
+
+    private static boolean isAABB(Collider collider) {
+        return collider.colliderType().equals(AABBCollider.AABB_COLLIDER_TYPE);
+    }
+
+    private static long key(GameObject go1, GameObject go2) {
+        int id1 = go1.getId(), id2 = go2.getId();
+        return id1 < id2 ?
+                ((long)id1 << 32) | (id2 & 0xffffffffL) :
+                ((long)id2 << 32) | (id1 & 0xffffffffL);
+    }
+
+    //a pair of colliding objects, and their collision as computed from their current positions
+    private static class Contact {
+        GameObject go1, go2;
+        //the axis along which the collision was last resolved
+        int axis = NO_AXIS;
+        final SolverCollision collision1 = new SolverCollision(), collision2 = new SolverCollision();
+        final Rectangle2D.Float rect1World = new Rectangle2D.Float();
+        final Rectangle2D.Float rect2World = new Rectangle2D.Float();
+        final Rectangle2D.Float intersectionRect = new Rectangle2D.Float();
+
+        //recomputes the collision, as AABBCollision computes it. returns whether the objects intersect
+        boolean update() {
+            if(!AABBPairCollisionHandler.calcIntersectionRect(
+                    go1, go2, rect1World, rect2World, intersectionRect) || intersectionRect.isEmpty())
+                return false;
+            collision1.set(rect1World, intersectionRect, go1.getVelocity(), go2.getVelocity());
+            collision2.set(rect2World, intersectionRect, go2.getVelocity(), go1.getVelocity());
+            return true;
+        }
+
+        //how far the objects are from separating
+        float depth() {
+            return Math.min(intersectionRect.width, intersectionRect.height);
+        }
+    }
+
+    private static class SolverCollision implements Collision {
+        private final MutableVector2 normal = new MutableVector2();
+        private final MutableVector2 collisionPoint = new MutableVector2();
+        private final MutableVector2 penetrationArea = new MutableVector2();
+        private final MutableVector2 relativeVelocity = new MutableVector2();
+
+        void set(Rectangle2D.Float rectWorld, Rectangle2D.Float intersectionRect,
+                 Vector2 velocity, Vector2 otherVelocity) {
+            normal.setXY((float)(rectWorld.getCenterX() - intersectionRect.getCenterX()),
+                    (float)(rectWorld.getCenterY() - intersectionRect.getCenterY()));
+            normal.selfNormalize();
+            collisionPoint.setXY((float)intersectionRect.getCenterX(), (float)intersectionRect.getCenterY());
+            penetrationArea.setXY(intersectionRect.width, intersectionRect.height);
+            relativeVelocity.setXY(velocity);
+            relativeVelocity.selfSubtract(otherVelocity);
+        }
+
+        @Override
+        public Vector2 getNormal() { return normal; }
+
+        @Override
+        public Vector2 getCollisionPoint() { return collisionPoint; }
+
+        @Override
+        public Vector2 getPenetrationArea() { return penetrationArea; }
+
+        @Override
+        public Vector2 getRelativeVelocity() { return relativeVelocity; }
+
+        @Override
+        public void onFrameStart() { }
+    }
+}
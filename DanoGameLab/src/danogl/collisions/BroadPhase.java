@@ -0,0 +1,38 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.function.BiConsumer;
+
+/**
+ * The broad phase of the collision detection: given the objects of two layers that
+ * are set to collide, decides which pairs are worth checking for an actual collision.
+ * An implementation may skip a pair only if the pair's colliders cannot intersect.
+ * Pairs that were colliding in the previous frame but are skipped are still checked by
+ * the {@link GameObjectCollection}, so that onCollisionExit is invoked as usual.
+ * @see LayerManager#setBroadPhase(BroadPhase)
+ */
+public interface BroadPhase {
+    /**
+     * Called once per frame, before any call to findPairs in that frame.
+     * Broad phases that keep state between calls can use it to tell frames apart, so that
+     * work that only has to be done once per frame (such as the sorting of
+     * {@link SweepAndPruneBroadPhase}) is not repeated for every pair of layers.
+     * Implementing this method is optional.
+     */
+    default void onFrameStart() { }
+
+    /**
+     * Passes the candidate pairs of the two layers to handlePair.
+     * @param layerObjs1 the objects of the first layer
+     * @param layerObjs2 the objects of the second layer. May be the same list as layerObjs1,
+     *                   in which case every pair should be passed at most once.
+     * @param handlePair receives the candidate pairs. For consistency with the rest of
+     *                   the engine, pairs should be passed ordered by the index of the first
+     *                   object and then by the index of the second.
+     */
+    void findPairs(ModifiableList<GameObject> layerObjs1,
+                   ModifiableList<GameObject> layerObjs2,
+                   BiConsumer<GameObject, GameObject> handlePair);
+}
@@ -0,0 +1,30 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A broad phase that passes on every pair of objects. Its cost grows quadratically
+ * with the number of objects, but it has no overhead and is therefore a reasonable choice
+ * for scenes with very few objects.
+ */
+public class BruteForceBroadPhase implements BroadPhase {
+    @Override
+    public void findPairs(ModifiableList<GameObject> layerObjs1,
+                          ModifiableList<GameObject> layerObjs2,
+                          BiConsumer<GameObject, GameObject> handlePair) {
+        for(int ind1 = 0 ; ind1 < layerObjs1.size() ; ind1++) {
+            int ind2 = 0;
+            if(layerObjs1 == layerObjs2)
+                ind2 = ind1 + 1;
+            for(; ind2 < layerObjs2.size() ; ind2++) {
+                var obj1 = layerObjs1.get(ind1);
+                var obj2 = layerObjs2.get(ind2);
+                if(obj1 != obj2 && obj1.physics().collisionFilterAllows(obj2.physics()))
+                    handlePair.accept(obj1, obj2);
+            }
+        }
+    }
+}
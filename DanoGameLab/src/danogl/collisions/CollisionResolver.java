@@ -11,6 +11,11 @@ import danogl.util.Vector2;
  * @author Dan Nirel
  */
 public class CollisionResolver {
+    //the axes along which a collision can be resolved
+    static final int NO_AXIS = 0, X_AXIS = 1, Y_AXIS = 2;
+    //how much deeper the penetration along the other axis must be to switch from a preferred axis
+    private static final float AXIS_HYSTERESIS = 0.1f;
+
     /**
      * Check if intersection between the objects should be prevented, and if so alter their
      * positions and velocities in accordance with their static status.
@@ -21,8 +26,27 @@ public class CollisionResolver {
      */
     public void resolve(GameObject go1, Collision collision1,
                         GameObject go2, Collision collision2) {
+        resolve(go1, collision1, go2, collision2, NO_AXIS);
+    }
+
+    /**
+     * Called once per frame, after all the colliding pairs were handled.
+     * Resolvers that defer the resolution of collisions (see {@link BatchCollisionResolver})
+     * resolve them here. Does nothing by default.
+     */
+    public void onCollisionsHandled() { }
+
+    /**
+     * Resolves a collision as {@link #resolve(GameObject, Collision, GameObject, Collision)} does,
+     * but keeps to the preferred axis unless the penetration along it is clearly
+     * deeper than along the other.
+     * @param preferredAxis one of NO_AXIS, X_AXIS and Y_AXIS
+     * @return the axis along which the collision was resolved, or NO_AXIS if it wasn't
+     */
+    int resolve(GameObject go1, Collision collision1,
+                GameObject go2, Collision collision2, int preferredAxis) {
         if(!shouldResolve(go1, go2, collision1))
-            return;
+            return NO_AXIS;
 
         float mass1 = go1.physics().mass();
         float mass2 = go2.physics().mass();
@@ -38,8 +62,9 @@ public class CollisionResolver {
             go2Adjustment = mass1/(mass1+mass2);
         }
 
-        resolveOneObject(go1, collision1, go1Adjustment);
-        resolveOneObject(go2, collision2, go2Adjustment);
+        int axis1 = resolveOneObject(go1, collision1, go1Adjustment, preferredAxis);
+        int axis2 = resolveOneObject(go2, collision2, go2Adjustment, preferredAxis);
+        return axis1 != NO_AXIS ? axis1 : axis2;
     }
 
     /**
@@ -50,10 +75,13 @@ public class CollisionResolver {
      *                     1 means this object does the entire adjustment.
      *                     A value in between does not solve the collision on its own
      *                     (requires the other object to move the rest of the way).
+     * @param preferredAxis the axis to keep to if the penetration along both is about equal
+     * @return the axis along which the object was moved, or NO_AXIS if it wasn't
      */
-    private static void resolveOneObject(GameObject go, Collision collision, float goAdjustment) {
+    private static int resolveOneObject(GameObject go, Collision collision, float goAdjustment,
+                                        int preferredAxis) {
         if(goAdjustment == 0)
-            return;
+            return NO_AXIS;
 
         var relativeVelocity = collision.getRelativeVelocity();
         var normal = collision.getNormal();
@@ -63,9 +91,19 @@ public class CollisionResolver {
         var yDir = normal.y() < 0?-1:1;
         var xDir = normal.x() < 0?-1:1;
 
+        boolean isMostlyVertical = penetrationArea.x() > penetrationArea.y();
+        boolean isMostlyHorizontal = penetrationArea.y() > penetrationArea.x();
+        if(preferredAxis == Y_AXIS && penetrationArea.y() <= penetrationArea.x()*(1+AXIS_HYSTERESIS)) {
+            isMostlyVertical = true;
+            isMostlyHorizontal = false;
+        }
+        else if(preferredAxis == X_AXIS && penetrationArea.x() <= penetrationArea.y()*(1+AXIS_HYSTERESIS)) {
+            isMostlyVertical = false;
+            isMostlyHorizontal = true;
+        }
+
         //if collision is mostly vertical
-        if(penetrationArea.x() > penetrationArea.y()
-                && relativeVelocity.y() * yDir <= 0) {
+        if(isMostlyVertical && relativeVelocity.y() * yDir <= 0) {
             //then set it to top of the other, but still keep it intersecting
             //so that onCollisionStay still gets called
             go.transform().setTopLeftCornerY(
@@ -77,10 +115,10 @@ public class CollisionResolver {
             go.transform().setAccelerationEnabled(
                     go.transform().isAccelerationEnabled() &&
                             go.transform().getAcceleration().y() * yDir >= 0);
+            return Y_AXIS;
         }
         //if collision is mostly horizontal
-        else if(penetrationArea.y() > penetrationArea.x()
-                && relativeVelocity.x() * xDir <= 0) {
+        else if(isMostlyHorizontal && relativeVelocity.x() * xDir <= 0) {
             go.transform().setTopLeftCornerX(
                     go.transform().getTopLeftCorner().x()
                             +xDir*goAdjustment*(collision.getPenetrationArea().x()-1));
@@ -90,7 +128,9 @@ public class CollisionResolver {
             go.transform().setAccelerationEnabled(
                     go.transform().isAccelerationEnabled() &&
                             go.transform().getAcceleration().x() * xDir >= 0);
+            return X_AXIS;
         }
+        return NO_AXIS;
     }
 
     private static boolean shouldResolve(GameObject go1, GameObject go2, Collision collision) {
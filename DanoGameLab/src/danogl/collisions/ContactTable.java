@@ -0,0 +1,131 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+
+import java.util.Arrays;
+
+/**
+ * package-private. The pairs of objects that are currently colliding, keyed by the ids
+ * of the two objects. Looking up a pair takes constant time and does not allocate, and
+ * each object keeps a list of its own contacts, so that removing an object only touches
+ * the pairs it is part of.
+ * <br>The contacts are also kept in a dense array, for iterating over all of them.
+ */
+class ContactTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final LongKeyedTable<PairCollisionData> contactsByPair = new LongKeyedTable<>();
+    //object id to the first contact in the object's list
+    private final LongKeyedTable<PairCollisionData> firstContactOf = new LongKeyedTable<>();
+    private PairCollisionData[] contacts = new PairCollisionData[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * The number of contacts.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the contact at the given index, where 0 <= index < size().
+     * Adding or removing contacts changes the indices of other contacts.
+     */
+    PairCollisionData get(int index) {
+        return contacts[index];
+    }
+
+    /**
+     * Returns the contact of the two objects (in either order), or null if there is none.
+     */
+    PairCollisionData get(GameObject go1, GameObject go2) {
+        return contactsByPair.get(key(go1, go2));
+    }
+
+    /**
+     * Adds a contact. There should be no other contact of the same pair.
+     */
+    void add(PairCollisionData contact) {
+        contactsByPair.put(key(contact.go1(), contact.go2()), contact);
+        if(size == contacts.length)
+            contacts = Arrays.copyOf(contacts, size*2);
+        contact.contactIndex = size;
+        contacts[size++] = contact;
+        linkFirst(contact, contact.go1());
+        linkFirst(contact, contact.go2());
+    }
+
+    /**
+     * Removes a contact that was previously added.
+     */
+    void remove(PairCollisionData contact) {
+        contactsByPair.remove(key(contact.go1(), contact.go2()));
+        var last = contacts[--size];
+        contacts[contact.contactIndex] = last;
+        last.contactIndex = contact.contactIndex;
+        contacts[size] = null;
+        unlink(contact, contact.go1());
+        unlink(contact, contact.go2());
+    }
+
+    /**
+     * Removes all the contacts of the given object.
+     */
+    void removeContactsOf(GameObject go) {
+        for(var contact = firstContactOf.get(go.getId()) ; contact != null ;
+                contact = firstContactOf.get(go.getId()))
+            remove(contact);
+    }
+
+    private void linkFirst(PairCollisionData contact, GameObject go) {
+        var first = firstContactOf.get(go.getId());
+        setNext(contact, go, first);
+        setPrev(contact, go, null);
+        if(first != null)
+            setPrev(first, go, contact);
+        firstContactOf.put(go.getId(), contact);
+    }
+
+    private void unlink(PairCollisionData contact, GameObject go) {
+        var prev = prev(contact, go);
+        var next = next(contact, go);
+        if(prev != null)
+            setNext(prev, go, next);
+        else if(next != null)
+            firstContactOf.put(go.getId(), next);
+        else
+            firstContactOf.remove(go.getId());
+        if(next != null)
+            setPrev(next, go, prev);
+    }
+
+    //each contact is in the lists of both of its objects: 1 is the list of go1, 2 of go2
+    private static PairCollisionData next(PairCollisionData contact, GameObject go) {
+        return contact.go1() == go ? contact.nextContact1 : contact.nextContact2;
+    }
+
+    private static PairCollisionData prev(PairCollisionData contact, GameObject go) {
+        return contact.go1() == go ? contact.prevContact1 : contact.prevContact2;
+    }
+
+    private static void setNext(PairCollisionData contact, GameObject go, PairCollisionData next) {
+        if(contact.go1() == go)
+            contact.nextContact1 = next;
+        else
+            contact.nextContact2 = next;
+    }
+
+    private static void setPrev(PairCollisionData contact, GameObject go, PairCollisionData prev) {
+        if(contact.go1() == go)
+            contact.prevContact1 = prev;
+        else
+            contact.prevContact2 = prev;
+    }
+
+    private static long key(GameObject go1, GameObject go2) {
+        int id1 = go1.getId(), id2 = go2.getId();
+        return id1 < id2 ?
+                ((long)id1 << 32) | (id2 & 0xffffffffL) :
+                ((long)id2 << 32) | (id1 & 0xffffffffL);
+    }
+}
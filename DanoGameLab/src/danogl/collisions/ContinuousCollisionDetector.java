@@ -0,0 +1,203 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.function.BiPredicate;
+
+/**
+ * package-private. Prevents objects with continuous collision detection from passing through
+ * other objects in a single frame: each such object's box is swept along its last displacement,
+ * and if it passed through an object it should collide with, the object is moved back to where it
+ * first hit that object (slightly into it, so that the regular detection finds the collision).
+ * @see danogl.components.GameObjectPhysics#setContinuousCollisionDetection(boolean)
+ */
+class ContinuousCollisionDetector {
+    //how deep a swept object is placed into the object it hits
+    private static final float PENETRATION = 1;
+
+    private final BiPredicate<GameObject, GameObject> canCollide;
+    //index 0 holds the swept object's box at the end of its displacement, 1 the other object's,
+    //and 2 the box covering the whole displacement
+    private final ObjectBounds bounds = new ObjectBounds();
+    private float enterX, enterY, exitX, exitY;
+    //identifies the current call to sweep, so that each layer's grid is built at most once in it
+    private int sweepStamp = 0;
+    private boolean isStaticLayerIndexed;
+
+    /**
+     * @param canCollide whether a pair of objects is set to collide at all
+     */
+    ContinuousCollisionDetector(BiPredicate<GameObject, GameObject> canCollide) {
+        this.canCollide = canCollide;
+    }
+
+    /**
+     * Sweeps the objects of the given layers that have continuous detection enabled.
+     * The objects each sweep might hit are found through a grid of each layer's objects,
+     * built once per call, or through the static layer's index.
+     * @param isStaticLayerIndexed whether the index of {@link Layer#STATIC_OBJECTS} may be used
+     */
+    void sweep(ModifiableList<LayerData> layers, boolean isStaticLayerIndexed) {
+        this.isStaticLayerIndexed = isStaticLayerIndexed;
+        sweepStamp++;
+        for(int i = 0 ; i < layers.size() ; i++) {
+            var layer = layers.get(i);
+            for(int j = 0 ; j < layer.objects.size() ; j++) {
+                var obj = layer.objects.get(j);
+                if(obj.physics().isContinuousCollisionDetectionEnabled()
+                        && obj.physics().collidesWithAnything()
+                        && !obj.transform().getLastDisplacement().isZero()
+                        && sweep(obj, layer, layers))
+                    refresh(layer, j, obj);
+            }
+        }
+    }
+
+    //returns whether the object was moved
+    private boolean sweep(GameObject mover, LayerData moverLayer, ModifiableList<LayerData> layers) {
+        if(!bounds.set(0, mover))
+            return false;
+        var displacement = mover.transform().getLastDisplacement();
+        float dx = displacement.x(), dy = displacement.y();
+        //the box covering the whole displacement
+        bounds.set(2, mover);
+        bounds.minX[2] = Math.min(bounds.minX[0], bounds.minX[0] - dx);
+        bounds.maxX[2] = Math.max(bounds.maxX[0], bounds.maxX[0] - dx);
+        bounds.minY[2] = Math.min(bounds.minY[0], bounds.minY[0] - dy);
+        bounds.maxY[2] = Math.max(bounds.maxY[0], bounds.maxY[0] - dy);
+
+        float firstHitTime = Float.POSITIVE_INFINITY;
+        GameObject firstHit = null;
+        int firstHitInd = -1;
+        boolean isFirstHitAlongX = false;
+        float firstHitExtent = 0;
+        for(int i = 0 ; i < layers.size() ; i++) {
+            var layer = layers.get(i);
+            if(!moverLayer.collidesWith(layer))
+                continue;
+            int candidateCount = query(layer);
+            //a hit in an earlier layer wins ties with this one's
+            float layerFirstHitTime = firstHitTime;
+            for(int c = 0 ; c < candidateCount ; c++) {
+                int j = candidate(layer, c);
+                var other = layer.objects.get(j);
+                if(other == mover || !bounds.set(1, other) || bounds.isEmpty(1))
+                    continue;
+                float hitTime = timeOfImpact(dx, dy);
+                //the candidates are unordered, so ties go to the first object in the layer,
+                //as they would if the layer were scanned in order
+                if(hitTime > firstHitTime || hitTime >= layerFirstHitTime
+                        || (hitTime == firstHitTime && j > firstHitInd)
+                        || !canCollide.test(mover, other))
+                    continue;
+                firstHitTime = hitTime;
+                firstHit = other;
+                firstHitInd = j;
+                isFirstHitAlongX = enterX >= enterY;
+                firstHitExtent = isFirstHitAlongX ?
+                        bounds.maxX[1] - bounds.minX[1] : bounds.maxY[1] - bounds.minY[1];
+            }
+        }
+        if(firstHit == null)
+            return false;
+        //if the object still intersects what it hit, the regular detection suffices
+        bounds.set(1, firstHit);
+        if(bounds.minX[0] < bounds.maxX[1] && bounds.minX[1] < bounds.maxX[0]
+                && bounds.minY[0] < bounds.maxY[1] && bounds.minY[1] < bounds.maxY[0])
+            return false;
+
+        //move the object back to where it hit, and slightly into the hit object
+        float offsetX = (firstHitTime - 1)*dx, offsetY = (firstHitTime - 1)*dy;
+        if(isFirstHitAlongX) {
+            float penetration = Math.min(PENETRATION,
+                    Math.min(firstHitExtent, bounds.maxX[0] - bounds.minX[0])/2);
+            offsetX += Math.signum(dx)*penetration;
+        }
+        else {
+            float penetration = Math.min(PENETRATION,
+                    Math.min(firstHitExtent, bounds.maxY[0] - bounds.minY[0])/2);
+            offsetY += Math.signum(dy)*penetration;
+        }
+        var corner = mover.getTopLeftCorner();
+        mover.transform().setTopLeftCorner(corner.x() + offsetX, corner.y() + offsetY);
+        return true;
+    }
+
+    private boolean usesStaticIndex(LayerData layer) {
+        return isStaticLayerIndexed && layer.staticIndex != null;
+    }
+
+    //finds the objects of the layer that the box covering the displacement overlaps
+    private int query(LayerData layer) {
+        //the layer's index or grid is prepared at most once per sweep
+        if(layer.sweepStamp != sweepStamp) {
+            layer.sweepStamp = sweepStamp;
+            if(usesStaticIndex(layer))
+                layer.staticIndex.update(layer.objects);
+            else {
+                if(layer.sweepGrid == null)
+                    layer.sweepGrid = new SpatialGrid(SpatialHashBroadPhase.DEFAULT_CELL_SIZE);
+                layer.sweepGrid.build(layer.objects);
+            }
+        }
+        return usesStaticIndex(layer) ? layer.staticIndex.query(bounds, 2) : layer.sweepGrid.query(bounds, 2);
+    }
+
+    private int candidate(LayerData layer, int i) {
+        return usesStaticIndex(layer) ? layer.staticIndex.candidate(i) : layer.sweepGrid.candidate(i);
+    }
+
+    //later sweeps should find a moved object where it was moved to
+    private void refresh(LayerData layer, int ind, GameObject obj) {
+        if(layer.sweepStamp != sweepStamp)
+            return;
+        if(usesStaticIndex(layer))
+            layer.staticIndex.refresh(ind, obj);
+        else
+            layer.sweepGrid.refresh(ind, obj);
+    }
+
+    //the time in [0,1] at which the box at index 0, moving to its current position
+    //from (dx,dy) behind it, first intersects the box at index 1. infinity if it doesn't
+    //or if it intersected it to begin with.
+    private float timeOfImpact(float dx, float dy) {
+        computeAxisTimes(bounds.minX[0] - dx, bounds.maxX[0] - dx, dx, bounds.minX[1], bounds.maxX[1], true);
+        computeAxisTimes(bounds.minY[0] - dy, bounds.maxY[0] - dy, dy, bounds.minY[1], bounds.maxY[1], false);
+        float enter = Math.max(enterX, enterY);
+        float exit = Math.min(exitX, exitY);
+        if(enter >= exit || enter < 0 || enter > 1)
+            return Float.POSITIVE_INFINITY;
+        return enter;
+    }
+
+    //when does the interval [min,max], moving by d, start and stop overlapping [otherMin,otherMax]
+    private void computeAxisTimes(float min, float max, float d,
+                                  float otherMin, float otherMax, boolean isX) {
+        float enter, exit;
+        if(d > 0) {
+            enter = (otherMin - max)/d;
+            exit = (otherMax - min)/d;
+        }
+        else if(d < 0) {
+            enter = (otherMax - min)/d;
+            exit = (otherMin - max)/d;
+        }
+        else if(max > otherMin && min < otherMax) {
+            enter = Float.NEGATIVE_INFINITY;
+            exit = Float.POSITIVE_INFINITY;
+        }
+        else {
+            enter = Float.POSITIVE_INFINITY;
+            exit = Float.NEGATIVE_INFINITY;
+        }
+        if(isX) {
+            enterX = enter;
+            exitX = exit;
+        }
+        else {
+            enterY = enter;
+            exitY = exit;
+        }
+    }
+}
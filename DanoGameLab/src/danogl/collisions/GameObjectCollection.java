@@ -1,11 +1,17 @@
 package danogl.collisions;
 
 import danogl.GameObject;
+import danogl.components.GameObjectPhysics;
+import danogl.components.TransformWorld;
 import danogl.gui.MessageHandler;
 import danogl.gui.MsgLevel;
+import danogl.util.ModifiableList;
+import danogl.util.Vector2;
 
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * A container for accumulating/removing instances of GameObject and
@@ -16,10 +22,17 @@ import java.util.List;
  */
 public class GameObjectCollection implements Iterable<GameObject> {
     protected CollisionResolver resolver = new CollisionResolver();
-    protected LayerManager layerManager = new LayerManager(this::handlePair);
+    protected LayerManager layerManager =
+            new LayerManager(new PairHandler(), GameObjectCollection::canCollide);
     private PairCollisionManager pairCollisionManager = new PairCollisionManager();
-    private Map<GameObjectPair, PairCollisionData> alreadyInCollision
-            = new HashMap<>();
+    private ParallelNarrowPhase parallelNarrowPhase = null;
+    private TransformWorld transformWorld = null;
+    //objects added or removed since the last update, whose transforms may need to join or leave the world
+    private List<GameObject> objectsAddedOrRemoved = new ArrayList<>();
+    private ContactTable alreadyInCollision = new ContactTable();
+    private List<PairCollisionData> pairsSkippedByBroadPhase = new ArrayList<>();
+    private int collisionFrame = 0;
+    private int pairsChecked = 0, sleepingPairsSkipped = 0;
     private GameObjectPair pair = new GameObjectPair();
     private MessageHandler messages;
 
@@ -43,6 +56,65 @@ public class GameObjectCollection implements Iterable<GameObject> {
      */
     public Iterable<GameObject> reverseOrder() { return layerManager.reverseOrder(); }
 
+    /**
+     * Performs the action for each object in all layers, in drawing order.
+     * Unlike iterating with a foreach loop, this does not allocate.
+     * Objects added or removed meanwhile are only added or removed on the next
+     * call to {@link #update(float)}, as when iterating.
+     */
+    public void forEachInDrawOrder(Consumer<? super GameObject> action) {
+        layerManager.forEachObject(action);
+    }
+
+    /**
+     * Performs the action for each object in all layers, in drawing order,
+     * and runs afterEachLayer once all objects of a layer were passed to it.
+     * @see #forEachInDrawOrder(Consumer)
+     */
+    public void forEachInDrawOrder(Consumer<? super GameObject> action, Runnable afterEachLayer) {
+        layerManager.forEachObject(action, afterEachLayer);
+    }
+
+    /**
+     * Performs the action, in drawing order, for each object that may be visible in a view
+     * of the world: objects in world coordinates whose box (or, if rotated, the circle around it)
+     * lies outside the view are skipped. Objects in {@link Layer#STATIC_OBJECTS} are found through
+     * an index, rather than tested one by one (see {@link LayerManager#markStaticObjectsChanged()}).
+     * Like {@link #forEachInDrawOrder(Consumer)}, this does not allocate.
+     * @param viewTopLeftCorner the top-left corner of the view, in world coordinates
+     * @param viewDimensions the dimensions of the view, in world coordinates
+     * @param alpha where the objects are between their positions before the last update (0)
+     *              and their current positions (1); see {@link GameObject#render(java.awt.Graphics2D,
+     *              danogl.gui.rendering.Camera, float)}
+     * @return the number of objects skipped
+     */
+    public int forEachInDrawOrderInView(Vector2 viewTopLeftCorner, Vector2 viewDimensions, float alpha,
+                                        Consumer<? super GameObject> action) {
+        return forEachInDrawOrderInView(viewTopLeftCorner, viewDimensions, alpha, action, null);
+    }
+
+    /**
+     * Like {@link #forEachInDrawOrderInView(Vector2, Vector2, float, Consumer)}, and runs
+     * afterEachLayer once all objects of a layer were passed to the action.
+     * @param afterEachLayer run after each layer, or null
+     * @return the number of objects skipped
+     */
+    public int forEachInDrawOrderInView(Vector2 viewTopLeftCorner, Vector2 viewDimensions, float alpha,
+                                        Consumer<? super GameObject> action, Runnable afterEachLayer) {
+        return layerManager.forEachObjectInView(
+                viewTopLeftCorner.x(), viewTopLeftCorner.y(),
+                viewTopLeftCorner.x() + viewDimensions.x(), viewTopLeftCorner.y() + viewDimensions.y(),
+                Math.min(alpha, 1), action, afterEachLayer);
+    }
+
+    /**
+     * Performs the action for each object in all layers, in reverse drawing order.
+     * @see #forEachInDrawOrder(Consumer)
+     */
+    public void forEachInReverseDrawOrder(Consumer<? super GameObject> action) {
+        layerManager.forEachObjectInReverse(action);
+    }
+
     /**
      * Add the specified GameObject.
      * Important note: the object will only be added at the end of
@@ -51,10 +123,12 @@ public class GameObjectCollection implements Iterable<GameObject> {
      * show this object.
      * Also note that objects are rendered in the order they are added. Thus,
      * the last object added will always be in the foreground.
+     * May be called from the updates of self-contained objects running in parallel
+     * (see {@link GameObject#isUpdateSelfContained()}).
      * @param obj The GameObject to add.
      * @param layerId The id of the layer to which obj should be added.
      */
-    public void addGameObject(GameObject obj, int layerId) {
+    public synchronized void addGameObject(GameObject obj, int layerId) {
         if(obj == null)
         {
             messages.showMessage("null is not a valid GameObject to add to the game",
@@ -62,6 +136,7 @@ public class GameObjectCollection implements Iterable<GameObject> {
             return;
         }
         layerManager.addGameObject(obj, layerId);
+        objectsAddedOrRemoved.add(obj);
     }
 
     /**
@@ -78,21 +153,17 @@ public class GameObjectCollection implements Iterable<GameObject> {
      * the nearest invocation of handleCollisions. Until such time,
      * traversal of the objects in this container using the foreach loop will still
      * show this object.
+     * May be called from the updates of self-contained objects running in parallel.
      * @param obj The GameObject to remove.
      * @param layerId id of the layer to remove object from
      * @return false if the object does not exist in the collection, or it exists
      * but is already queued for removal, true if removal was successful.
      */
-    public boolean removeGameObject(GameObject obj, int layerId) {
+    public synchronized boolean removeGameObject(GameObject obj, int layerId) {
         boolean wasAnObjRemoved = layerManager.removeGameObject(obj, layerId);
         if(wasAnObjRemoved) {
-            List<GameObjectPair> keysToRemove = new ArrayList<>();
-            for(var pair : alreadyInCollision.keySet()) {
-                if(pair.getGameObject(0) == obj
-                        || pair.getGameObject(1) == obj)
-                    keysToRemove.add(pair);
-            }
-            keysToRemove.forEach(alreadyInCollision::remove);
+            alreadyInCollision.removeContactsOf(obj);
+            objectsAddedOrRemoved.add(obj);
         }
         return wasAnObjRemoved;
     }
@@ -115,16 +186,81 @@ public class GameObjectCollection implements Iterable<GameObject> {
             pairCollisionManager.registerSinglePairCollisionHandler(pairCollisionHandler);
     }
 
+    /**
+     * Sets the resolver that prevents colliding objects from intersecting.
+     * The default resolves each collision as soon as it is found; a
+     * {@link BatchCollisionResolver} resolves all the collisions of a frame together.
+     * @param resolver the resolver to use, or null to not resolve collisions at all.
+     */
+    public void setResolver(CollisionResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Sets a world that stores the motion of the objects in this collection in arrays,
+     * rather than in each object's transform. GameManager.update integrates the objects that
+     * are integrated in bulk (see {@link danogl.components.Transform#setIntegratedInBulk(boolean)})
+     * all at once, before updating the objects; the others are integrated by their update.
+     * The transforms of objects added to or removed from the collection join or leave the world
+     * when the objects are actually added or removed, on the next call to {@link #update(float)}.
+     * @param transformWorld the world to use, or null for each transform to store its own motion
+     *                       (the default).
+     */
+    public void setTransformWorld(TransformWorld transformWorld) {
+        var oldWorld = this.transformWorld;
+        if(oldWorld != null)
+            forEachInDrawOrder(obj -> oldWorld.remove(obj.transform()));
+        this.transformWorld = transformWorld;
+        if(transformWorld != null)
+            forEachInDrawOrder(obj -> transformWorld.add(obj.transform()));
+    }
+
+    /**
+     * Returns the world that stores the motion of the objects of this collection,
+     * or null if there is none.
+     * @see #setTransformWorld(TransformWorld)
+     */
+    public TransformWorld transformWorld() {
+        return transformWorld;
+    }
+
+    /**
+     * Sets a pool on which large batches of candidate pairs found by the engine's broad phases
+     * are tested for intersection in parallel, before the pairs are handled.
+     * The callbacks (such as onCollisionEnter) and the resolution of collisions still run on
+     * the thread calling handleCollisions, in the same order and with the same results as
+     * without a pool.
+     * A pair tested in parallel is tested again if either object moved, was resized or had its
+     * collider replaced before the pair's turn came; changes to the rectangle of an AABBCollider
+     * made during handleCollisions are not detected.
+     * @param pool the pool to use, for example {@link ForkJoinPool#commonPool()}, or null
+     *             to test each pair as it is handled (the default).
+     */
+    public void setNarrowPhasePool(ForkJoinPool pool) {
+        parallelNarrowPhase = pool == null ? null : new ParallelNarrowPhase(pool);
+    }
+
     /**
      * Updates the internal structures of the collection. Does not update the objects themselves.
      * @param deltaTime Time since last frame
      */
     public void update(float deltaTime) {
         layerManager.flushChanges();
+        if(transformWorld != null) {
+            for(var obj : objectsAddedOrRemoved) {
+                if(layerManager.contains(obj))
+                    transformWorld.add(obj.transform());
+                else
+                    transformWorld.remove(obj.transform());
+            }
+        }
+        objectsAddedOrRemoved.clear();
     }
 
     /**
      * Looks for collisions between the accumulated GameObjects.
+     * Pairs whose collision filters do not match (see {@link GameObjectPhysics#setCollisionFilter})
+     * are never checked.
      * When two objects enter a new collision, their shouldCollideWith method is invoked.
      * If both objects return true, a collision occurs:
      * On the first frame of collision, their onCollisionEnter method is invoked.
@@ -135,11 +271,43 @@ public class GameObjectCollection implements Iterable<GameObject> {
      * objects via the addGameObject/removeGameObject methods. This occurs after all
      * pair-handling already took place.
      * To alter the broadphase of the collision detection (which pairs should be
-     * checked for collisions), override this method and use the protected method
+     * checked for collisions), either set a different {@link BroadPhase} using
+     * layers().setBroadPhase, or override this method and use the protected method
      * handlePair.
+     * Pairs of sleeping objects (see {@link GameObjectPhysics#isAsleep()}) are not checked:
+     * if they were colliding they keep receiving onCollisionStay, and otherwise they are skipped.
      */
     public void handleCollisions() {
+        collisionFrame++;
+        pairsChecked = sleepingPairsSkipped = 0;
         layerManager.handleCollisions();
+        if(resolver != null)
+            resolver.onCollisionsHandled();
+        handlePairsSkippedByBroadPhase();
+    }
+
+    /**
+     * The number of pairs that were checked for collisions in the last call to handleCollisions.
+     */
+    public int getPairsCheckedLastFrame() {
+        return pairsChecked;
+    }
+
+    /**
+     * The number of pairs that were skipped in the last call to handleCollisions
+     * because both their objects were asleep.
+     * @see GameObjectPhysics#isAsleep()
+     */
+    public int getSleepingPairsSkippedLastFrame() {
+        return sleepingPairsSkipped;
+    }
+
+    /**
+     * The number of objects in the collection, not including objects added or removed
+     * since the last call to update.
+     */
+    public int size() {
+        return layerManager.objectCount();
     }
 
     /**
@@ -167,26 +335,33 @@ public class GameObjectCollection implements Iterable<GameObject> {
      * @return whether the pair collided or not.
      */
     protected boolean handlePair(GameObject obj1, GameObject obj2) {
+        //only objects in candidate pairs need their sleep state, so only they are updated
+        obj1.physics().updateSleepState(obj1.transform(), collisionFrame);
+        obj2.physics().updateSleepState(obj2.transform(), collisionFrame);
+        if(obj1.physics().isAsleep() && obj2.physics().isAsleep()) {
+            sleepingPairsSkipped++;
+            return handleSleepingPair(obj1, obj2);
+        }
+        pairsChecked++;
         pair.setGameObject(0, obj1);
         pair.setGameObject(1, obj2);
-        if(!pair.go1().shouldCollideWith(pair.go2()) ||
-                !pair.go2().shouldCollideWith(pair.go1()) ||
-                pair.go1().getCoordinateSpace() != pair.go2().getCoordinateSpace()) {
+        if(!canCollide(pair.go1(), pair.go2()))
             return false;
-        }
         //do they already intersect?
-        var cachedCollisionData = alreadyInCollision.getOrDefault(pair, null);
+        var cachedCollisionData = alreadyInCollision.get(pair.go1(), pair.go2());
         if(cachedCollisionData != null) {
             //then this is not the first time
+            cachedCollisionData.lastFrameHandled = collisionFrame;
             cachedCollisionData.onFrameStart();
             if(!cachedCollisionData.areColliding()) {
                 //then they did intersect but no longer
                 pair.go1().onCollisionExit(pair.go2());
                 pair.go2().onCollisionExit(pair.go1());
-                alreadyInCollision.remove(pair);
+                alreadyInCollision.remove(cachedCollisionData);
                 return false;
             }
             //then they still intersect
+            wakeUp(pair.go1(), pair.go2());
             pair.go1().onCollisionStay(pair.go2(), cachedCollisionData.getCollision(0));
             pair.go2().onCollisionStay(pair.go1(), cachedCollisionData.getCollision(1));
             if(resolver != null)
@@ -195,15 +370,82 @@ public class GameObjectCollection implements Iterable<GameObject> {
             return true;
         }
         //so far they weren't intersecting
+        if(parallelNarrowPhase != null && parallelNarrowPhase.isKnownNotToIntersect(pair.go1(), pair.go2()))
+            return false;
         var collisionData = pairCollisionManager.getCollisionData(pair.go1(), pair.go2());
         if(null == collisionData)
             return false; //then no collision
         //then colliding for first time
-        alreadyInCollision.put(collisionData, collisionData);
+        collisionData.lastFrameHandled = collisionFrame;
+        alreadyInCollision.add(collisionData);
+        wakeUp(pair.go1(), pair.go2());
         pair.go1().onCollisionEnter(pair.go2(), collisionData.getCollision(0));
         pair.go1().onCollisionStay(pair.go2(), collisionData.getCollision(0));
         pair.go2().onCollisionEnter(pair.go1(), collisionData.getCollision(1));
         pair.go2().onCollisionStay(pair.go1(), collisionData.getCollision(1));
         return true;
     }
+
+    //neither object moved since they were last checked, so their collision state is the same
+    private boolean handleSleepingPair(GameObject obj1, GameObject obj2) {
+        var cachedCollisionData = alreadyInCollision.get(obj1, obj2);
+        if(cachedCollisionData == null || !canCollide(obj1, obj2))
+            return false;
+        cachedCollisionData.lastFrameHandled = collisionFrame;
+        obj1.onCollisionStay(obj2, cachedCollisionData.getCollision(0));
+        obj2.onCollisionStay(obj1, cachedCollisionData.getCollision(1));
+        return true;
+    }
+
+    //an awake object that collides with a sleeping one wakes it up
+    private static void wakeUp(GameObject go1, GameObject go2) {
+        if(go1.physics().isAsleep())
+            go1.physics().wakeUp();
+        if(go2.physics().isAsleep())
+            go2.physics().wakeUp();
+    }
+
+    private static boolean canCollide(GameObject go1, GameObject go2) {
+        return go1.physics().collisionFilterAllows(go2.physics())
+                && go1.shouldCollideWith(go2) && go2.shouldCollideWith(go1)
+                && go1.getCoordinateSpace() == go2.getCoordinateSpace();
+    }
+
+    //passes the candidate pairs to handlePair, and batches of them to the parallel narrow phase
+    private class PairHandler implements PairBatchHandler {
+        @Override
+        public void accept(GameObject obj1, GameObject obj2) {
+            handlePair(obj1, obj2);
+        }
+
+        @Override
+        public void prepareBatch(ModifiableList<GameObject> objs1, ModifiableList<GameObject> objs2,
+                                 PairQueue pairs) {
+            //registered handlers might collide AABB pairs that the default handler does not
+            if(parallelNarrowPhase != null && pairCollisionManager.getHandlerCount() == 1)
+                parallelNarrowPhase.prepareBatch(objs1, objs2, pairs);
+        }
+    }
+
+    /**
+     * The broad phase only passes on pairs that might intersect, so pairs that were
+     * colliding and have since separated might not be handled in this frame.
+     * Such pairs did not intersect when their turn came, so they receive onCollisionExit here.
+     * They are not re-checked, since objects may have moved into them after their turn.
+     */
+    private void handlePairsSkippedByBroadPhase() {
+        for(int i = 0 ; i < alreadyInCollision.size() ; i++) {
+            var collisionData = alreadyInCollision.get(i);
+            if(collisionData.lastFrameHandled != collisionFrame
+                    && canCollide(collisionData.go1(), collisionData.go2()))
+                pairsSkippedByBroadPhase.add(collisionData);
+        }
+        for(int i = 0 ; i < pairsSkippedByBroadPhase.size() ; i++) {
+            var collisionData = pairsSkippedByBroadPhase.get(i);
+            alreadyInCollision.remove(collisionData);
+            collisionData.go1().onCollisionExit(collisionData.go2());
+            collisionData.go2().onCollisionExit(collisionData.go1());
+        }
+        pairsSkippedByBroadPhase.clear();
+    }
 }
@@ -1,7 +1,10 @@
 package danogl.collisions;
 
 /**
- * Container class for constants representing layer id's
+ * Container class for constants representing layer id's.
+ * Objects in STATIC_OBJECTS are assumed to rarely move: collisions with them
+ * are found using an index that is only rebuilt when the layer's contents change
+ * or its objects move (see {@link LayerManager#setStaticLayerIndexed(boolean)}).
  * @author Dan Nirel
  */
 public final class Layer {
@@ -0,0 +1,44 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.Counter;
+import danogl.util.ModifiableList;
+
+import java.util.BitSet;
+
+/**
+ * package-private. The objects and collision settings of a single layer, used in LayerManager
+ * @author Dan Nirel
+ */
+class LayerData {
+    int layerId;
+    //a dense index of the layer, in the order layers are created
+    int index;
+    int drawOrder;
+    ModifiableList<GameObject> objects = new ModifiableList<>(false);
+    //the indices of the layers this layer collides with
+    BitSet layersThisLayerCollidesWith = new BitSet();
+    StaticLayerIndex staticIndex;
+    StaticRenderIndex renderIndex;
+    //counts the moves and resizes of the static layer's objects (see Transform.setChangeCounter)
+    Counter changeCounter;
+    //the grid of the objects that continuous collision detection queries, and the last
+    //sweep in which it (or the static index instead) was prepared for queries
+    SpatialGrid sweepGrid;
+    int sweepStamp;
+
+    LayerData(int layerId, int index) {
+        this.layerId = layerId;
+        this.index = index;
+        this.drawOrder = layerId;
+        if(layerId == Layer.STATIC_OBJECTS) {
+            changeCounter = new Counter();
+            staticIndex = new StaticLayerIndex(changeCounter);
+            renderIndex = new StaticRenderIndex(changeCounter);
+        }
+    }
+
+    boolean collidesWith(LayerData other) {
+        return layersThisLayerCollidesWith.get(other.index);
+    }
+}
@@ -1,29 +1,14 @@
 package danogl.collisions;
 
 import danogl.GameObject;
-import danogl.util.ConcatIterator;
 import danogl.util.ModifiableList;
 
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.stream.StreamSupport;
 
-/**
- * package-private, used in LayerManager
- * @author Dan Nirel
- */
-class LayerData {
-    int layerId;
-    int drawOrder;
-    ModifiableList<GameObject> objects = new ModifiableList<>(false);
-    Set<Integer> layersThisLayerCollidesWith = new HashSet<>();
-
-    LayerData(int layerId) {
-        this.layerId = layerId;
-        this.drawOrder = layerId;
-    }
-}
-
 /**
  * Responsible for the layers mechanism, which separates GameObjects to layers.
  * The layers dictate the order of rendering and allows control of which
@@ -32,16 +17,61 @@ class LayerData {
  */
 public class LayerManager {
     private ModifiableList<LayerData> layers = new ModifiableList<>(false);
+    private LongKeyedTable<LayerData> layersById = new LongKeyedTable<>();
+    private int layerCount = 0;
     private boolean shouldReSortLayers = false;
     private BiConsumer<GameObject, GameObject> handlePair;
+    private BroadPhase broadPhase = new SpatialHashBroadPhase();
+    private boolean isStaticLayerIndexed = true;
+    private ContinuousCollisionDetector continuousDetector;
+    private final Iterable<GameObject> reverseOrder = () -> new ObjectIterator(true);
+    private final ViewCuller viewCuller = new ViewCuller();
+
+    //iterates the objects of all layers by index, in drawing order or in reverse
+    private class ObjectIterator implements Iterator<GameObject> {
+        private final boolean isReversed;
+        //the number of layers, and of objects in the current layer, already passed
+        private int layersPassed = 0, objectsPassed = 0;
+
+        ObjectIterator(boolean isReversed) {
+            this.isReversed = isReversed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while(layersPassed < layers.size() && objectsPassed >= currentLayer().objects.size()) {
+                layersPassed++;
+                objectsPassed = 0;
+            }
+            return layersPassed < layers.size();
+        }
+
+        @Override
+        public GameObject next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            var objects = currentLayer().objects;
+            int index = isReversed ? objects.size()-1-objectsPassed : objectsPassed;
+            objectsPassed++;
+            return objects.get(index);
+        }
+
+        private LayerData currentLayer() {
+            return layers.get(isReversed ? layers.size()-1-layersPassed : layersPassed);
+        }
+    }
 
     /**
      * package-private constructor
+     * @param handlePairCallback handles the candidate pairs of colliding layers
+     * @param canCollideCallback whether two objects are set to collide at all
      */
-    LayerManager(BiConsumer<GameObject, GameObject> handlePairCallback) {
+    LayerManager(BiConsumer<GameObject, GameObject> handlePairCallback,
+                 BiPredicate<GameObject, GameObject> canCollideCallback) {
         this.handlePair = handlePairCallback;
-        layers.add(new LayerData(Layer.STATIC_OBJECTS));
-        layers.add(new LayerData(Layer.DEFAULT));
+        this.continuousDetector = new ContinuousCollisionDetector(canCollideCallback);
+        getLayerDataOrCreate(Layer.STATIC_OBJECTS);
+        getLayerDataOrCreate(Layer.DEFAULT);
         shouldLayersCollide(Layer.STATIC_OBJECTS, Layer.DEFAULT, true);
         shouldLayersCollide(Layer.DEFAULT, Layer.DEFAULT, true);
     }
@@ -55,7 +85,7 @@ public class LayerManager {
         var layer2Data = getLayerData(layer2Id);
         if(layer1Data == null || layer2Data == null)
             return false;
-        return layer1Data.layersThisLayerCollidesWith.contains(layer2Id);
+        return layer1Data.collidesWith(layer2Data);
     }
 
     /**
@@ -84,19 +114,85 @@ public class LayerManager {
     public void shouldLayersCollide(int layer1Id, int layer2Id, boolean shouldCollide) {
         var layer1Data = getLayerDataOrCreate(layer1Id);
         var layer2Data = getLayerDataOrCreate(layer2Id);
-        if(shouldCollide) {
-            layer1Data.layersThisLayerCollidesWith.add(layer2Id);
-            layer2Data.layersThisLayerCollidesWith.add(layer1Id);
-        }
-        else {
-            layer1Data.layersThisLayerCollidesWith.remove(layer2Id);
-            layer2Data.layersThisLayerCollidesWith.remove(layer1Id);
+        layer1Data.layersThisLayerCollidesWith.set(layer2Data.index, shouldCollide);
+        layer2Data.layersThisLayerCollidesWith.set(layer1Data.index, shouldCollide);
+    }
+
+    /**
+     * Returns the broad phase used to find the candidate pairs of colliding layers.
+     */
+    public BroadPhase getBroadPhase() {
+        return broadPhase;
+    }
+
+    /**
+     * Sets the broad phase used to find the candidate pairs of colliding layers.
+     * By default, a {@link SpatialHashBroadPhase} is used, and the pairs of
+     * {@link Layer#STATIC_OBJECTS} are found through a persistent index instead
+     * (see {@link #setStaticLayerIndexed(boolean)}). Setting a broad phase does not change
+     * this: the given broad phase handles all pairs of layers the index does not.
+     * @throws IllegalArgumentException if broadPhase is null
+     */
+    public void setBroadPhase(BroadPhase broadPhase) {
+        if(broadPhase == null)
+            throw new IllegalArgumentException("Broad phase cannot be null");
+        this.broadPhase = broadPhase;
+    }
+
+    /**
+     * Are the collisions of {@link Layer#STATIC_OBJECTS} found through a persistent index,
+     * rather than by the broad phase.
+     */
+    public boolean isStaticLayerIndexed() {
+        return isStaticLayerIndexed;
+    }
+
+    /**
+     * Sets whether the collisions of {@link Layer#STATIC_OBJECTS} are found through a persistent
+     * index, rather than by the broad phase. The index is only rebuilt when objects are added to or
+     * removed from the layer, or when static objects move or are resized, so colliding with
+     * the static layer costs per moving object instead of per world object.
+     * This is the default, whichever broad phase is set using {@link #setBroadPhase(BroadPhase)}.
+     */
+    public void setStaticLayerIndexed(boolean isStaticLayerIndexed) {
+        this.isStaticLayerIndexed = isStaticLayerIndexed;
+    }
+
+    /**
+     * The indices of {@link Layer#STATIC_OBJECTS} (for collisions, and for culling objects
+     * outside the camera's view) notice when objects are added or removed, moved or resized,
+     * and are then rebuilt. Call this method after changing static objects in other ways
+     * that affect them: their colliders, collision filters (see GameObjectPhysics.setCollisionFilter),
+     * coordinate space, or the angle they are rendered at.
+     */
+    public void markStaticObjectsChanged() {
+        var staticLayerData = getLayerData(Layer.STATIC_OBJECTS);
+        if(staticLayerData != null) {
+            staticLayerData.staticIndex.invalidate();
+            staticLayerData.renderIndex.invalidate();
         }
     }
 
     void addGameObject(GameObject obj, int layerId) {
         var layerData = getLayerDataOrCreate(layerId);
         layerData.objects.add(obj);
+        if(layerData.changeCounter != null)
+            obj.transform().setChangeCounter(layerData.changeCounter);
+    }
+
+    boolean contains(GameObject obj) {
+        for(int i = 0 ; i < layers.size() ; i++) {
+            if(layers.get(i).objects.contains(obj))
+                return true;
+        }
+        return false;
+    }
+
+    int objectCount() {
+        int count = 0;
+        for(int i = 0 ; i < layers.size() ; i++)
+            count += layers.get(i).objects.size();
+        return count;
     }
 
     boolean isLayerEmpty(int layerId) {
@@ -112,7 +208,11 @@ public class LayerManager {
         LayerData layerData = getLayerData(layerId);
         if(layerData == null)
             return false;
-        return layerData.objects.remove(obj);
+        boolean wasRemoved = layerData.objects.remove(obj);
+        if(wasRemoved && layerData.changeCounter != null
+                && obj.transform().getChangeCounter() == layerData.changeCounter)
+            obj.transform().setChangeCounter(null);
+        return wasRemoved;
     }
 
     void flushChanges() {
@@ -132,45 +232,79 @@ public class LayerManager {
     }
 
     Iterator<GameObject> iterator() {
-        return new ConcatIterator<GameObject>(
-                StreamSupport.stream(layers.spliterator(), false)
-                .map(layerData -> (Iterable<GameObject>)layerData.objects)
-                ::iterator);
+        return new ObjectIterator(false);
     }
 
     Iterable<GameObject> reverseOrder() {
-        return ()->new ConcatIterator<GameObject>(
-               StreamSupport.stream(layers.reverseOrder().spliterator(), false)
-               .map(layerData -> (Iterable<GameObject>)layerData.objects.reverseOrder())
-               ::iterator);
+        return reverseOrder;
     }
 
-    void handleCollisions() {
+    void forEachObject(Consumer<? super GameObject> action) {
+        forEachObject(action, null);
+    }
+
+    void forEachObject(Consumer<? super GameObject> action, Runnable afterEachLayer) {
         for(int i = 0 ; i < layers.size() ; i++) {
-            for(int j = i ; j < layers.size() ; j++) {
-                if(!layers.get(i).layersThisLayerCollidesWith.contains(
-                        layers.get(j).layerId))
-                    continue;
-                handleLayers(layers.get(i).objects, layers.get(j).objects);
+            layers.get(i).objects.forEach(action);
+            if(afterEachLayer != null)
+                afterEachLayer.run();
+        }
+    }
+
+    int forEachObjectInView(float minX, float minY, float maxX, float maxY, float alpha,
+                            Consumer<? super GameObject> action, Runnable afterEachLayer) {
+        viewCuller.setView(minX, minY, maxX, maxY, alpha);
+        int culled = 0;
+        for(int i = 0 ; i < layers.size() ; i++) {
+            var layer = layers.get(i);
+            //the static layer's objects are found through its index
+            if(layer.renderIndex != null) {
+                culled += layer.renderIndex.forEachInView(layer.objects, viewCuller, action);
             }
+            else {
+                for(int j = 0 ; j < layer.objects.size() ; j++) {
+                    var obj = layer.objects.get(j);
+                    if(viewCuller.isVisible(obj))
+                        action.accept(obj);
+                    else
+                        culled++;
+                }
+            }
+            if(afterEachLayer != null)
+                afterEachLayer.run();
         }
+        return culled;
+    }
+
+    void forEachObjectInReverse(Consumer<? super GameObject> action) {
+        for(int i = layers.size()-1 ; i >= 0 ; i--)
+            layers.get(i).objects.forEachInReverse(action);
     }
 
-    private void handleLayers(
-            ModifiableList<GameObject> layerObjs1, ModifiableList<GameObject> layerObjs2) {
-        for(int ind1 = 0 ; ind1 < layerObjs1.size() ; ind1++) {
-            int ind2 = 0;
-            if(layerObjs1 == layerObjs2)
-                ind2 = ind1 + 1;
-            for(; ind2 < layerObjs2.size() ; ind2++) {
-                if(layerObjs1.get(ind1) != layerObjs2.get(ind2))
-                    handlePair.accept(layerObjs1.get(ind1), layerObjs2.get(ind2));
+    void handleCollisions() {
+        broadPhase.onFrameStart();
+        continuousDetector.sweep(layers, isStaticLayerIndexed);
+        for(int i = 0 ; i < layers.size() ; i++) {
+            for(int j = i ; j < layers.size() ; j++) {
+                var layer1 = layers.get(i);
+                var layer2 = layers.get(j);
+                if(!layer1.collidesWith(layer2))
+                    continue;
+                //objects of other layers query the static layer's index directly
+                if(isStaticLayerIndexed && layer1 == layer2 && layer1.staticIndex != null)
+                    layer1.staticIndex.findPairsWithin(layer1.objects, handlePair);
+                else if(isStaticLayerIndexed && layer1 != layer2 && layer1.staticIndex != null)
+                    layer1.staticIndex.findPairs(layer1.objects, layer2.objects, true, handlePair);
+                else if(isStaticLayerIndexed && layer1 != layer2 && layer2.staticIndex != null)
+                    layer2.staticIndex.findPairs(layer2.objects, layer1.objects, false, handlePair);
+                else
+                    broadPhase.findPairs(layer1.objects, layer2.objects, handlePair);
             }
         }
     }
 
     private LayerData getLayerData(int layerId) {
-        return layers.findFirst(data -> data.layerId == layerId);
+        return layersById.get(layerId);
     }
 
     private LayerData getLayerDataThrow(int layerId) {
@@ -184,8 +318,9 @@ public class LayerManager {
     private LayerData getLayerDataOrCreate(int layerId) {
         var layerData = getLayerData(layerId);
         if(layerData == null) {
-            layerData = new LayerData(layerId);
+            layerData = new LayerData(layerId, layerCount++);
             layers.add(layerData);
+            layersById.put(layerId, layerData);
             shouldReSortLayers = true;
         }
         return layerData;
@@ -0,0 +1,106 @@
+package danogl.collisions;
+
+import java.util.Arrays;
+
+/**
+ * package-private. A hash table from long keys to values, using open addressing
+ * with linear probing, so that lookups neither allocate nor box their keys.
+ * @param <V> the type of the values. Null values are not allowed.
+ */
+class LongKeyedTable<V> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * The number of keys in the table.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of the given key, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        return (V)values[findSlot(key)];
+    }
+
+    /**
+     * Sets the value of the given key, replacing its previous value if any.
+     */
+    void put(long key, V value) {
+        if(value == null)
+            throw new IllegalArgumentException("Values cannot be null");
+        if(2*(size+1) > keys.length)
+            rehash(keys.length*2);
+        int slot = findSlot(key);
+        if(values[slot] == null)
+            size++;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Removes the given key, if it is in the table.
+     */
+    void remove(long key) {
+        int slot = findSlot(key);
+        if(values[slot] == null)
+            return;
+        size--;
+        //shift back the entries that follow, so that no lookup stops at the new hole
+        int mask = keys.length - 1;
+        int hole = slot;
+        for(int next = (hole + 1) & mask ; values[next] != null ; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            //can the entry at next move into the hole without passing its home slot?
+            if(((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        values[hole] = null;
+    }
+
+    /**
+     * Removes all the keys.
+     */
+    void clear() {
+        if(size == 0)
+            return;
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while(values[slot] != null && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[newCapacity];
+        values = new Object[newCapacity];
+        for(int slot = 0 ; slot < oldKeys.length ; slot++) {
+            if(oldValues[slot] == null)
+                continue;
+            int newSlot = findSlot(oldKeys[slot]);
+            keys[newSlot] = oldKeys[slot];
+            values[newSlot] = oldValues[slot];
+        }
+    }
+
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int)(key ^ (key >>> 32));
+    }
+}
@@ -0,0 +1,64 @@
+package danogl.collisions;
+
+/**
+ * package-private. Sorts arrays of longs without allocating once its buffer is large enough.
+ * Arrays.sort allocates a new array of runs for inputs that are partly sorted, which the
+ * pairs of consecutive frames usually are. This is a bottom-up merge sort over short
+ * insertion-sorted blocks, which skips merges of blocks that are already in order,
+ * so input that is already sorted costs a single pass.
+ */
+class LongSorter {
+    private static final int BLOCK_SIZE = 32;
+
+    private long[] buffer = new long[0];
+
+    /**
+     * Sorts the first count elements of values in increasing order.
+     */
+    void sort(long[] values, int count) {
+        for(int start = 0 ; start < count ; start += BLOCK_SIZE)
+            insertionSort(values, start, Math.min(start + BLOCK_SIZE, count));
+        if(count <= BLOCK_SIZE)
+            return;
+        if(buffer.length < count)
+            buffer = new long[Math.max(count, buffer.length*2)];
+
+        long[] from = values, to = buffer;
+        for(int width = BLOCK_SIZE ; width < count ; width *= 2) {
+            for(int start = 0 ; start < count ; start += 2*width) {
+                int mid = Math.min(start + width, count), end = Math.min(start + 2*width, count);
+                if(mid == end || from[mid-1] <= from[mid])
+                    System.arraycopy(from, start, to, start, end - start);
+                else
+                    merge(from, to, start, mid, end);
+            }
+            long[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if(from != values)
+            System.arraycopy(from, 0, values, 0, count);
+    }
+
+    private static void insertionSort(long[] values, int start, int end) {
+        for(int i = start + 1 ; i < end ; i++) {
+            long value = values[i];
+            int j = i - 1;
+            while(j >= start && values[j] > value) {
+                values[j+1] = values[j];
+                j--;
+            }
+            values[j+1] = value;
+        }
+    }
+
+    private static void merge(long[] from, long[] to, int start, int mid, int end) {
+        int left = start, right = mid;
+        for(int i = start ; i < end ; i++) {
+            if(right == end || (left < mid && from[left] <= from[right]))
+                to[i] = from[left++];
+            else
+                to[i] = from[right++];
+        }
+    }
+}
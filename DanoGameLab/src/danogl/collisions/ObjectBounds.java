@@ -0,0 +1,123 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.collisions.AABB.AABBCollider;
+
+import java.util.Arrays;
+
+/**
+ * package-private. A growable set of world-space bounding boxes, stored in primitive
+ * arrays and indexed by the position of their GameObject in a layer.
+ * Used by the broad phases to avoid allocating per-object rectangles every frame.
+ */
+class ObjectBounds {
+    private static final int INITIAL_CAPACITY = 64;
+
+    float[] minX = new float[INITIAL_CAPACITY], minY = new float[INITIAL_CAPACITY];
+    float[] maxX = new float[INITIAL_CAPACITY], maxY = new float[INITIAL_CAPACITY];
+    boolean[] isBounded = new boolean[INITIAL_CAPACITY];
+    //the objects' collision filters (see GameObjectPhysics.setCollisionFilter)
+    int[] categories = new int[INITIAL_CAPACITY], masks = new int[INITIAL_CAPACITY];
+
+    /**
+     * Makes sure the arrays can hold at least the given number of bounding boxes.
+     */
+    void ensureCapacity(int capacity) {
+        if(capacity <= minX.length)
+            return;
+        int newCapacity = Math.max(capacity, minX.length*2);
+        minX = Arrays.copyOf(minX, newCapacity);
+        minY = Arrays.copyOf(minY, newCapacity);
+        maxX = Arrays.copyOf(maxX, newCapacity);
+        maxY = Arrays.copyOf(maxY, newCapacity);
+        isBounded = Arrays.copyOf(isBounded, newCapacity);
+        categories = Arrays.copyOf(categories, newCapacity);
+        masks = Arrays.copyOf(masks, newCapacity);
+    }
+
+    /**
+     * Stores the world-space bounding box of the given object's collider at the given index.
+     * @return false if the object's collider is not an AABB, in which case its extent is
+     * unknown and it should be paired with every object. Its box is then set to be infinite.
+     * An object that never collides (see GameObjectPhysics.collidesWithAnything) gets an empty box,
+     * which overlaps nothing.
+     */
+    boolean set(int index, GameObject go) {
+        var physics = go.physics();
+        categories[index] = physics.getCollisionCategories();
+        masks[index] = physics.getCollisionMask();
+        var collider = physics.collider();
+        if(!physics.collidesWithAnything()) {
+            minX[index] = minY[index] = Float.POSITIVE_INFINITY;
+            maxX[index] = maxY[index] = Float.NEGATIVE_INFINITY;
+            isBounded[index] = true;
+            return true;
+        }
+        if(!(collider instanceof AABBCollider)) {
+            minX[index] = minY[index] = Float.NEGATIVE_INFINITY;
+            maxX[index] = maxY[index] = Float.POSITIVE_INFINITY;
+            isBounded[index] = false;
+            return false;
+        }
+        var rect = ((AABBCollider)collider).getRectangle();
+        var corner = go.getTopLeftCorner();
+        var dimensions = go.getDimensions();
+        minX[index] = corner.x() + rect.x*dimensions.x();
+        minY[index] = corner.y() + rect.y*dimensions.y();
+        //rounded up, since the narrow phase adds the width in double precision
+        maxX[index] = Math.nextUp(minX[index] + rect.width*dimensions.x());
+        maxY[index] = Math.nextUp(minY[index] + rect.height*dimensions.y());
+        isBounded[index] = true;
+        return true;
+    }
+
+    /**
+     * Recomputes the bounding box at the given index, for example after the object was
+     * moved while resolving a collision.
+     * @return whether the bounding box changed.
+     */
+    boolean refresh(int index, GameObject go) {
+        float oldMinX = minX[index], oldMinY = minY[index];
+        float oldMaxX = maxX[index], oldMaxY = maxY[index];
+        boolean wasBounded = isBounded[index];
+        set(index, go);
+        return wasBounded != isBounded[index]
+                || oldMinX != minX[index] || oldMinY != minY[index]
+                || oldMaxX != maxX[index] || oldMaxY != maxY[index];
+    }
+
+    /**
+     * Is the box at the given index empty, that is, of an object that never collides.
+     */
+    boolean isEmpty(int index) {
+        return minX[index] > maxX[index];
+    }
+
+    /**
+     * Do the boxes at index1 in bounds1 and at index2 in bounds2 overlap (touching included),
+     * and do the collision filters of their objects allow them to collide.
+     */
+    static boolean mayCollide(ObjectBounds bounds1, int index1, ObjectBounds bounds2, int index2) {
+        return filtersAllow(bounds1, index1, bounds2, index2) && overlap(bounds1, index1, bounds2, index2);
+    }
+
+    /**
+     * Do the collision filters of the objects at index1 in bounds1 and at index2 in bounds2
+     * allow them to collide.
+     */
+    static boolean filtersAllow(ObjectBounds bounds1, int index1, ObjectBounds bounds2, int index2) {
+        return (bounds1.categories[index1] & bounds2.masks[index2]) != 0
+                && (bounds2.categories[index2] & bounds1.masks[index1]) != 0;
+    }
+
+    /**
+     * Do the boxes at index1 in bounds1 and at index2 in bounds2 overlap (touching included).
+     * Unbounded boxes overlap everything.
+     */
+    static boolean overlap(ObjectBounds bounds1, int index1, ObjectBounds bounds2, int index2) {
+        return bounds1.minX[index1] <= bounds2.maxX[index2]
+                && bounds2.minX[index2] <= bounds1.maxX[index1]
+                && bounds1.minY[index1] <= bounds2.maxY[index2]
+                && bounds2.minY[index2] <= bounds1.maxY[index1];
+    }
+}
@@ -0,0 +1,23 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.function.BiConsumer;
+
+/**
+ * package-private. A handler of candidate pairs that can do part of its work for a whole batch
+ * of pairs before they are handled one by one. The broad phases pass each batch of pairs they
+ * collect to {@link #prepareBatch}, and then pass the pairs to {@link #accept} in the batch's order,
+ * possibly interleaved with pairs that were not in the batch.
+ * @see PairQueue#prepareBatch
+ */
+interface PairBatchHandler extends BiConsumer<GameObject, GameObject> {
+    /**
+     * Called with the sorted pairs of a queue, before the queue is consumed.
+     * @param objs1 the objects whose indices are the first in each pair
+     * @param objs2 the objects whose indices are the second in each pair
+     */
+    void prepareBatch(ModifiableList<GameObject> objs1, ModifiableList<GameObject> objs2,
+                      PairQueue pairs);
+}
@@ -10,6 +10,10 @@ import danogl.GameObject;
  */
 public abstract class PairCollisionData extends GameObjectPair {
     protected Collision collision1, collision2;
+    //bookkeeping of the ContactTable and GameObjectCollection
+    int lastFrameHandled;
+    int contactIndex;
+    PairCollisionData nextContact1, prevContact1, nextContact2, prevContact2;
 
     /**
      * Constructor. Who knew.
@@ -27,9 +27,16 @@ class PairCollisionManager {
             handlers.add(handler);
     }
 
+    /**
+     * The number of registered handlers, including the default one.
+     */
+    public int getHandlerCount() {
+        return handlers.size();
+    }
+
     public PairCollisionData getCollisionData(GameObject go1, GameObject go2) {
-        for(var handler : handlers) {
-            var collisionData = handler.computeCollisionData(go1, go2);
+        for(int i = 0 ; i < handlers.size() ; i++) {
+            var collisionData = handlers.get(i).computeCollisionData(go1, go2);
             if(collisionData != null)
                 return collisionData;
         }
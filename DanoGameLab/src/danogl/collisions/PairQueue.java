@@ -0,0 +1,166 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * package-private. The candidate pairs found by a broad phase, each packed into a long
+ * as (index in first layer, index in second layer), and passed on in increasing order.
+ * Resolving a collision may move objects, and thus create new candidate pairs after
+ * the pairs were collected; such pairs can be added while the queue is being consumed,
+ * as long as they come after the last pair passed on. This keeps the broad phases exact:
+ * every pair is handled in the same order and with the same positions as if all pairs were
+ * checked one after the other.
+ */
+class PairQueue {
+    private static final int INITIAL_CAPACITY = 64;
+    static final long NO_PAIR = -1;
+
+    private long[] pairs = new long[INITIAL_CAPACITY];
+    private int pairCount, cursor;
+    //a min-heap of the pairs added while consuming the queue
+    private long[] latePairs = new long[INITIAL_CAPACITY];
+    private int latePairCount;
+    private long lastPair = NO_PAIR;
+    private final LongSorter sorter = new LongSorter();
+    //the index among the sorted pairs of the last pair returned, or -1 if it was added late
+    private int lastIndex = -1;
+
+    static long pair(int first, int second) {
+        return ((long)first << 32) | second;
+    }
+
+    static int first(long pair) {
+        return (int)(pair >>> 32);
+    }
+
+    static int second(long pair) {
+        return (int)pair;
+    }
+
+    /**
+     * Empties the queue.
+     */
+    void clear() {
+        pairCount = cursor = latePairCount = 0;
+        lastPair = NO_PAIR;
+        lastIndex = -1;
+    }
+
+    /**
+     * Adds a pair before the queue is consumed. Call {@link #sort()} before consuming it.
+     */
+    void add(int first, int second) {
+        if(pairCount == pairs.length)
+            pairs = Arrays.copyOf(pairs, pairCount*2);
+        pairs[pairCount++] = pair(first, second);
+    }
+
+    /**
+     * Orders the pairs added using {@link #add(int, int)}.
+     */
+    void sort() {
+        sorter.sort(pairs, pairCount);
+    }
+
+    /**
+     * Lets handlePair do part of its work for all the sorted pairs at once, before the queue
+     * is consumed, if it supports that (see {@link PairBatchHandler}). Call after {@link #sort()}.
+     * @param objs1 the objects whose indices are the first in each pair
+     * @param objs2 the objects whose indices are the second in each pair
+     */
+    void prepareBatch(BiConsumer<GameObject, GameObject> handlePair,
+                      ModifiableList<GameObject> objs1, ModifiableList<GameObject> objs2) {
+        if(handlePair instanceof PairBatchHandler)
+            ((PairBatchHandler)handlePair).prepareBatch(objs1, objs2, this);
+    }
+
+    /**
+     * The number of pairs added using {@link #add(int, int)}.
+     */
+    int sortedCount() {
+        return pairCount;
+    }
+
+    /**
+     * Returns the i'th pair added using {@link #add(int, int)}, in sorted order.
+     */
+    long sortedPair(int i) {
+        return pairs[i];
+    }
+
+    /**
+     * The index (as in {@link #sortedPair(int)}) of the pair last returned by {@link #next()},
+     * or -1 if that pair was added late.
+     */
+    int lastSortedIndex() {
+        return lastIndex;
+    }
+
+    /**
+     * Adds a pair while the queue is consumed. Has no effect if the pair
+     * should have been handled already.
+     */
+    void addLate(int first, int second) {
+        long pair = pair(first, second);
+        if(pair <= lastPair)
+            return;
+        if(latePairCount == latePairs.length)
+            latePairs = Arrays.copyOf(latePairs, latePairCount*2);
+        //sift up
+        int child = latePairCount++;
+        while(child > 0) {
+            int parent = (child-1)/2;
+            if(latePairs[parent] <= pair)
+                break;
+            latePairs[child] = latePairs[parent];
+            child = parent;
+        }
+        latePairs[child] = pair;
+    }
+
+    /**
+     * Returns the next pair, or {@link #NO_PAIR} if there are none. Each pair is returned once.
+     */
+    long next() {
+        while(cursor < pairCount || latePairCount > 0) {
+            long pair;
+            int index = -1;
+            if(latePairCount == 0 || (cursor < pairCount && pairs[cursor] <= latePairs[0])) {
+                index = cursor++;
+                pair = pairs[index];
+            }
+            else
+                pair = popLatePair();
+            if(pair == lastPair)
+                continue;
+            lastPair = pair;
+            lastIndex = index;
+            return pair;
+        }
+        return NO_PAIR;
+    }
+
+    private long popLatePair() {
+        long top = latePairs[0];
+        long last = latePairs[--latePairCount];
+        //sift down
+        int parent = 0;
+        while(true) {
+            int child = 2*parent + 1;
+            if(child >= latePairCount)
+                break;
+            if(child+1 < latePairCount && latePairs[child+1] < latePairs[child])
+                child++;
+            if(last <= latePairs[child])
+                break;
+            latePairs[parent] = latePairs[child];
+            parent = child;
+        }
+        latePairs[parent] = last;
+        return top;
+    }
+}
@@ -0,0 +1,134 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.collisions.AABB.AABBCollider;
+import danogl.collisions.AABB.AABBPairCollisionHandler;
+import danogl.util.ModifiableList;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * package-private. Tests a batch of candidate pairs for intersection on a ForkJoinPool,
+ * before the pairs are handled one by one on the game thread. Only pairs of AABB colliders
+ * are tested. A result is only used if neither object moved, was resized or had its collider
+ * replaced since it was computed; otherwise the pair is tested again when it is handled,
+ * so the outcome is the same as when testing each pair as it is handled.
+ * @see GameObjectCollection#setNarrowPhasePool(ForkJoinPool)
+ */
+class ParallelNarrowPhase {
+    //smaller batches are not worth the overhead of the pool
+    private static final int MIN_BATCH_SIZE = 512;
+    private static final int PAIRS_PER_TASK = 256;
+    private static final byte NOT_TESTED = 0, INTERSECTING = 1, NOT_INTERSECTING = 2;
+
+    private final ForkJoinPool pool;
+    //the batch being handled
+    private PairQueue queue;
+    private ModifiableList<GameObject> layerObjs1, layerObjs2;
+    private int count;
+    //the objects of each pair in the batch, their state when tested, and the result
+    private GameObject[] objs1 = new GameObject[MIN_BATCH_SIZE];
+    private GameObject[] objs2 = new GameObject[MIN_BATCH_SIZE];
+    private Collider[] colliders1 = new Collider[MIN_BATCH_SIZE];
+    private Collider[] colliders2 = new Collider[MIN_BATCH_SIZE];
+    private int[] versions1 = new int[MIN_BATCH_SIZE];
+    private int[] versions2 = new int[MIN_BATCH_SIZE];
+    private byte[] results = new byte[MIN_BATCH_SIZE];
+
+    ParallelNarrowPhase(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Tests the sorted pairs of a queue, if there are enough of them.
+     * @see PairBatchHandler#prepareBatch
+     */
+    void prepareBatch(ModifiableList<GameObject> layerObjs1, ModifiableList<GameObject> layerObjs2,
+                      PairQueue pairs) {
+        queue = pairs;
+        count = pairs.sortedCount() >= MIN_BATCH_SIZE ? pairs.sortedCount() : 0;
+        if(count == 0)
+            return;
+        this.layerObjs1 = layerObjs1;
+        this.layerObjs2 = layerObjs2;
+        ensureCapacity(count);
+        pool.invoke(new TestPairs(0, count));
+    }
+
+    /**
+     * Whether the pair last returned by the queue of the last batch is the given pair,
+     * and was found not to intersect, and neither object changed since.
+     */
+    boolean isKnownNotToIntersect(GameObject go1, GameObject go2) {
+        if(queue == null)
+            return false;
+        int i = queue.lastSortedIndex();
+        return i >= 0 && i < count && results[i] == NOT_INTERSECTING
+                && objs1[i] == go1 && objs2[i] == go2
+                && versions1[i] == go1.transform().getVersion()
+                && versions2[i] == go2.transform().getVersion()
+                && colliders1[i] == go1.physics().collider()
+                && colliders2[i] == go2.physics().collider();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(results.length >= capacity)
+            return;
+        int newCapacity = Math.max(capacity, results.length*2);
+        objs1 = Arrays.copyOf(objs1, newCapacity);
+        objs2 = Arrays.copyOf(objs2, newCapacity);
+        colliders1 = Arrays.copyOf(colliders1, newCapacity);
+        colliders2 = Arrays.copyOf(colliders2, newCapacity);
+        versions1 = Arrays.copyOf(versions1, newCapacity);
+        versions2 = Arrays.copyOf(versions2, newCapacity);
+        results = Arrays.copyOf(results, newCapacity);
+    }
+
+    //tests the pairs in [from,to) of the batch, splitting the range between tasks
+    private class TestPairs extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to;
+
+        TestPairs(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > PAIRS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TestPairs(from, mid), new TestPairs(mid, to));
+                return;
+            }
+            var rect1World = new Rectangle2D.Float();
+            var rect2World = new Rectangle2D.Float();
+            var intersectionRect = new Rectangle2D.Float();
+            for(int i = from ; i < to ; i++) {
+                long pair = queue.sortedPair(i);
+                var go1 = layerObjs1.get(PairQueue.first(pair));
+                var go2 = layerObjs2.get(PairQueue.second(pair));
+                objs1[i] = go1;
+                objs2[i] = go2;
+                versions1[i] = go1.transform().getVersion();
+                versions2[i] = go2.transform().getVersion();
+                colliders1[i] = go1.physics().collider();
+                colliders2[i] = go2.physics().collider();
+                if(go1 == go2 || !isAABB(colliders1[i]) || !isAABB(colliders2[i]))
+                    results[i] = NOT_TESTED;
+                else if(AABBPairCollisionHandler.calcIntersectionRect(
+                        go1, go2, rect1World, rect2World, intersectionRect))
+                    results[i] = INTERSECTING;
+                else
+                    results[i] = NOT_INTERSECTING;
+            }
+        }
+    }
+
+    private static boolean isAABB(Collider collider) {
+        return collider.colliderType().equals(AABBCollider.AABB_COLLIDER_TYPE);
+    }
+}
@@ -0,0 +1,236 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.Arrays;
+
+/**
+ * package-private. A uniform grid over the world-space bounding boxes of a list
+ * of GameObjects, hashed into an open-addressing table so that the world can be unbounded.
+ * Objects that span too many cells, or whose collider is not an AABB, are not placed
+ * in cells but are returned by every query. Objects that never collide are left out.
+ */
+class SpatialGrid {
+    private static final int MAX_CELLS_PER_OBJECT = 64;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int NO_ENTRY = -1;
+
+    private final float cellSize;
+    private final ObjectBounds bounds = new ObjectBounds();
+    private int size;
+
+    //the grid: an open-addressing table from cell key to the first entry of the cell
+    private long[] cellKeys = new long[INITIAL_CAPACITY];
+    private int[] cellHeads = new int[INITIAL_CAPACITY];
+    private int[] cellStamps = new int[INITIAL_CAPACITY];
+    private int cellCount;
+    private int buildStamp = 0;
+
+    //entries of the grid: each is an index of an object in the list
+    private int[] entryObjects = new int[INITIAL_CAPACITY];
+    private int[] entryNext = new int[INITIAL_CAPACITY];
+    private int entryCount;
+
+    //objects that are not in the grid, or that moved since it was built
+    private int[] overflowObjects = new int[INITIAL_CAPACITY];
+    private int overflowCount;
+    private int[] movedStamps = new int[INITIAL_CAPACITY];
+
+    private int[] seenStamps = new int[INITIAL_CAPACITY];
+    private int queryStamp = 0;
+    private int[] candidates = new int[INITIAL_CAPACITY];
+
+    SpatialGrid(float cellSize) {
+        if(!(cellSize > 0))
+            throw new IllegalArgumentException("Cell size must be positive");
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * The bounding boxes of the objects in the grid, indexed like the list it was built from.
+     */
+    ObjectBounds bounds() {
+        return bounds;
+    }
+
+    /**
+     * Discards the grid's contents and rebuilds it from the given objects' current bounds.
+     */
+    void build(ModifiableList<GameObject> objs) {
+        buildStamp++;
+        cellCount = 0;
+        entryCount = 0;
+        overflowCount = 0;
+        size = objs.size();
+        bounds.ensureCapacity(size);
+        if(seenStamps.length < size) {
+            seenStamps = new int[Math.max(size, seenStamps.length*2)];
+            movedStamps = new int[seenStamps.length];
+        }
+        if(candidates.length < size)
+            candidates = new int[Math.max(size, candidates.length*2)];
+
+        for(int ind = 0 ; ind < size ; ind++) {
+            //objects that never collide are left out
+            if(bounds.set(ind, objs.get(ind)) && bounds.isEmpty(ind))
+                continue;
+            if(!bounds.isBounded[ind] || cellsSpanned(bounds, ind) > MAX_CELLS_PER_OBJECT) {
+                addToOverflow(ind);
+                continue;
+            }
+            int minCellX = cell(bounds.minX[ind]), maxCellX = cell(bounds.maxX[ind]);
+            int minCellY = cell(bounds.minY[ind]), maxCellY = cell(bounds.maxY[ind]);
+            for(int cellY = minCellY ; cellY <= maxCellY ; cellY++) {
+                for(int cellX = minCellX ; cellX <= maxCellX ; cellX++)
+                    insert(cellX, cellY, ind);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the bounding box of an object in the grid, in case it moved since the
+     * grid was built. An object that moved is returned by every subsequent query.
+     * @return whether the object moved.
+     */
+    boolean refresh(int ind, GameObject obj) {
+        if(!bounds.refresh(ind, obj))
+            return false;
+        if(movedStamps[ind] != buildStamp) {
+            movedStamps[ind] = buildStamp;
+            addToOverflow(ind);
+        }
+        return true;
+    }
+
+    /**
+     * The number of objects in the grid.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Collects the indices of the objects that share a cell with the given bounding box.
+     * The result is unordered, and is valid until the next query.
+     * @return the number of candidates, which can be read using {@link #candidate(int)}
+     */
+    int query(ObjectBounds queryBounds, int queryIndex) {
+        if(++queryStamp == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamps, 0);
+            queryStamp = 1;
+        }
+
+        if(queryBounds.isEmpty(queryIndex))
+            return 0;
+        //objects too large for the grid are paired with everything
+        if(!queryBounds.isBounded[queryIndex]
+                || cellsSpanned(queryBounds, queryIndex) > MAX_CELLS_PER_OBJECT) {
+            for(int ind = 0 ; ind < size ; ind++)
+                candidates[ind] = ind;
+            return size;
+        }
+
+        int count = 0;
+        for(int i = 0 ; i < overflowCount ; i++) {
+            seenStamps[overflowObjects[i]] = queryStamp;
+            candidates[count++] = overflowObjects[i];
+        }
+        int minCellX = cell(queryBounds.minX[queryIndex]), maxCellX = cell(queryBounds.maxX[queryIndex]);
+        int minCellY = cell(queryBounds.minY[queryIndex]), maxCellY = cell(queryBounds.maxY[queryIndex]);
+        for(int cellY = minCellY ; cellY <= maxCellY ; cellY++) {
+            for(int cellX = minCellX ; cellX <= maxCellX ; cellX++) {
+                for(int entry = lookup(cellX, cellY) ; entry != NO_ENTRY ; entry = entryNext[entry]) {
+                    int ind = entryObjects[entry];
+                    if(seenStamps[ind] == queryStamp)
+                        continue;
+                    seenStamps[ind] = queryStamp;
+                    candidates[count++] = ind;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the i'th candidate of the last query.
+     */
+    int candidate(int i) {
+        return candidates[i];
+    }
+
+    private void addToOverflow(int ind) {
+        if(overflowCount == overflowObjects.length)
+            overflowObjects = Arrays.copyOf(overflowObjects, overflowCount*2);
+        overflowObjects[overflowCount++] = ind;
+    }
+
+    private long cellsSpanned(ObjectBounds bounds, int ind) {
+        long width = (long)cell(bounds.maxX[ind]) - cell(bounds.minX[ind]) + 1;
+        long height = (long)cell(bounds.maxY[ind]) - cell(bounds.minY[ind]) + 1;
+        return width*height;
+    }
+
+    private int cell(float coordinate) {
+        return (int)Math.floor(coordinate/cellSize);
+    }
+
+    private void insert(int cellX, int cellY, int objIndex) {
+        if(2*(cellCount+1) > cellKeys.length)
+            rehash(cellKeys.length*2);
+        long key = key(cellX, cellY);
+        int slot = findSlot(key);
+        if(cellStamps[slot] != buildStamp) {
+            cellStamps[slot] = buildStamp;
+            cellKeys[slot] = key;
+            cellHeads[slot] = NO_ENTRY;
+            cellCount++;
+        }
+        if(entryCount == entryObjects.length) {
+            entryObjects = Arrays.copyOf(entryObjects, entryCount*2);
+            entryNext = Arrays.copyOf(entryNext, entryCount*2);
+        }
+        entryObjects[entryCount] = objIndex;
+        entryNext[entryCount] = cellHeads[slot];
+        cellHeads[slot] = entryCount++;
+    }
+
+    private int lookup(int cellX, int cellY) {
+        int slot = findSlot(key(cellX, cellY));
+        return cellStamps[slot] == buildStamp ? cellHeads[slot] : NO_ENTRY;
+    }
+
+    private int findSlot(long key) {
+        int mask = cellKeys.length - 1;
+        int slot = hash(key) & mask;
+        while(cellStamps[slot] == buildStamp && cellKeys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        int[] oldStamps = cellStamps;
+        cellKeys = new long[newCapacity];
+        cellHeads = new int[newCapacity];
+        cellStamps = new int[newCapacity];
+        for(int slot = 0 ; slot < oldKeys.length ; slot++) {
+            if(oldStamps[slot] != buildStamp)
+                continue;
+            int newSlot = findSlot(oldKeys[slot]);
+            cellStamps[newSlot] = buildStamp;
+            cellKeys[newSlot] = oldKeys[slot];
+            cellHeads[newSlot] = oldHeads[slot];
+        }
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long)cellX << 32) | (cellY & 0xffffffffL);
+    }
+
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int)(key ^ (key >>> 32));
+    }
+}
@@ -0,0 +1,116 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A broad phase that hashes the objects of one layer into a uniform grid according
+ * to their world-space bounding boxes, and then pairs each object of the other layer only
+ * with the objects in the cells it overlaps.
+ * The cost is roughly linear in the number of objects, provided most objects are not much
+ * larger than a cell. Objects that span too many cells, or whose collider is not an AABB,
+ * are paired with every object, as in {@link BruteForceBroadPhase}.
+ * This is the default broad phase.
+ */
+public class SpatialHashBroadPhase implements BroadPhase {
+    /** The default width and height of a grid cell, in world coordinates */
+    public static final float DEFAULT_CELL_SIZE = 64;
+
+    private final SpatialGrid grid;
+    private final ObjectBounds queryBounds = new ObjectBounds();
+    private final PairQueue pairs = new PairQueue();
+
+    /**
+     * Creates a spatial hash whose cells are of size {@link #DEFAULT_CELL_SIZE}.
+     */
+    public SpatialHashBroadPhase() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a spatial hash with a given cell size.
+     * @param cellSize width and height of each cell, in world coordinates. A good cell size
+     *                 is about the size of a typical object in the scene.
+     */
+    public SpatialHashBroadPhase(float cellSize) {
+        grid = new SpatialGrid(cellSize);
+    }
+
+    @Override
+    public void findPairs(ModifiableList<GameObject> layerObjs1,
+                          ModifiableList<GameObject> layerObjs2,
+                          BiConsumer<GameObject, GameObject> handlePair) {
+        if(layerObjs1.size() == 0 || layerObjs2.size() == 0)
+            return;
+        boolean sameLayer = layerObjs1 == layerObjs2;
+        grid.build(layerObjs2);
+        ObjectBounds bounds1 = sameLayer ? grid.bounds() : queryBounds;
+        bounds1.ensureCapacity(layerObjs1.size());
+
+        pairs.clear();
+        for(int ind1 = 0 ; ind1 < layerObjs1.size() ; ind1++) {
+            if(!sameLayer)
+                bounds1.set(ind1, layerObjs1.get(ind1));
+            int candidateCount = grid.query(bounds1, ind1);
+            for(int i = 0 ; i < candidateCount ; i++) {
+                int ind2 = grid.candidate(i);
+                if((!sameLayer || ind2 > ind1) && ObjectBounds.mayCollide(bounds1, ind1, grid.bounds(), ind2))
+                    pairs.add(ind1, ind2);
+            }
+        }
+        pairs.sort();
+        pairs.prepareBatch(handlePair, layerObjs1, layerObjs2);
+
+        for(long pair = pairs.next() ; pair != PairQueue.NO_PAIR ; pair = pairs.next()) {
+            int ind1 = PairQueue.first(pair), ind2 = PairQueue.second(pair);
+            var obj1 = layerObjs1.get(ind1);
+            var obj2 = layerObjs2.get(ind2);
+            if(obj1 == obj2)
+                continue;
+            handlePair.accept(obj1, obj2);
+            //resolving the collision might have moved the objects into new pairs
+            if(sameLayer) {
+                if(grid.refresh(ind1, obj1))
+                    addPairsOfMovedObjectInSameLayer(ind1);
+                if(grid.refresh(ind2, obj2))
+                    addPairsOfMovedObjectInSameLayer(ind2);
+            }
+            else {
+                if(bounds1.refresh(ind1, obj1))
+                    addPairsOfMovedObjectInLayer1(ind1);
+                if(grid.refresh(ind2, obj2))
+                    addPairsOfMovedObjectInLayer2(layerObjs1.size(), ind2);
+            }
+        }
+    }
+
+    //an object moved within a layer that collides with itself
+    private void addPairsOfMovedObjectInSameLayer(int ind) {
+        int candidateCount = grid.query(grid.bounds(), ind);
+        for(int i = 0 ; i < candidateCount ; i++) {
+            int other = grid.candidate(i);
+            if(other != ind && ObjectBounds.mayCollide(grid.bounds(), ind, grid.bounds(), other))
+                pairs.addLate(Math.min(ind, other), Math.max(ind, other));
+        }
+    }
+
+    //an object of the first layer moved
+    private void addPairsOfMovedObjectInLayer1(int ind1) {
+        int candidateCount = grid.query(queryBounds, ind1);
+        for(int i = 0 ; i < candidateCount ; i++) {
+            int ind2 = grid.candidate(i);
+            if(ObjectBounds.mayCollide(queryBounds, ind1, grid.bounds(), ind2))
+                pairs.addLate(ind1, ind2);
+        }
+    }
+
+    //an object of the second layer moved: the first layer is not indexed, so scan it
+    private void addPairsOfMovedObjectInLayer2(int layer1Size, int ind2) {
+        for(int ind1 = 0 ; ind1 < layer1Size ; ind1++) {
+            if(ObjectBounds.mayCollide(queryBounds, ind1, grid.bounds(), ind2))
+                pairs.addLate(ind1, ind2);
+        }
+    }
+}
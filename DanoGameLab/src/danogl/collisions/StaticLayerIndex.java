@@ -0,0 +1,216 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.Counter;
+import danogl.util.ModifiableList;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * package-private. A spatial index over the objects of {@link Layer#STATIC_OBJECTS}.
+ * Since these objects are assumed to rarely move, the index is only rebuilt when objects
+ * are actually added to or removed from the layer, when one of them moved or was resized
+ * (which their transforms count in a shared counter), or when explicitly invalidated.
+ * Objects of other layers query it directly. The cost of colliding with the static
+ * layer therefore depends on the number of moving objects rather than on the size of the world.
+ */
+class StaticLayerIndex {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final SpatialGrid grid = new SpatialGrid(SpatialHashBroadPhase.DEFAULT_CELL_SIZE);
+    private final ObjectBounds dynamicBounds = new ObjectBounds();
+    private boolean isValid = false;
+    private int modificationCount;
+    //counts the moves and resizes of the objects, and its value when the index was built
+    private final Counter changeCounter;
+    private int changeCount;
+    private final PairQueue pairs = new PairQueue();
+    //overlapping pairs of static objects, found when the index is built
+    private long[] staticPairs = new long[INITIAL_CAPACITY];
+    private int staticPairCount;
+
+    /**
+     * @param changeCounter incremented whenever one of the static objects moves or changes size
+     *                      (see {@link danogl.components.Transform#setChangeCounter})
+     */
+    StaticLayerIndex(Counter changeCounter) {
+        this.changeCounter = changeCounter;
+    }
+
+    /**
+     * Forces a rebuild of the index on the next query, for example if static objects'
+     * colliders or collision filters changed.
+     */
+    void invalidate() {
+        isValid = false;
+    }
+
+    /**
+     * Passes to handlePair the pairs of static objects whose bounding boxes overlap.
+     * Since static objects do not move, these pairs are only searched for when the index is built.
+     * @param staticObjs the objects of the static layer
+     */
+    void findPairsWithin(ModifiableList<GameObject> staticObjs,
+                         BiConsumer<GameObject, GameObject> handlePair) {
+        updateIndex(staticObjs);
+        pairs.clear();
+        for(int i = 0 ; i < staticPairCount ; i++)
+            pairs.add(PairQueue.first(staticPairs[i]), PairQueue.second(staticPairs[i]));
+        pairs.prepareBatch(handlePair, staticObjs, staticObjs);
+
+        for(long pair = pairs.next() ; pair != PairQueue.NO_PAIR ; pair = pairs.next()) {
+            int ind1 = PairQueue.first(pair), ind2 = PairQueue.second(pair);
+            var obj1 = staticObjs.get(ind1);
+            var obj2 = staticObjs.get(ind2);
+            if(obj1 == obj2)
+                continue;
+            handlePair.accept(obj1, obj2);
+            //resolving the collision might have moved the objects into new pairs
+            if(grid.refresh(ind1, obj1))
+                addPairsOfMovedStaticObject(ind1);
+            if(grid.refresh(ind2, obj2))
+                addPairsOfMovedStaticObject(ind2);
+        }
+    }
+
+    /**
+     * Passes to handlePair the pairs of static and dynamic objects whose bounding boxes overlap.
+     * @param staticObjs the objects of the static layer
+     * @param dynamicObjs the objects of the other layer
+     * @param staticFirst whether the static object should be the first in each pair
+     *                    (that is, whether the static layer is the first in the draw order)
+     */
+    void findPairs(ModifiableList<GameObject> staticObjs, ModifiableList<GameObject> dynamicObjs,
+                   boolean staticFirst, BiConsumer<GameObject, GameObject> handlePair) {
+        updateIndex(staticObjs);
+        if(staticObjs.size() == 0 || dynamicObjs.size() == 0)
+            return;
+
+        //pairs are ordered by (static index, dynamic index) or the other way around, as the broad phases do
+        pairs.clear();
+        dynamicBounds.ensureCapacity(dynamicObjs.size());
+        for(int dynamicInd = 0 ; dynamicInd < dynamicObjs.size() ; dynamicInd++) {
+            dynamicBounds.set(dynamicInd, dynamicObjs.get(dynamicInd));
+            int candidateCount = grid.query(dynamicBounds, dynamicInd);
+            for(int i = 0 ; i < candidateCount ; i++) {
+                int staticInd = grid.candidate(i);
+                if(ObjectBounds.mayCollide(dynamicBounds, dynamicInd, grid.bounds(), staticInd))
+                    addPair(staticInd, dynamicInd, staticFirst, false);
+            }
+        }
+        pairs.sort();
+        if(staticFirst)
+            pairs.prepareBatch(handlePair, staticObjs, dynamicObjs);
+        else
+            pairs.prepareBatch(handlePair, dynamicObjs, staticObjs);
+
+        for(long pair = pairs.next() ; pair != PairQueue.NO_PAIR ; pair = pairs.next()) {
+            int staticInd = staticFirst ? PairQueue.first(pair) : PairQueue.second(pair);
+            int dynamicInd = staticFirst ? PairQueue.second(pair) : PairQueue.first(pair);
+            var staticObj = staticObjs.get(staticInd);
+            var dynamicObj = dynamicObjs.get(dynamicInd);
+            if(staticObj == dynamicObj)
+                continue;
+            if(staticFirst)
+                handlePair.accept(staticObj, dynamicObj);
+            else
+                handlePair.accept(dynamicObj, staticObj);
+
+            //resolving the collision might have moved the objects into new pairs
+            if(dynamicBounds.refresh(dynamicInd, dynamicObj)) {
+                int candidateCount = grid.query(dynamicBounds, dynamicInd);
+                for(int i = 0 ; i < candidateCount ; i++) {
+                    int otherStaticInd = grid.candidate(i);
+                    if(ObjectBounds.mayCollide(dynamicBounds, dynamicInd, grid.bounds(), otherStaticInd))
+                        addPair(otherStaticInd, dynamicInd, staticFirst, true);
+                }
+            }
+            if(grid.refresh(staticInd, staticObj)) {
+                //a static object that moves breaks the index's assumption: rebuild it next time
+                invalidate();
+                for(int otherDynamicInd = 0 ; otherDynamicInd < dynamicObjs.size() ; otherDynamicInd++) {
+                    if(ObjectBounds.mayCollide(dynamicBounds, otherDynamicInd, grid.bounds(), staticInd))
+                        addPair(staticInd, otherDynamicInd, staticFirst, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index if the static objects changed since it was built.
+     * Call before {@link #query(ObjectBounds, int)}.
+     * @param staticObjs the objects of the static layer
+     */
+    void update(ModifiableList<GameObject> staticObjs) {
+        updateIndex(staticObjs);
+    }
+
+    /**
+     * Collects the indices of the static objects that may overlap the given bounding box,
+     * as {@link SpatialGrid#query(ObjectBounds, int)} does.
+     * @return the number of candidates, which can be read using {@link #candidate(int)}
+     */
+    int query(ObjectBounds queryBounds, int queryIndex) {
+        return grid.query(queryBounds, queryIndex);
+    }
+
+    /**
+     * Returns the i'th candidate of the last query.
+     */
+    int candidate(int i) {
+        return grid.candidate(i);
+    }
+
+    /**
+     * Makes later queries find a static object that moved since the index was updated.
+     */
+    void refresh(int ind, GameObject obj) {
+        grid.refresh(ind, obj);
+    }
+
+    private void addPair(int staticInd, int dynamicInd, boolean staticFirst, boolean isLate) {
+        int first = staticFirst ? staticInd : dynamicInd;
+        int second = staticFirst ? dynamicInd : staticInd;
+        if(isLate)
+            pairs.addLate(first, second);
+        else
+            pairs.add(first, second);
+    }
+
+    private void updateIndex(ModifiableList<GameObject> staticObjs) {
+        if(isValid && modificationCount == staticObjs.modificationCount()
+                && changeCount == changeCounter.value())
+            return;
+        grid.build(staticObjs);
+        modificationCount = staticObjs.modificationCount();
+        changeCount = changeCounter.value();
+        isValid = true;
+
+        staticPairCount = 0;
+        for(int ind1 = 0 ; ind1 < grid.size() ; ind1++) {
+            int candidateCount = grid.query(grid.bounds(), ind1);
+            for(int i = 0 ; i < candidateCount ; i++) {
+                int ind2 = grid.candidate(i);
+                if(ind2 <= ind1 || !ObjectBounds.mayCollide(grid.bounds(), ind1, grid.bounds(), ind2))
+                    continue;
+                if(staticPairCount == staticPairs.length)
+                    staticPairs = Arrays.copyOf(staticPairs, staticPairCount*2);
+                staticPairs[staticPairCount++] = PairQueue.pair(ind1, ind2);
+            }
+        }
+        Arrays.sort(staticPairs, 0, staticPairCount);
+    }
+
+    //a static object moved within the static layer
+    private void addPairsOfMovedStaticObject(int ind) {
+        //a static object that moves breaks the index's assumption: rebuild it next time
+        invalidate();
+        int candidateCount = grid.query(grid.bounds(), ind);
+        for(int i = 0 ; i < candidateCount ; i++) {
+            int other = grid.candidate(i);
+            if(other != ind && ObjectBounds.mayCollide(grid.bounds(), ind, grid.bounds(), other))
+                pairs.addLate(Math.min(ind, other), Math.max(ind, other));
+        }
+    }
+}
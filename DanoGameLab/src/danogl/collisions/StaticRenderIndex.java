@@ -0,0 +1,178 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.util.Counter;
+import danogl.util.ModifiableList;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * package-private. A grid over the boxes the objects of {@link Layer#STATIC_OBJECTS} are
+ * rendered in, so that the objects in a view are found without testing every object of
+ * the layer. Like {@link StaticLayerIndex}, it is only rebuilt when objects are added to or
+ * removed from the layer, moved or resized, or when explicitly invalidated.
+ */
+class StaticRenderIndex {
+    private static final float CELL_SIZE = 128;
+    private static final int MAX_CELLS_PER_OBJECT = 64;
+    private static final int INITIAL_CAPACITY = 64;
+
+    //the indices of the objects rendered in a cell
+    private static class Cell {
+        int[] objects = new int[4];
+        int count = 0;
+    }
+
+    private final LongKeyedTable<Cell> cells = new LongKeyedTable<>();
+    //objects too large for the grid, or not in world coordinates, which are always candidates
+    private int[] overflowObjects = new int[INITIAL_CAPACITY];
+    private int overflowCount;
+    private boolean isValid = false;
+    private int modificationCount;
+    //counts the moves and resizes of the objects, and its value when the index was built
+    private final Counter changeCounter;
+    private int changeCount;
+    private int[] candidates = new int[INITIAL_CAPACITY];
+    private int[] seenStamps = new int[INITIAL_CAPACITY];
+    private int queryStamp = 0;
+
+    /**
+     * @param changeCounter incremented whenever one of the static objects moves or changes size
+     *                      (see {@link danogl.components.Transform#setChangeCounter})
+     */
+    StaticRenderIndex(Counter changeCounter) {
+        this.changeCounter = changeCounter;
+    }
+
+    /**
+     * Forces a rebuild of the index on the next query, for example if static objects are
+     * now rendered at a different angle.
+     */
+    void invalidate() {
+        isValid = false;
+    }
+
+    /**
+     * Passes to action the objects that may be visible in the culler's view, in order.
+     * @return the number of objects that were not passed
+     */
+    int forEachInView(ModifiableList<GameObject> objs, ViewCuller culler,
+                      Consumer<? super GameObject> action) {
+        updateIndex(objs, culler);
+        int minCellX = cell(culler.viewMinX()), maxCellX = cell(culler.viewMaxX());
+        int minCellY = cell(culler.viewMinY()), maxCellY = cell(culler.viewMaxY());
+        //a view of more cells than objects is cheaper to go over object by object
+        if((long)(maxCellX - minCellX + 1)*(maxCellY - minCellY + 1) > objs.size())
+            return forEachInViewLinearly(objs, culler, action);
+
+        if(++queryStamp == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamps, 0);
+            queryStamp = 1;
+        }
+        int count = 0;
+        for(int i = 0 ; i < overflowCount ; i++) {
+            seenStamps[overflowObjects[i]] = queryStamp;
+            candidates[count++] = overflowObjects[i];
+        }
+        for(int cellY = minCellY ; cellY <= maxCellY ; cellY++) {
+            for(int cellX = minCellX ; cellX <= maxCellX ; cellX++) {
+                var cell = cells.get(key(cellX, cellY));
+                if(cell == null)
+                    continue;
+                for(int i = 0 ; i < cell.count ; i++) {
+                    int ind = cell.objects[i];
+                    if(seenStamps[ind] == queryStamp)
+                        continue;
+                    seenStamps[ind] = queryStamp;
+                    candidates[count++] = ind;
+                }
+            }
+        }
+        //in drawing order
+        Arrays.sort(candidates, 0, count);
+        int passed = 0;
+        for(int i = 0 ; i < count ; i++) {
+            var obj = objs.get(candidates[i]);
+            if(culler.isVisible(obj)) {
+                action.accept(obj);
+                passed++;
+            }
+        }
+        return objs.size() - passed;
+    }
+
+    private static int forEachInViewLinearly(ModifiableList<GameObject> objs, ViewCuller culler,
+                                             Consumer<? super GameObject> action) {
+        int culled = 0;
+        for(int i = 0 ; i < objs.size() ; i++) {
+            var obj = objs.get(i);
+            if(culler.isVisible(obj))
+                action.accept(obj);
+            else
+                culled++;
+        }
+        return culled;
+    }
+
+    private void updateIndex(ModifiableList<GameObject> objs, ViewCuller culler) {
+        if(isValid && modificationCount == objs.modificationCount()
+                && changeCount == changeCounter.value())
+            return;
+        cells.clear();
+        overflowCount = 0;
+        int size = objs.size();
+        if(candidates.length < size) {
+            candidates = new int[Math.max(size, candidates.length*2)];
+            seenStamps = new int[candidates.length];
+            queryStamp = 0;
+        }
+        for(int ind = 0 ; ind < size ; ind++) {
+            var obj = objs.get(ind);
+            if(obj.getCoordinateSpace() != CoordinateSpace.WORLD_COORDINATES) {
+                addToOverflow(ind);
+                continue;
+            }
+            culler.computeBounds(obj, 1);
+            int minCellX = cell(culler.minX), maxCellX = cell(culler.maxX);
+            int minCellY = cell(culler.minY), maxCellY = cell(culler.maxY);
+            if((long)(maxCellX - minCellX + 1)*(maxCellY - minCellY + 1) > MAX_CELLS_PER_OBJECT) {
+                addToOverflow(ind);
+                continue;
+            }
+            for(int cellY = minCellY ; cellY <= maxCellY ; cellY++) {
+                for(int cellX = minCellX ; cellX <= maxCellX ; cellX++)
+                    insert(key(cellX, cellY), ind);
+            }
+        }
+        modificationCount = objs.modificationCount();
+        changeCount = changeCounter.value();
+        isValid = true;
+    }
+
+    private void insert(long key, int ind) {
+        var cell = cells.get(key);
+        if(cell == null) {
+            cell = new Cell();
+            cells.put(key, cell);
+        }
+        if(cell.count == cell.objects.length)
+            cell.objects = Arrays.copyOf(cell.objects, cell.count*2);
+        cell.objects[cell.count++] = ind;
+    }
+
+    private void addToOverflow(int ind) {
+        if(overflowCount == overflowObjects.length)
+            overflowObjects = Arrays.copyOf(overflowObjects, overflowCount*2);
+        overflowObjects[overflowCount++] = ind;
+    }
+
+    private static int cell(float coordinate) {
+        return (int)Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long)cellX << 32) | (cellY & 0xffffffffL);
+    }
+}
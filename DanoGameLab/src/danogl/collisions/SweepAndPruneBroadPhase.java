@@ -0,0 +1,304 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * A sort-and-sweep broad phase. For every layer it keeps the layer's objects sorted
+ * by the left edge of their bounding boxes, and pairs only objects whose extents
+ * overlap along the x-axis (and then along the y-axis).
+ * <br>The sorted order is kept between frames and re-sorted with insertion sort, which
+ * is nearly linear since objects typically move only a little between frames. This makes
+ * the broad phase especially suitable for wide horizontal worlds, such as side-scrollers.
+ * <br>The bounding boxes are read and sorted once per frame (see {@link #onFrameStart()}).
+ * Later in the same frame, only objects whose transform changed since are re-read, and
+ * moved to their place in the order.
+ */
+public class SweepAndPruneBroadPhase implements BroadPhase {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The objects of a single layer, sorted along the x-axis.
+     */
+    private static class AxisList {
+        private final ObjectBounds bounds = new ObjectBounds();
+        //the indices of the objects sorted by minX, and the position of each index in it
+        private int[] order = new int[INITIAL_CAPACITY];
+        private int[] positions = new int[INITIAL_CAPACITY];
+        //the transform version of each object when its bounds were read
+        private int[] versions = new int[INITIAL_CAPACITY];
+        private long[] sortBuffer = new long[INITIAL_CAPACITY];
+        //the width of the widest bounded box, which limits how far a box can reach to the right
+        private float maxWidth;
+        private int size = 0;
+        private int modificationCount;
+        private int frameOfLastUpdate = -1;
+
+        void update(ModifiableList<GameObject> objs, int frame) {
+            if(size != objs.size() || modificationCount != objs.modificationCount()) {
+                //indices are no longer valid: re-sort from scratch
+                modificationCount = objs.modificationCount();
+                size = objs.size();
+                frameOfLastUpdate = frame;
+                ensureCapacity(size);
+                readAllBounds(objs);
+                sortFromScratch();
+                updatePositions();
+            }
+            else if(frameOfLastUpdate != frame) {
+                frameOfLastUpdate = frame;
+                readAllBounds(objs);
+                insertionSort();
+                updatePositions();
+            }
+            else {
+                //objects moved since the last update, e.g. while resolving other layers' collisions
+                for(int ind = 0 ; ind < size ; ind++) {
+                    var obj = objs.get(ind);
+                    if(versions[ind] != obj.transform().getVersion())
+                        refresh(ind, obj);
+                }
+            }
+        }
+
+        /**
+         * Re-reads the bounds of an object, and moves it to its place in the order.
+         * @return whether its bounds changed.
+         */
+        boolean refresh(int ind, GameObject obj) {
+            versions[ind] = obj.transform().getVersion();
+            if(!bounds.refresh(ind, obj))
+                return false;
+            includeInMaxWidth(ind);
+            float key = bounds.minX[ind];
+            int position = positions[ind];
+            while(position > 0 && bounds.minX[order[position-1]] > key) {
+                order[position] = order[position-1];
+                positions[order[position]] = position;
+                position--;
+            }
+            while(position < size-1 && bounds.minX[order[position+1]] < key) {
+                order[position] = order[position+1];
+                positions[order[position]] = position;
+                position++;
+            }
+            order[position] = ind;
+            positions[ind] = position;
+            return true;
+        }
+
+        /**
+         * Calls addPair with the index of every object whose box overlaps the given box,
+         * using the order to look only at objects that may reach it along the x-axis.
+         */
+        void forEachOverlapping(ObjectBounds queryBounds, int queryInd, IntConsumer addPair) {
+            if(queryBounds.isEmpty(queryInd))
+                return;
+            float queryMinX = queryBounds.minX[queryInd], queryMaxX = queryBounds.maxX[queryInd];
+            //the first position whose box starts to the right of the query box
+            int low = 0, high = size;
+            while(low < high) {
+                int mid = (low + high) >>> 1;
+                if(bounds.minX[order[mid]] <= queryMaxX)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            //boxes that start too far to the left cannot reach the query box
+            float leftmostStart = queryMinX - maxWidth;
+            int position = low - 1;
+            for( ; position >= 0 ; position--) {
+                int ind = order[position];
+                if(bounds.minX[ind] < leftmostStart)
+                    break;
+                if(ObjectBounds.mayCollide(queryBounds, queryInd, bounds, ind))
+                    addPair.accept(ind);
+            }
+            //except for unbounded ones, which are first in the order
+            for(int i = 0 ; i <= position && bounds.minX[order[i]] == Float.NEGATIVE_INFINITY ; i++) {
+                if(ObjectBounds.mayCollide(queryBounds, queryInd, bounds, order[i]))
+                    addPair.accept(order[i]);
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            bounds.ensureCapacity(capacity);
+            if(order.length >= capacity)
+                return;
+            int newCapacity = Math.max(capacity, order.length*2);
+            order = new int[newCapacity];
+            positions = new int[newCapacity];
+            versions = new int[newCapacity];
+            sortBuffer = new long[newCapacity];
+        }
+
+        private void readAllBounds(ModifiableList<GameObject> objs) {
+            maxWidth = 0;
+            for(int ind = 0 ; ind < size ; ind++) {
+                var obj = objs.get(ind);
+                versions[ind] = obj.transform().getVersion();
+                bounds.set(ind, obj);
+                includeInMaxWidth(ind);
+            }
+        }
+
+        private void includeInMaxWidth(int ind) {
+            if(bounds.isBounded[ind] && !bounds.isEmpty(ind))
+                maxWidth = Math.max(maxWidth, bounds.maxX[ind] - bounds.minX[ind]);
+        }
+
+        private void insertionSort() {
+            float[] minX = bounds.minX;
+            for(int i = 1 ; i < size ; i++) {
+                int ind = order[i];
+                float key = minX[ind];
+                int j = i - 1;
+                while(j >= 0 && minX[order[j]] > key) {
+                    order[j+1] = order[j];
+                    j--;
+                }
+                order[j+1] = ind;
+            }
+        }
+
+        private void sortFromScratch() {
+            //sort (minX, index) pairs packed into longs, so no boxing is required
+            for(int ind = 0 ; ind < size ; ind++)
+                sortBuffer[ind] = ((long)sortableBits(bounds.minX[ind]) << 32) | ind;
+            Arrays.sort(sortBuffer, 0, size);
+            for(int i = 0 ; i < size ; i++)
+                order[i] = (int)sortBuffer[i];
+        }
+
+        private void updatePositions() {
+            for(int i = 0 ; i < size ; i++)
+                positions[order[i]] = i;
+        }
+
+        private static int sortableBits(float value) {
+            int bits = Float.floatToIntBits(value);
+            return bits >= 0 ? bits : bits ^ Integer.MAX_VALUE;
+        }
+    }
+
+    private final Map<ModifiableList<GameObject>, AxisList> axisLists = new IdentityHashMap<>();
+    private final PairQueue pairs = new PairQueue();
+    private int frame = 0;
+    //the pair being handled, for the callbacks that add the pairs of a moved object
+    private int movedInd;
+    private final IntConsumer addLatePairWithMovedFirst = other -> pairs.addLate(movedInd, other);
+    private final IntConsumer addLatePairWithMovedSecond = other -> pairs.addLate(other, movedInd);
+    private final IntConsumer addLatePairInSameLayer = other -> {
+        if(other != movedInd)
+            pairs.addLate(Math.min(movedInd, other), Math.max(movedInd, other));
+    };
+
+    @Override
+    public void onFrameStart() {
+        frame++;
+    }
+
+    @Override
+    public void findPairs(ModifiableList<GameObject> layerObjs1,
+                          ModifiableList<GameObject> layerObjs2,
+                          BiConsumer<GameObject, GameObject> handlePair) {
+        var axisList1 = axisListOf(layerObjs1);
+        var axisList2 = axisListOf(layerObjs2);
+        boolean sameLayer = axisList1 == axisList2;
+        pairs.clear();
+        if(sameLayer)
+            sweep(axisList1);
+        else
+            sweep(axisList1, axisList2);
+        //pass on the pairs ordered by indices, as the other broad phases do
+        pairs.sort();
+        pairs.prepareBatch(handlePair, layerObjs1, layerObjs2);
+
+        for(long pair = pairs.next() ; pair != PairQueue.NO_PAIR ; pair = pairs.next()) {
+            int ind1 = PairQueue.first(pair), ind2 = PairQueue.second(pair);
+            var obj1 = layerObjs1.get(ind1);
+            var obj2 = layerObjs2.get(ind2);
+            if(obj1 == obj2)
+                continue;
+            handlePair.accept(obj1, obj2);
+            //resolving the collision might have moved the objects into new pairs
+            if(axisList1.refresh(ind1, obj1)) {
+                movedInd = ind1;
+                axisList2.forEachOverlapping(axisList1.bounds, ind1,
+                        sameLayer ? addLatePairInSameLayer : addLatePairWithMovedFirst);
+            }
+            if(axisList2.refresh(ind2, obj2)) {
+                movedInd = ind2;
+                axisList1.forEachOverlapping(axisList2.bounds, ind2,
+                        sameLayer ? addLatePairInSameLayer : addLatePairWithMovedSecond);
+            }
+        }
+    }
+
+    private AxisList axisListOf(ModifiableList<GameObject> objs) {
+        var axisList = axisLists.get(objs);
+        if(axisList == null) {
+            axisList = new AxisList();
+            axisLists.put(objs, axisList);
+        }
+        axisList.update(objs, frame);
+        return axisList;
+    }
+
+    private void sweep(AxisList axisList) {
+        var bounds = axisList.bounds;
+        for(int i = 0 ; i < axisList.size ; i++) {
+            int ind1 = axisList.order[i];
+            for(int j = i + 1 ; j < axisList.size ; j++) {
+                int ind2 = axisList.order[j];
+                if(bounds.minX[ind2] > bounds.maxX[ind1])
+                    break;
+                if(overlapAlongY(bounds, ind1, bounds, ind2) && ObjectBounds.filtersAllow(bounds, ind1, bounds, ind2))
+                    pairs.add(Math.min(ind1, ind2), Math.max(ind1, ind2));
+            }
+        }
+    }
+
+    private void sweep(AxisList axisList1, AxisList axisList2) {
+        var bounds1 = axisList1.bounds;
+        var bounds2 = axisList2.bounds;
+        int i = 0, j = 0;
+        while(i < axisList1.size && j < axisList2.size) {
+            int ind1 = axisList1.order[i];
+            int ind2 = axisList2.order[j];
+            if(bounds1.minX[ind1] <= bounds2.minX[ind2]) {
+                //ind1 starts first: pair it with all of list2 that start within its extent
+                for(int k = j ; k < axisList2.size ; k++) {
+                    int other = axisList2.order[k];
+                    if(bounds2.minX[other] > bounds1.maxX[ind1])
+                        break;
+                    if(overlapAlongY(bounds1, ind1, bounds2, other)
+                            && ObjectBounds.filtersAllow(bounds1, ind1, bounds2, other))
+                        pairs.add(ind1, other);
+                }
+                i++;
+            }
+            else {
+                for(int k = i ; k < axisList1.size ; k++) {
+                    int other = axisList1.order[k];
+                    if(bounds1.minX[other] > bounds2.maxX[ind2])
+                        break;
+                    if(overlapAlongY(bounds1, other, bounds2, ind2)
+                            && ObjectBounds.filtersAllow(bounds1, other, bounds2, ind2))
+                        pairs.add(other, ind2);
+                }
+                j++;
+            }
+        }
+    }
+
+    private static boolean overlapAlongY(ObjectBounds bounds1, int ind1, ObjectBounds bounds2, int ind2) {
+        return bounds1.minY[ind1] <= bounds2.maxY[ind2] && bounds2.minY[ind2] <= bounds1.maxY[ind1];
+    }
+}
@@ -0,0 +1,69 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+
+/**
+ * package-private. Decides which objects may be visible in a view of the world:
+ * an object is visible if the box it is rendered in overlaps the view. Rotated objects are
+ * assumed to be rendered anywhere within the circle around their box, and objects in camera
+ * coordinates are always visible.
+ */
+class ViewCuller {
+    private float viewMinX, viewMinY, viewMaxX, viewMaxY;
+    private float alpha = 1;
+    //the bounds computed by the last call to computeBounds
+    float minX, minY, maxX, maxY;
+
+    /**
+     * Sets the view, in world coordinates.
+     * @param alpha where the objects are rendered between their positions before the last
+     *              update (0) and their current positions (1)
+     */
+    void setView(float minX, float minY, float maxX, float maxY, float alpha) {
+        viewMinX = minX;
+        viewMinY = minY;
+        viewMaxX = maxX;
+        viewMaxY = maxY;
+        this.alpha = alpha;
+    }
+
+    float viewMinX() { return viewMinX; }
+    float viewMinY() { return viewMinY; }
+    float viewMaxX() { return viewMaxX; }
+    float viewMaxY() { return viewMaxY; }
+
+    /**
+     * Returns false only for objects that are certainly outside the view.
+     */
+    boolean isVisible(GameObject obj) {
+        if(obj.getCoordinateSpace() != CoordinateSpace.WORLD_COORDINATES)
+            return true;
+        computeBounds(obj, alpha);
+        return minX <= viewMaxX && viewMinX <= maxX && minY <= viewMaxY && viewMinY <= maxY;
+    }
+
+    /**
+     * Computes into minX, minY, maxX, maxY the world-space box the object is rendered in,
+     * at the given interpolation between its previous and current positions.
+     */
+    void computeBounds(GameObject obj, float alpha) {
+        var corner = alpha >= 1 ? obj.getTopLeftCorner()
+                : obj.transform().getInterpolatedTopLeftCorner(alpha);
+        float x = corner.x(), y = corner.y();
+        var dimensions = obj.getDimensions();
+        float width = dimensions.x(), height = dimensions.y();
+        minX = Math.min(x, x + width);
+        maxX = Math.max(x, x + width);
+        minY = Math.min(y, y + height);
+        maxY = Math.max(y, y + height);
+        if(obj.renderer().getRenderableAngle() != 0) {
+            float centerX = (minX + maxX)/2, centerY = (minY + maxY)/2;
+            float radius = (float)Math.sqrt(width*width + height*height)/2;
+            minX = centerX - radius;
+            maxX = centerX + radius;
+            minY = centerY - radius;
+            maxY = centerY + radius;
+        }
+    }
+}
@@ -16,9 +16,37 @@ public class GameObjectPhysics {
      */
     public static final float IMMOVABLE_MASS = Float.MAX_VALUE;
 
+    /**
+     * The number of consecutive frames in which an object must not move
+     * before it falls asleep (see {@link #isAsleep()}).
+     */
+    public static final int FRAMES_AT_REST_BEFORE_SLEEP = 30;
+
+    /**
+     * The collision category objects belong to by default.
+     * @see #setCollisionFilter(int, int)
+     */
+    public static final int DEFAULT_COLLISION_CATEGORY = 1;
+
+    /**
+     * A collision mask that includes all categories, which is the default mask.
+     * @see #setCollisionFilter(int, int)
+     */
+    public static final int ALL_COLLISION_CATEGORIES = ~0;
+
     private Collider collider;
     private Vector2 dirToPrevent = null;
     private float mass = 1f;
+    private boolean canSleep = true;
+    private boolean isContinuous = false;
+    private int collisionCategories = DEFAULT_COLLISION_CATEGORY;
+    private int collisionMask = ALL_COLLISION_CATEGORIES;
+    private boolean isAsleep = false;
+    //the frame of the last call to updateSleepState, and the last frame in which the object was active
+    private int sleepStateFrame, lastActiveFrame;
+    private boolean hasSleepState = false;
+    //the transform's version in the last call to updateSleepState
+    private int restVersion;
 
     /**
      * Returns the object's collider
@@ -32,6 +60,7 @@ public class GameObjectPhysics {
      */
     public void setCollider(Collider collider) {
         this.collider = collider;
+        wakeUp();
     }
 
     /**
@@ -67,4 +96,139 @@ public class GameObjectPhysics {
     public void setMass(float mass) {
         this.mass = mass;
     }
+
+    /**
+     * Returns whether the object's collisions are detected continuously.
+     * @see #setContinuousCollisionDetection(boolean)
+     */
+    public boolean isContinuousCollisionDetectionEnabled() {
+        return isContinuous;
+    }
+
+    /**
+     * Sets whether the object's collisions should be detected continuously, which is disabled
+     * by default. Normally, collisions are only detected between objects that intersect after
+     * they moved, so a small and fast object might pass through a thin object in a single frame
+     * without colliding with it. When continuous detection is enabled, the engine sweeps
+     * the object's box along its last displacement (see {@link Transform#getLastDisplacement()}),
+     * and if it passes through an object it should collide with, the object is moved back to
+     * where it first hits that object, so that the collision is detected as usual.
+     * <br>The other objects are treated as if they did not move, and only AABB colliders are swept.
+     * Since this has a cost, it's intended for a few fast objects such as balls or projectiles.
+     */
+    public void setContinuousCollisionDetection(boolean isContinuous) {
+        this.isContinuous = isContinuous;
+    }
+
+    /**
+     * Returns the bitmask of the collision categories the object belongs to.
+     * @see #setCollisionFilter(int, int)
+     */
+    public int getCollisionCategories() {
+        return collisionCategories;
+    }
+
+    /**
+     * Returns the bitmask of the collision categories the object collides with.
+     * @see #setCollisionFilter(int, int)
+     */
+    public int getCollisionMask() {
+        return collisionMask;
+    }
+
+    /**
+     * Sets which collision categories the object belongs to, and which categories it collides
+     * with, each as a bitmask of up to 32 categories. Two objects can only collide if each of them
+     * belongs to a category the other collides with. By default, objects belong to
+     * {@link #DEFAULT_COLLISION_CATEGORY} and collide with {@link #ALL_COLLISION_CATEGORIES}.
+     * <br>The filter is checked by the broad phase before a pair is ever passed on, and is much
+     * cheaper than GameObject.shouldCollideWith, which is only invoked for pairs that pass it.
+     * An object whose categories or mask are 0 never collides, and is left out of
+     * the collision detection altogether.
+     * <br>Changes made during collision handling take effect in the next frame.
+     */
+    public void setCollisionFilter(int categories, int mask) {
+        this.collisionCategories = categories;
+        this.collisionMask = mask;
+    }
+
+    /**
+     * Can the object collide with any object at all, according to its collision filter.
+     * @see #setCollisionFilter(int, int)
+     */
+    public boolean collidesWithAnything() {
+        return collisionCategories != 0 && collisionMask != 0;
+    }
+
+    /**
+     * Do the collision filters of this object and another allow them to collide.
+     * @see #setCollisionFilter(int, int)
+     */
+    public boolean collisionFilterAllows(GameObjectPhysics other) {
+        return (collisionCategories & other.collisionMask) != 0
+                && (other.collisionCategories & collisionMask) != 0;
+    }
+
+    /**
+     * Is the object asleep: it hasn't moved, and had no velocity or acceleration, for the last
+     * {@link #FRAMES_AT_REST_BEFORE_SLEEP} frames. The collision detection skips
+     * pairs of sleeping objects, since nothing about them could have changed.
+     * A sleeping object wakes up once it moves, or when it collides with an object that is awake.
+     * The state is only updated for objects that are checked for collisions
+     * (see {@link #updateSleepState(Transform, int)}), so other objects never fall asleep.
+     */
+    public boolean isAsleep() {
+        return isAsleep;
+    }
+
+    /**
+     * Wakes the object up if it's asleep, and resets the count of frames in which it was at rest.
+     * Normally there's no need to call this method, since objects wake up when moved.
+     */
+    public void wakeUp() {
+        isAsleep = false;
+        lastActiveFrame = sleepStateFrame;
+    }
+
+    /**
+     * Returns whether the object is allowed to fall asleep.
+     * @see #isAsleep()
+     */
+    public boolean canSleep() {
+        return canSleep;
+    }
+
+    /**
+     * Sets whether the object is allowed to fall asleep. The default is true.
+     * Disallowing sleep may be needed if the object is moved in ways that
+     * the engine cannot detect, such as by changing the rectangle of its collider.
+     * @see #isAsleep()
+     */
+    public void setCanSleep(boolean canSleep) {
+        this.canSleep = canSleep;
+        wakeUp();
+    }
+
+    /**
+     * Updates whether the object is asleep, as of the given frame. It only has to be called
+     * in frames in which the object's sleep state matters (such as when it is checked for
+     * collisions), since a transform whose version did not change has not moved in between.
+     * Further calls with the same frame have no effect.
+     * @param transform the transform of the object
+     * @param frame the number of the current frame, which increases by one every frame
+     */
+    public void updateSleepState(Transform transform, int frame) {
+        if(hasSleepState && frame == sleepStateFrame)
+            return;
+        boolean isActive = !hasSleepState || !canSleep
+                || transform.getVersion() != restVersion
+                || !transform.getVelocity().isZero()
+                || !transform.getAcceleration().isZero();
+        hasSleepState = true;
+        sleepStateFrame = frame;
+        restVersion = transform.getVersion();
+        if(isActive)
+            lastActiveFrame = frame;
+        isAsleep = frame - lastActiveFrame >= FRAMES_AT_REST_BEFORE_SLEEP;
+    }
 }
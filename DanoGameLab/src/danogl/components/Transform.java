@@ -1,5 +1,6 @@
 package danogl.components;
 
+import danogl.util.Counter;
 import danogl.util.MutableVector2;
 import danogl.util.Vector2;
 
@@ -15,8 +16,20 @@ public class Transform implements Component {
     private MutableVector2 velocityToApply = new MutableVector2(Vector2.ZERO);
     private MutableVector2 acceleration = new MutableVector2(Vector2.ZERO);
     private boolean isAccelerationEnabled = true;
-
-    private static MutableVector2 freeComputationVector = new MutableVector2();
+    private MutableVector2 lastDisplacement = new MutableVector2(Vector2.ZERO);
+    //the position saved before the last fixed-timestep update, a position between it and
+    //the current one, and the current one while the transform is placed at an interpolated
+    //position for rendering; created when first used
+    private MutableVector2 previousTopLeftCorner, interpolatedTopLeftCorner, actualTopLeftCorner;
+    private boolean isInterpolating = false;
+    private int version;
+    //incremented along with the version, if set
+    private Counter changeCounter;
+    private boolean isIntegratedInBulk = true;
+    //the world that stores this transform's motion, if any, and the transform's slot in it.
+    //while in a world, the vectors of the motion only return the values read from its arrays
+    private TransformWorld world;
+    private int worldSlot = -1;
 
     /**
      * Construct a new Transform. Normally called by the GameObject's constructor.
@@ -30,6 +43,8 @@ public class Transform implements Component {
      * Returns the GameObject's top-left corner
      */
     public Vector2 getTopLeftCorner() {
+        if(world != null)
+            topLeftCorner.setXY(world.x[worldSlot], world.y[worldSlot]);
         return topLeftCorner;
     }
 
@@ -37,14 +52,14 @@ public class Transform implements Component {
      * Set the position of the object's top-left corner
      */
     public void setTopLeftCorner(Vector2 topLeftCorner) {
-        this.topLeftCorner.setXY(topLeftCorner);
+        reposition(topLeftCorner.x(), topLeftCorner.y());
     }
 
     /**
      * Set the position of the object's top-left corner
      */
     public void setTopLeftCorner(float x, float y) {
-        this.topLeftCorner.setXY(x, y);
+        reposition(x, y);
     }
 
     /**
@@ -69,6 +84,8 @@ public class Transform implements Component {
                     "Dimensions must be non-negative. "+
                             "To flip image, see setIsflippedHorizontally()/setIsflippedVertically()");
         var oldCenter = getCenter();
+        if(x != dimensions.x() || y != dimensions.y())
+            changed();
         this.dimensions.setXY(x, y);
         setCenter(oldCenter);
     }
@@ -77,6 +94,8 @@ public class Transform implements Component {
      * Returns the object's velocity
      */
     public Vector2 getVelocity() {
+        if(world != null)
+            velocity.setXY(world.velocityX[worldSlot], world.velocityY[worldSlot]);
         return velocity;
     }
 
@@ -84,21 +103,21 @@ public class Transform implements Component {
      * Set the object's velocity
      */
     public void setVelocity(Vector2 velocity) {
-        this.velocity.setXY(velocity);
+        setVelocity(velocity.x(), velocity.y());
     }
 
     /**
      * Set the x-coordinate of the left side of the object
      */
     public void setTopLeftCornerX(float x) {
-        topLeftCorner.setX(x);
+        reposition(x, getTopLeftCorner().y());
     }
 
     /**
      * Set the y-coordinate of the top side of the object
      */
     public void setTopLeftCornerY(float y) {
-        topLeftCorner.setY(y);
+        reposition(getTopLeftCorner().x(), y);
     }
 
     /**
@@ -119,21 +138,26 @@ public class Transform implements Component {
      * Set the object's velocity
      */
     public void setVelocity(float x, float y) {
-        this.velocity.setXY(x, y);
+        if(world == null)
+            velocity.setXY(x, y);
+        else {
+            world.velocityX[worldSlot] = x;
+            world.velocityY[worldSlot] = y;
+        }
     }
 
     /**
      * Set the object's x-velocity
      */
     public void setVelocityX(float x) {
-        velocity.setX(x);
+        setVelocity(x, getVelocity().y());
     }
 
     /**
      * Set the object's y-velocity
      */
     public void setVelocityY(float y) {
-        velocity.setY(y);
+        setVelocity(getVelocity().x(), y);
     }
 
     /**
@@ -148,9 +172,7 @@ public class Transform implements Component {
      * Reposition the object by its center
      */
     public void setCenter(Vector2 center) {
-        freeComputationVector.setXY(dimensions);
-        freeComputationVector.selfMult(-0.5f).selfAdd(center);
-        topLeftCorner.setXY(freeComputationVector);
+        reposition(-0.5f*dimensions.x() + center.x(), -0.5f*dimensions.y() + center.y());
     }
 
     /**
@@ -165,20 +187,22 @@ public class Transform implements Component {
      * Reposition the center's x-position
      */
     public void setCenterX(float x) {
-        topLeftCorner.setX(x-0.5f*dimensions.x());
+        reposition(x-0.5f*dimensions.x(), getTopLeftCorner().y());
     }
 
     /**
      * Reposition the center's y-position
      */
     public void setCenterY(float y) {
-        topLeftCorner.setY(y-0.5f*dimensions.y());
+        reposition(getTopLeftCorner().x(), y-0.5f*dimensions.y());
     }
 
     /**
      * Returns the object's acceleration
      */
     public Vector2 getAcceleration() {
+        if(world != null)
+            acceleration.setXY(world.accelerationX[worldSlot], world.accelerationY[worldSlot]);
         return acceleration;
     }
 
@@ -186,31 +210,46 @@ public class Transform implements Component {
      * Sets the object's acceleration
      */
     public void setAcceleration(Vector2 acceleration) {
-        this.acceleration.setXY(acceleration);
+        setAcceleration(acceleration.x(), acceleration.y());
     }
 
     /**
      * Sets the object's acceleration
      */    public void setAcceleration(float x, float y) {
-        this.acceleration.setXY(x, y);
+        if(world == null)
+            acceleration.setXY(x, y);
+        else {
+            world.accelerationX[worldSlot] = x;
+            world.accelerationY[worldSlot] = y;
+        }
     }
 
     /**
      * Sets the object's x-acceleration
      */
     public void setAccelerationX(float x) {
-        this.acceleration.setX(x);
+        setAcceleration(x, getAcceleration().y());
     }
 
     /**
      * Sets the object's y-acceleration
      */
     public void setAccelerationY(float y) {
-        this.acceleration.setY(y);
+        setAcceleration(getAcceleration().x(), y);
     }
 
+    /**
+     * Integrates the object's velocity and acceleration.
+     * If the transform is in a {@link TransformWorld}, its values there are integrated instead,
+     * unless the world already integrated it in bulk (see {@link #setIntegratedInBulk(boolean)}).
+     */
     @Override
     public void update(float deltaTime) {
+        if(world != null) {
+            if(!world.isIntegratedInBulk[worldSlot] && world.integrate(worldSlot, deltaTime))
+                changed();
+            return;
+        }
         if(!acceleration.equals(Vector2.ZERO) && isAccelerationEnabled) {
             velocity.setXY(
                     velocity.x() + acceleration.x() * deltaTime,
@@ -220,23 +259,238 @@ public class Transform implements Component {
         }
         if(!velocityToApply.isZero()) {
             velocityToApply.selfMult(deltaTime);
+            float oldX = topLeftCorner.x(), oldY = topLeftCorner.y();
             topLeftCorner.selfAdd(velocityToApply);
+            if(oldX != topLeftCorner.x() || oldY != topLeftCorner.y())
+                changed();
         }
+        lastDisplacement.setXY(velocityToApply);
         velocityToApply.setXY(velocity);
     }
 
+    /**
+     * Returns how much the object moved in the last call to update due to its velocity.
+     * The displacement is zero if the object has since been repositioned directly
+     * (for example using setTopLeftCorner or setCenter).
+     */
+    public Vector2 getLastDisplacement() {
+        if(world != null)
+            lastDisplacement.setXY(world.lastDisplacementX[worldSlot], world.lastDisplacementY[worldSlot]);
+        return lastDisplacement;
+    }
+
+    //moves the top-left corner directly, rather than by the velocity
+    private void reposition(float x, float y) {
+        var oldTopLeftCorner = getTopLeftCorner();
+        if(x != oldTopLeftCorner.x() || y != oldTopLeftCorner.y())
+            changed();
+        setPosition(x, y);
+        if(world == null)
+            lastDisplacement.setXY(0, 0);
+        else
+            world.lastDisplacementX[worldSlot] = world.lastDisplacementY[worldSlot] = 0;
+    }
+
+    //sets the top-left corner, without counting it as a change
+    private void setPosition(float x, float y) {
+        if(world == null)
+            topLeftCorner.setXY(x, y);
+        else {
+            world.x[worldSlot] = x;
+            world.y[worldSlot] = y;
+        }
+    }
+
+    /**
+     * Remembers the object's current position, so that it can later be rendered between
+     * that position and the one it moves to. Called by the fixed-timestep game loop before
+     * each update.
+     * @see #getInterpolatedTopLeftCorner(float)
+     */
+    public void savePreviousTopLeftCorner() {
+        if(previousTopLeftCorner == null) {
+            previousTopLeftCorner = new MutableVector2();
+            interpolatedTopLeftCorner = new MutableVector2();
+            actualTopLeftCorner = new MutableVector2();
+        }
+        previousTopLeftCorner.setXY(isInterpolating ? actualTopLeftCorner : getTopLeftCorner());
+    }
+
+    /**
+     * Returns a position between the one saved by {@link #savePreviousTopLeftCorner()} and
+     * the current one. The returned vector is reused by the next call.
+     * @param alpha 0 for the saved position, 1 for the current position.
+     *              If no position was saved, the current position is returned.
+     */
+    public Vector2 getInterpolatedTopLeftCorner(float alpha) {
+        var topLeftCorner = getTopLeftCorner();
+        if(previousTopLeftCorner == null || alpha >= 1)
+            return topLeftCorner;
+        interpolatedTopLeftCorner.setXY(
+                previousTopLeftCorner.x() + alpha*(topLeftCorner.x() - previousTopLeftCorner.x()),
+                previousTopLeftCorner.y() + alpha*(topLeftCorner.y() - previousTopLeftCorner.y()));
+        return interpolatedTopLeftCorner;
+    }
+
+    /**
+     * Places the object at {@link #getInterpolatedTopLeftCorner(float)} until
+     * {@link #endInterpolation()}, so that it can be rendered there. This does not count as
+     * moving the object: its version and velocity are unaffected, and endInterpolation puts it
+     * back exactly where it was. Should only be called while rendering.
+     * @return whether the object was placed, which is false if it is already placed at an
+     * interpolated position, if no position was saved, or if alpha is 1 or more; endInterpolation
+     * should only be called if it was.
+     */
+    public boolean beginInterpolation(float alpha) {
+        if(isInterpolating || previousTopLeftCorner == null || alpha >= 1)
+            return false;
+        actualTopLeftCorner.setXY(getTopLeftCorner());
+        var interpolated = getInterpolatedTopLeftCorner(alpha);
+        setPosition(interpolated.x(), interpolated.y());
+        isInterpolating = true;
+        return true;
+    }
+
+    /**
+     * Puts the object back at its position from before {@link #beginInterpolation(float)}.
+     */
+    public void endInterpolation() {
+        if(!isInterpolating)
+            return;
+        isInterpolating = false;
+        setPosition(actualTopLeftCorner.x(), actualTopLeftCorner.y());
+    }
+
+    /**
+     * A number that changes whenever the object's position or dimensions change,
+     * so that a change can be detected without comparing the values themselves.
+     */
+    public int getVersion() {
+        return world == null ? version : world.versions[worldSlot];
+    }
+
+    /**
+     * Sets a counter to increment whenever this transform's version changes. Sharing a counter
+     * among transforms tells whether any of them moved or changed size, without going over them.
+     * A transform has a single such counter; the collection that its object is added to sets it
+     * if the object is in {@link danogl.collisions.Layer#STATIC_OBJECTS}.
+     * @param changeCounter the counter, or null for none
+     */
+    public void setChangeCounter(Counter changeCounter) {
+        this.changeCounter = changeCounter;
+        pushIntegratedInBulk();
+    }
+
+    /**
+     * Returns the counter set using {@link #setChangeCounter(Counter)}, or null if none is set.
+     */
+    public Counter getChangeCounter() {
+        return changeCounter;
+    }
+
+    private void changed() {
+        if(world == null)
+            version++;
+        else
+            world.versions[worldSlot]++;
+        if(changeCounter != null)
+            changeCounter.increment();
+    }
+
     /**
      * Is the acceleration applied in this frame. The answer will be false
      * if accelerating will cause the object to intersect with an object
      * it is set to not intersect with.
      */
-    public boolean isAccelerationEnabled() { return isAccelerationEnabled; }
+    public boolean isAccelerationEnabled() {
+        return world == null ? isAccelerationEnabled : world.isAccelerationEnabled[worldSlot];
+    }
 
     /**
      * Set whether the acceleration should be applied in this frame.
      * Used to prevent objects that are set to not intersect from intersecting.
      */
     public void setAccelerationEnabled(boolean accelerationEnabled) {
-        isAccelerationEnabled = accelerationEnabled;
+        if(world == null)
+            isAccelerationEnabled = accelerationEnabled;
+        else
+            world.isAccelerationEnabled[worldSlot] = accelerationEnabled;
+    }
+
+    /**
+     * Whether, in a {@link TransformWorld}, this transform is integrated together with the
+     * others before any object is updated, rather than by its update.
+     * @see #setIntegratedInBulk(boolean)
+     */
+    public boolean isIntegratedInBulk() {
+        return isIntegratedInBulk;
+    }
+
+    /**
+     * Sets whether, in a {@link TransformWorld}, this transform is integrated together with
+     * the others before any object is updated (see {@link TransformWorld#integrateAll(float)}),
+     * rather than by its update. A transform integrated in bulk only sees the changes made
+     * to its velocity, acceleration or position during the updates of other objects in the
+     * next frame, so it should only be integrated in bulk if these do not change them.
+     * By default, a GameObject's transform is integrated in bulk unless the object's class
+     * overrides GameObject.update. A transform whose change counter is set
+     * (see {@link #setChangeCounter(Counter)}) is always integrated by its update.
+     */
+    public void setIntegratedInBulk(boolean isIntegratedInBulk) {
+        this.isIntegratedInBulk = isIntegratedInBulk;
+        pushIntegratedInBulk();
+    }
+
+    /**
+     * Returns the world that stores this transform's motion, or null if it stores it itself.
+     * @see TransformWorld#add(Transform)
+     */
+    public TransformWorld world() {
+        return world;
+    }
+
+    int worldSlot() {
+        return worldSlot;
+    }
+
+    void setWorldSlot(int worldSlot) {
+        this.worldSlot = worldSlot;
+    }
+
+    //called by the world when it takes over the storage of this transform
+    void attach(TransformWorld world, int worldSlot) {
+        this.world = world;
+        this.worldSlot = worldSlot;
+        world.x[worldSlot] = topLeftCorner.x();
+        world.y[worldSlot] = topLeftCorner.y();
+        world.velocityX[worldSlot] = velocity.x();
+        world.velocityY[worldSlot] = velocity.y();
+        world.velocityToApplyX[worldSlot] = velocityToApply.x();
+        world.velocityToApplyY[worldSlot] = velocityToApply.y();
+        world.accelerationX[worldSlot] = acceleration.x();
+        world.accelerationY[worldSlot] = acceleration.y();
+        world.lastDisplacementX[worldSlot] = lastDisplacement.x();
+        world.lastDisplacementY[worldSlot] = lastDisplacement.y();
+        world.isAccelerationEnabled[worldSlot] = isAccelerationEnabled;
+        world.versions[worldSlot] = version;
+        pushIntegratedInBulk();
+    }
+
+    //called by the world before it stops storing this transform, to take the storage back
+    void detach() {
+        topLeftCorner.setXY(world.x[worldSlot], world.y[worldSlot]);
+        velocity.setXY(world.velocityX[worldSlot], world.velocityY[worldSlot]);
+        velocityToApply.setXY(world.velocityToApplyX[worldSlot], world.velocityToApplyY[worldSlot]);
+        acceleration.setXY(world.accelerationX[worldSlot], world.accelerationY[worldSlot]);
+        lastDisplacement.setXY(world.lastDisplacementX[worldSlot], world.lastDisplacementY[worldSlot]);
+        isAccelerationEnabled = world.isAccelerationEnabled[worldSlot];
+        version = world.versions[worldSlot];
+        world = null;
+        worldSlot = -1;
+    }
+
+    private void pushIntegratedInBulk() {
+        if(world != null)
+            world.isIntegratedInBulk[worldSlot] = isIntegratedInBulk && changeCounter == null;
     }
 }
@@ -0,0 +1,139 @@
+package danogl.components;
+
+import java.util.Arrays;
+
+/**
+ * Stores the motion of many transforms in arrays of primitives (positions, velocities,
+ * accelerations and flags, one array each), and integrates them together in one loop over
+ * the arrays, which reads contiguous primitives rather than vectors scattered across the heap.
+ * <br>While a transform is in a world, the world's arrays hold its position, velocity,
+ * acceleration and last displacement: its setters write to them, and its getters read them.
+ * <br>{@link #integrateAll(float)} integrates the transforms that are integrated in bulk
+ * (see {@link Transform#setIntegratedInBulk(boolean)}) before any object is updated,
+ * after which their {@link Transform#update(float)} does nothing for the rest of the frame.
+ * Any other transform in the world is integrated by its update, as without a world.
+ * @see danogl.collisions.GameObjectCollection#setTransformWorld(TransformWorld)
+ */
+public class TransformWorld {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Transform[] transforms = new Transform[INITIAL_CAPACITY];
+    private int size = 0;
+    //the state of the transform at each slot; read and written by Transform
+    float[] x = new float[INITIAL_CAPACITY], y = new float[INITIAL_CAPACITY];
+    float[] velocityX = new float[INITIAL_CAPACITY], velocityY = new float[INITIAL_CAPACITY];
+    float[] velocityToApplyX = new float[INITIAL_CAPACITY], velocityToApplyY = new float[INITIAL_CAPACITY];
+    float[] accelerationX = new float[INITIAL_CAPACITY], accelerationY = new float[INITIAL_CAPACITY];
+    float[] lastDisplacementX = new float[INITIAL_CAPACITY], lastDisplacementY = new float[INITIAL_CAPACITY];
+    boolean[] isAccelerationEnabled = new boolean[INITIAL_CAPACITY];
+    boolean[] isIntegratedInBulk = new boolean[INITIAL_CAPACITY];
+    int[] versions = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of transforms in the world.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a transform to the world. Does nothing if it is already in this world.
+     * @throws IllegalArgumentException if the transform is in another world
+     */
+    public void add(Transform transform) {
+        if(transform.world() == this)
+            return;
+        if(transform.world() != null)
+            throw new IllegalArgumentException("The transform is already in another world");
+        if(size == transforms.length)
+            grow(size*2);
+        transforms[size] = transform;
+        transform.attach(this, size);
+        size++;
+    }
+
+    /**
+     * Removes a transform from the world, after which it stores and integrates its motion itself.
+     * Does nothing if it is not in this world.
+     */
+    public void remove(Transform transform) {
+        if(transform.world() != this)
+            return;
+        int slot = transform.worldSlot();
+        transform.detach();
+        int last = --size;
+        if(slot != last)
+            moveSlot(last, slot);
+        transforms[last] = null;
+    }
+
+    /**
+     * Integrates the velocities and accelerations of all the transforms that are integrated
+     * in bulk, as their {@link Transform#update(float)} would. Called by GameManager.update
+     * once per frame, before the objects are updated.
+     * @param deltaTime the time, in seconds, since the last frame
+     */
+    public void integrateAll(float deltaTime) {
+        for(int i = 0 ; i < size ; i++) {
+            if(isIntegratedInBulk[i] && integrate(i, deltaTime))
+                versions[i]++;
+        }
+    }
+
+    //integrates the transform at the slot, as Transform.update does outside a world,
+    //and returns whether it moved
+    boolean integrate(int i, float deltaTime) {
+        if(isAccelerationEnabled[i] && (accelerationX[i] != 0 || accelerationY[i] != 0)) {
+            velocityX[i] = velocityX[i] + accelerationX[i] * deltaTime;
+            velocityY[i] = velocityY[i] + accelerationY[i] * deltaTime;
+            //using "midpoint"/"improved Euler" integration
+            velocityToApplyX[i] = 0.5f*(velocityToApplyX[i] + velocityX[i]);
+            velocityToApplyY[i] = 0.5f*(velocityToApplyY[i] + velocityY[i]);
+        }
+        float dx = velocityToApplyX[i]*deltaTime, dy = velocityToApplyY[i]*deltaTime;
+        float newX = x[i] + dx, newY = y[i] + dy;
+        boolean hasMoved = newX != x[i] || newY != y[i];
+        x[i] = newX;
+        y[i] = newY;
+        lastDisplacementX[i] = dx;
+        lastDisplacementY[i] = dy;
+        velocityToApplyX[i] = velocityX[i];
+        velocityToApplyY[i] = velocityY[i];
+        return hasMoved;
+    }
+
+    private void moveSlot(int from, int to) {
+        transforms[to] = transforms[from];
+        transforms[to].setWorldSlot(to);
+        x[to] = x[from];
+        y[to] = y[from];
+        velocityX[to] = velocityX[from];
+        velocityY[to] = velocityY[from];
+        velocityToApplyX[to] = velocityToApplyX[from];
+        velocityToApplyY[to] = velocityToApplyY[from];
+        accelerationX[to] = accelerationX[from];
+        accelerationY[to] = accelerationY[from];
+        lastDisplacementX[to] = lastDisplacementX[from];
+        lastDisplacementY[to] = lastDisplacementY[from];
+        isAccelerationEnabled[to] = isAccelerationEnabled[from];
+        isIntegratedInBulk[to] = isIntegratedInBulk[from];
+        versions[to] = versions[from];
+    }
+
+    private void grow(int capacity) {
+        transforms = Arrays.copyOf(transforms, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        velocityToApplyX = Arrays.copyOf(velocityToApplyX, capacity);
+        velocityToApplyY = Arrays.copyOf(velocityToApplyY, capacity);
+        accelerationX = Arrays.copyOf(accelerationX, capacity);
+        accelerationY = Arrays.copyOf(accelerationY, capacity);
+        lastDisplacementX = Arrays.copyOf(lastDisplacementX, capacity);
+        lastDisplacementY = Arrays.copyOf(lastDisplacementY, capacity);
+        isAccelerationEnabled = Arrays.copyOf(isAccelerationEnabled, capacity);
+        isIntegratedInBulk = Arrays.copyOf(isIntegratedInBulk, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+}
@@ -13,7 +13,9 @@ import java.util.function.Consumer;
  */
 public class Transition<T> implements Component {
     private Runnable onReachingFinalValue;
-    private static MutableVector2 calcVec = new MutableVector2();
+    //per thread, since self-contained objects may be updated in parallel
+    private static final ThreadLocal<MutableVector2> calcVec =
+            ThreadLocal.withInitial(MutableVector2::new);
 
     /************* Inner Types **************/
     /**
@@ -61,9 +63,10 @@ public class Transition<T> implements Component {
      */
     public static final Interpolator<Vector2> LINEAR_INTERPOLATOR_VECTOR =
             (v1, v2, t)-> {
-                calcVec.setXY(LINEAR_INTERPOLATOR_FLOAT.interpolate(v1.x(), v2.x(), t),
+                var vec = calcVec.get();
+                vec.setXY(LINEAR_INTERPOLATOR_FLOAT.interpolate(v1.x(), v2.x(), t),
                         LINEAR_INTERPOLATOR_FLOAT.interpolate(v1.y(), v2.y(), t));
-                return calcVec;
+                return vec;
             };
     /**
      * A built-in cubit interpolator for floats. Will start slowly from the initial value,
@@ -77,9 +80,10 @@ public class Transition<T> implements Component {
      */
     public static final Interpolator<Vector2> CUBIC_INTERPOLATOR_VECTOR =
             (v1, v2, t)-> {
-                calcVec.setXY(CUBIC_INTERPOLATOR_FLOAT.interpolate(v1.x(), v2.x(), t),
+                var vec = calcVec.get();
+                vec.setXY(CUBIC_INTERPOLATOR_FLOAT.interpolate(v1.x(), v2.x(), t),
                         (CUBIC_INTERPOLATOR_FLOAT.interpolate(v1.y(), v2.y(), t)));
-                return calcVec;
+                return vec;
             };
 
     /************* Fields **************/
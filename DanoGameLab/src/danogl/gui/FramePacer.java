@@ -0,0 +1,37 @@
+package danogl.gui;
+
+/**
+ * package-private. Waits for the deadlines of frames paced at a target framerate,
+ * for both {@link GameGUIComponent} and {@link HeadlessGameRunner}.
+ */
+final class FramePacer {
+    //how long before a frame's deadline to stop sleeping and spin
+    private static final long SPIN_NANOS = 2_000_000;
+
+    private FramePacer() { }
+
+    /**
+     * Sleeps until shortly before the deadline, then spins, since sleeping
+     * is only accurate to about a millisecond.
+     * If the thread is interrupted, a warning is shown and the interrupt status is restored
+     * for the thread's owner to handle; until it does, the wait only spins.
+     * @param deadline the time to wait until, in terms of {@link System#nanoTime()}
+     * @param messages shows the warning
+     */
+    static void waitUntil(long deadline, MessageHandler messages) {
+        long nanosToSleep;
+        while(!Thread.currentThread().isInterrupted()
+                && (nanosToSleep = deadline - System.nanoTime() - SPIN_NANOS) > 0) {
+            try {
+                Thread.sleep(nanosToSleep/1_000_000, (int)(nanosToSleep%1_000_000));
+            } catch (InterruptedException e) {
+                messages.showMessage(
+                        "Failed to sleep: " + e.getMessage(),
+                        MsgLevel.WARNING);
+                Thread.currentThread().interrupt();
+            }
+        }
+        while(System.nanoTime() < deadline)
+            Thread.onSpinWait();
+    }
+}
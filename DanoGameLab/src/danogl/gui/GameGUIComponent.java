@@ -5,6 +5,7 @@ import danogl.GameObject;
 import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.Renderable;
+import danogl.util.FrameProfiler;
 import danogl.util.Vector2;
 
 import javax.swing.*;
@@ -32,6 +33,7 @@ public class GameGUIComponent extends Canvas implements WindowController {
     private static final float MAX_FRAME_TIME = 0.1f;
 
     private int targetFramerate = 120;
+    private float fixedTimestep = 0;
     private int minIdleTimeInMillis = INITIAL_MIN_IDLE_TIME_IN_MILLIS;
     private JFrame window;
     private float timescale = 1;
@@ -112,26 +114,82 @@ public class GameGUIComponent extends Canvas implements WindowController {
         );
 
         //game loop
-        long timAtPrevFrameStart = System.nanoTime();
         isRunning = true;
+        if(fixedTimestep > 0)
+            runFixedTimestepLoop();
+        else
+            runVariableTimestepLoop();
+        removeKeyListener(inputListener);
+    }
+
+    private void runVariableTimestepLoop() {
+        gameManager.setRenderInterpolation(1);
+        long timAtPrevFrameStart = System.nanoTime();
         while(isRunning) {
             long timeAtFrameStart = System.nanoTime();
             float deltaTime = (float)((timeAtFrameStart-timAtPrevFrameStart)/1_000_000_000D);
             timAtPrevFrameStart = timeAtFrameStart;
-            if(inputListener.wasKeyReleasedThisFrame(exitButton))
-                closeWindow();
-            if(inputListener.wasKeyReleasedThisFrame(pauseButton))
-                isPaused = !isPaused;
+            var profiler = gameManager.frameProfiler();
+            if(profiler != null)
+                profiler.beginFrame();
+            handleExitAndPauseButtons();
             if(!isPaused)
                 gameManager.update(Math.min(MAX_FRAME_TIME, deltaTime * timescale));
             inputListener.update(deltaTime);
             render();
+            endProfiledFrame();
             if(!isRunning)
                 continue;
             long frameTime = System.nanoTime()-timeAtFrameStart;
             idleTime(frameTime);
         }
-        removeKeyListener(inputListener);
+    }
+
+    private void runFixedTimestepLoop() {
+        long timeAtPrevFrameStart = System.nanoTime();
+        long frameDeadline = timeAtPrevFrameStart;
+        float accumulatedTime = 0;
+        while(isRunning) {
+            long timeAtFrameStart = System.nanoTime();
+            float deltaTime = (float)((timeAtFrameStart-timeAtPrevFrameStart)/1_000_000_000D);
+            timeAtPrevFrameStart = timeAtFrameStart;
+            var profiler = gameManager.frameProfiler();
+            if(profiler != null)
+                profiler.beginFrame();
+            if(isPaused) {
+                handleExitAndPauseButtons();
+                inputListener.update(deltaTime);
+            }
+            else {
+                accumulatedTime += Math.min(MAX_FRAME_TIME, deltaTime * timescale);
+                //the input's frame is a step rather than a rendered frame,
+                //so that each step sees each key event exactly once
+                while(isRunning && !isPaused && accumulatedTime >= fixedTimestep) {
+                    handleExitAndPauseButtons();
+                    if(!isPaused) {
+                        gameManager.saveStateForInterpolation();
+                        gameManager.update(fixedTimestep);
+                        accumulatedTime -= fixedTimestep;
+                    }
+                    inputListener.update(fixedTimestep);
+                }
+            }
+            gameManager.setRenderInterpolation(accumulatedTime/fixedTimestep);
+            render();
+            endProfiledFrame();
+            if(!isRunning)
+                continue;
+            //frames are scheduled on fixed deadlines, unless the game falls behind
+            frameDeadline = Math.max(frameDeadline + 1_000_000_000L/targetFramerate, System.nanoTime());
+            FramePacer.waitUntil(frameDeadline, messages());
+        }
+    }
+
+    private void handleExitAndPauseButtons() {
+        if(inputListener.wasKeyReleasedThisFrame(exitButton))
+            closeWindow();
+        if(inputListener.wasKeyReleasedThisFrame(pauseButton))
+            isPaused = !isPaused;
     }
 
     @Override
@@ -167,6 +225,13 @@ public class GameGUIComponent extends Canvas implements WindowController {
         this.targetFramerate = targetFramerate;
     }
 
+    @Override
+    public void setFixedTimestep(float seconds) {
+        if(seconds < 0)
+            throw new IllegalArgumentException("The timestep cannot be negative");
+        fixedTimestep = seconds;
+    }
+
     @Override
     public void setPauseButton(int keyFromKeyEvent) {
         pauseButton = keyFromKeyEvent;
@@ -243,7 +308,17 @@ public class GameGUIComponent extends Canvas implements WindowController {
                 loadScreen = null;
         }
         g.dispose();
+        long timeBeforePresent = System.nanoTime();
         bufferStrategy.show(); // flip screen
+        var profiler = gameManager == null ? null : gameManager.frameProfiler();
+        if(profiler != null)
+            profiler.addPhaseNanos(FrameProfiler.Phase.PRESENT, System.nanoTime() - timeBeforePresent);
+    }
+
+    private void endProfiledFrame() {
+        var profiler = gameManager.frameProfiler();
+        if(profiler != null)
+            profiler.endFrame();
     }
 
     private void idleTime(long frameTime) {
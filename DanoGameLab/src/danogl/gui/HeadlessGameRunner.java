@@ -0,0 +1,233 @@
+package danogl.gui;
+
+import danogl.GameManager;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.event.KeyEvent;
+import java.util.EnumSet;
+
+/**
+ * Runs a GameManager without a window: initializeGame and update are called as they would
+ * be by a {@link GameGUIComponent}, but nothing is rendered, the input comes from a
+ * {@link HeadlessUserInputListener} and frames are not tied to the wall clock.
+ * This allows running games on machines without a display, for simulations,
+ * profiling and regression timing.
+ * <br>Each frame's deltaTime is the fixed timestep if one was set, and otherwise one frame
+ * at the target framerate. Frames run as fast as possible, unless
+ * {@link #setRealTime(boolean)} paces them at the target framerate.
+ * <br>Mouse actions (see {@link GameManager#onMouseAction}) are not reported, since there
+ * is no window to report them; injected mouse input is available through the input listener.
+ * Messages that would open a message box are written to the standard error instead.
+ */
+public class HeadlessGameRunner implements WindowController {
+    /** The window dimensions used when none are specified */
+    public static final Vector2 DEFAULT_WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    /**
+     * A system property that, if set to a number of frames, makes {@link GameManager#run()}
+     * run the game headless for that many frames instead of opening a window.
+     */
+    public static final String FRAMES_PROPERTY = "danogl.headlessFrames";
+    private static final float MAX_FRAME_TIME = 0.1f;
+
+    /**
+     * Injects the input of a headless game.
+     */
+    @FunctionalInterface
+    public interface InputScript {
+        /**
+         * Called before each frame's update.
+         * @param frame the number of frames that ran before this one, across game resets
+         * @param input the listener to inject the frame's input into
+         */
+        void beforeFrame(int frame, HeadlessUserInputListener input);
+    }
+
+    private final GameManager gameManager;
+    private final Vector2 windowDimensions;
+    private final MessageHandler messageHandler = new MessageHandler(this);
+    private final HeadlessUserInputListener inputListener = new HeadlessUserInputListener(messageHandler);
+    //kept across resets, so that resetting does not read the assets again
+    private final ImageReader imageReader = new ImageReader(messageHandler);
+    private final SoundReader soundReader = new SoundReader(messageHandler);
+    private InputScript inputScript = null;
+    private int targetFramerate = 120;
+    private float fixedTimestep = 0;
+    private float timescale = 1;
+    private boolean isRealTime = false;
+    private boolean yesNoAnswer = true;
+    private boolean isRunning = false;
+    private boolean isClosed = false;
+    private boolean isPaused = false;
+    private int exitButton = KeyEvent.VK_ESCAPE;
+    private int pauseButton = -1;
+    private Renderable renderableCursor;
+    private Vector2 cursorDimensions;
+
+    /**
+     * @param gameManager the game to run
+     * @param windowDimensions the dimensions the game is told its window has, or null
+     *                         for {@link #DEFAULT_WINDOW_DIMENSIONS}
+     */
+    public HeadlessGameRunner(GameManager gameManager, Vector2 windowDimensions) {
+        this.gameManager = gameManager;
+        this.windowDimensions = windowDimensions == null ? DEFAULT_WINDOW_DIMENSIONS : windowDimensions;
+        messageHandler.setOutputModeOfMsgLevel(MsgLevel.ERROR, EnumSet.of(OutputMode.STANDARD_ERROR));
+        messageHandler.setOutputModeOfMsgLevel(MsgLevel.CRITICAL,
+                EnumSet.of(OutputMode.STANDARD_ERROR, OutputMode.EXIT));
+    }
+
+    /**
+     * Sets the script that injects input before each frame, or null for no input.
+     */
+    public void setInputScript(InputScript inputScript) {
+        this.inputScript = inputScript;
+    }
+
+    /**
+     * Sets whether frames are paced at the target framerate, as in a window,
+     * or run as fast as possible (the default).
+     */
+    public void setRealTime(boolean isRealTime) {
+        this.isRealTime = isRealTime;
+    }
+
+    /**
+     * Sets the answer to every {@link #openYesNoDialog(String)}. Defaults to true,
+     * so that games asking whether to play again keep running.
+     */
+    public void setYesNoAnswer(boolean answer) {
+        yesNoAnswer = answer;
+    }
+
+    /**
+     * The listener that the game reads its input from.
+     */
+    public HeadlessUserInputListener inputListener() {
+        return inputListener;
+    }
+
+    /**
+     * Initializes the game and runs it for the given number of frames, or until
+     * {@link #closeWindow()} is called. A game reset by {@link #resetGame()} is initialized
+     * again and keeps running, and its frames count toward the total.
+     * @return the number of frames that ran
+     * @throws IllegalArgumentException if frames is negative
+     */
+    public int run(int frames) {
+        if(frames < 0)
+            throw new IllegalArgumentException("The number of frames cannot be negative");
+        isClosed = false;
+        int frame = 0;
+        long frameDeadline = System.nanoTime();
+        while(frame < frames && !isClosed) {
+            initializeGame();
+            while(isRunning && !isClosed && frame < frames) {
+                var profiler = gameManager.frameProfiler();
+                if(profiler != null)
+                    profiler.beginFrame();
+                if(inputScript != null)
+                    inputScript.beforeFrame(frame, inputListener);
+                handleExitAndPauseButtons();
+                float deltaTime = fixedTimestep > 0 ? fixedTimestep : 1f/targetFramerate;
+                if(!isPaused)
+                    gameManager.update(Math.min(MAX_FRAME_TIME, deltaTime * timescale));
+                inputListener.update(deltaTime);
+                if(profiler != null)
+                    profiler.endFrame();
+                frame++;
+                if(isRealTime) {
+                    frameDeadline = Math.max(frameDeadline + (long)(deltaTime*1_000_000_000D),
+                            System.nanoTime());
+                    FramePacer.waitUntil(frameDeadline, messages());
+                }
+            }
+        }
+        return frame;
+    }
+
+    private void initializeGame() {
+        timescale = 1;
+        isPaused = false;
+        inputListener.reset();
+        gameManager.initializeGame(imageReader, soundReader, inputListener, this);
+        gameManager.setRenderInterpolation(1);
+        isRunning = true;
+    }
+
+    private void handleExitAndPauseButtons() {
+        if(inputListener.wasKeyReleasedThisFrame(exitButton))
+            closeWindow();
+        if(inputListener.wasKeyReleasedThisFrame(pauseButton))
+            isPaused = !isPaused;
+    }
+
+    @Override
+    public void closeWindow() {
+        isClosed = true;
+    }
+
+    @Override
+    public void resetGame() {
+        isRunning = false;
+    }
+
+    @Override
+    public MessageHandler messages() {
+        return messageHandler;
+    }
+
+    @Override
+    public boolean openYesNoDialog(String msg) {
+        messageHandler.showMessage(msg + " " + (yesNoAnswer ? "yes" : "no"), MsgLevel.INFO);
+        return yesNoAnswer;
+    }
+
+    @Override
+    public double getTimeScale() { return timescale; }
+    @Override
+    public void setTimeScale(float value) { timescale = value; }
+
+    @Override
+    public Vector2 getWindowDimensions() {
+        return windowDimensions;
+    }
+
+    @Override
+    public void setTargetFramerate(int targetFramerate) {
+        this.targetFramerate = targetFramerate;
+    }
+
+    @Override
+    public void setFixedTimestep(float seconds) {
+        if(seconds < 0)
+            throw new IllegalArgumentException("The timestep cannot be negative");
+        fixedTimestep = seconds;
+    }
+
+    @Override
+    public void setPauseButton(int keyFromKeyEvent) {
+        pauseButton = keyFromKeyEvent;
+    }
+
+    @Override
+    public void setExitButton(int keyFromKeyEvent) {
+        exitButton = keyFromKeyEvent;
+    }
+
+    @Override
+    public void setMouseCursor(Renderable renderable, Vector2 dimensions, Vector2 offset) {
+        renderableCursor = renderable;
+        cursorDimensions = dimensions;
+    }
+
+    @Override
+    public Renderable getMouseCursor() {
+        return renderableCursor;
+    }
+
+    @Override
+    public Vector2 getMouseCursorDimensions() {
+        return cursorDimensions;
+    }
+}
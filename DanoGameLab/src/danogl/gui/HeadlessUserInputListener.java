@@ -0,0 +1,188 @@
+package danogl.gui;
+
+import danogl.components.movement_schemes.movement_directing.KeyboardMovementDirector;
+import danogl.components.movement_schemes.movement_directing.MouseMovementDirector;
+import danogl.gui.mouse.MouseButton;
+import danogl.gui.rendering.Camera;
+import danogl.util.MutableVector2;
+import danogl.util.Vector2;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A UserInputListener that is not connected to a keyboard or a mouse: its input is
+ * injected by calling its methods, for example from the input script of a
+ * {@link HeadlessGameRunner}. Injected input is seen by the game from the next update,
+ * just as input from the keyboard and mouse would be.
+ */
+public class HeadlessUserInputListener implements UserInputListener {
+    private Set<Integer> pressedKeys = new HashSet<>();
+    private Set<Integer> keysDownThisFrame = new HashSet<>();
+    private Set<Integer> keysUpThisFrame = new HashSet<>();
+    private EnumSet<MouseButton> pressedMouseButtons = EnumSet.noneOf(MouseButton.class);
+    private EnumSet<MouseButton> clickedMouseButtons = EnumSet.noneOf(MouseButton.class);
+    private EnumSet<MouseButton> mouseButtonsDownThisFrame = EnumSet.noneOf(MouseButton.class);
+    private EnumSet<MouseButton> mouseButtonsUpThisFrame = EnumSet.noneOf(MouseButton.class);
+    private MutableVector2 mousePos = new MutableVector2();
+    private double mouseWheelClicksThisFrame;
+    private MessageHandler messages;
+
+    public HeadlessUserInputListener(MessageHandler messages) {
+        this.messages = messages;
+    }
+
+    /**
+     * Ends the current frame: input that was pressed or released "this frame" no longer is.
+     */
+    public void update(float deltaTime) {
+        keysDownThisFrame.clear();
+        keysUpThisFrame.clear();
+        mouseButtonsDownThisFrame.clear();
+        mouseButtonsUpThisFrame.clear();
+        clickedMouseButtons.clear();
+        mouseWheelClicksThisFrame = 0;
+    }
+
+    /**
+     * Releases all keys and mouse buttons, without reporting them as released.
+     */
+    public void reset() {
+        update(0);
+        pressedKeys.clear();
+        pressedMouseButtons.clear();
+    }
+
+    /**
+     * Presses a key, which stays pressed until {@link #releaseKey(int)} is called.
+     * @param keyFromKeyEvent A constant from KeyEvent
+     */
+    public void pressKey(int keyFromKeyEvent) {
+        if(pressedKeys.add(keyFromKeyEvent))
+            keysDownThisFrame.add(keyFromKeyEvent);
+    }
+
+    /**
+     * Releases a key.
+     * @param keyFromKeyEvent A constant from KeyEvent
+     */
+    public void releaseKey(int keyFromKeyEvent) {
+        pressedKeys.remove(keyFromKeyEvent);
+        keysUpThisFrame.add(keyFromKeyEvent);
+    }
+
+    /**
+     * Presses and releases a key in the same frame.
+     * @param keyFromKeyEvent A constant from KeyEvent
+     */
+    public void tapKey(int keyFromKeyEvent) {
+        pressKey(keyFromKeyEvent);
+        releaseKey(keyFromKeyEvent);
+    }
+
+    /**
+     * Presses a mouse button, which stays pressed until
+     * {@link #releaseMouseButton(MouseButton)} is called.
+     */
+    public void pressMouseButton(MouseButton button) {
+        pressedMouseButtons.add(button);
+        mouseButtonsDownThisFrame.add(button);
+    }
+
+    /**
+     * Releases a mouse button.
+     */
+    public void releaseMouseButton(MouseButton button) {
+        pressedMouseButtons.remove(button);
+        mouseButtonsUpThisFrame.add(button);
+    }
+
+    /**
+     * Presses and releases a mouse button in the same frame, which counts as a click.
+     */
+    public void clickMouseButton(MouseButton button) {
+        pressMouseButton(button);
+        releaseMouseButton(button);
+        clickedMouseButtons.add(button);
+    }
+
+    /**
+     * Moves the mouse to the given position, in screen coordinates.
+     */
+    public void setMouseScreenPos(Vector2 pos) {
+        mousePos.setXY(pos);
+    }
+
+    /**
+     * Rotates the mouse wheel by the given number of clicks this frame.
+     */
+    public void rotateMouseWheel(double clicks) {
+        mouseWheelClicksThisFrame = clicks;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyFromKeyEvent) {
+        return pressedKeys.contains(keyFromKeyEvent);
+    }
+
+    @Override
+    public boolean wasKeyPressedThisFrame(int keyFromKeyEvent) {
+        return keysDownThisFrame.contains(keyFromKeyEvent);
+    }
+
+    @Override
+    public boolean wasKeyReleasedThisFrame(int keyFromKeyEvent) {
+        return keysUpThisFrame.contains(keyFromKeyEvent);
+    }
+
+    @Override
+    public boolean wasMouseButtonClickedThisFrame(MouseButton button) {
+        return clickedMouseButtons.contains(button);
+    }
+
+    @Override
+    public boolean wasMouseButtonPressedThisFrame(MouseButton button) {
+        return mouseButtonsDownThisFrame.contains(button);
+    }
+
+    @Override
+    public boolean wasMouseButtonReleasedThisFrame(MouseButton button) {
+        return mouseButtonsUpThisFrame.contains(button);
+    }
+
+    @Override
+    public boolean isMouseButtonPressed(MouseButton button) {
+        return pressedMouseButtons.contains(button);
+    }
+
+    @Override
+    public Vector2 getMouseScreenPos() {
+        return mousePos;
+    }
+
+    @Override
+    public double mouseWheelClicksThisFrame() {
+        return mouseWheelClicksThisFrame;
+    }
+
+    @Override
+    public Set<Integer> pressedKeys() {
+        return pressedKeys;
+    }
+
+    @Override
+    public Set<MouseButton> pressedMouseButtons() {
+        return pressedMouseButtons;
+    }
+
+    @Override
+    public MouseMovementDirector mouseMovementDirector(Camera camera) {
+        return new MouseMovementDirector(messages, this, camera);
+    }
+
+    @Override
+    public KeyboardMovementDirector keyboardMovementDirector() {
+        return new KeyboardMovementDirector(messages, this);
+    }
+}
@@ -1,6 +1,8 @@
 package danogl.gui;
 
+import danogl.gui.rendering.CompatibleImages;
 import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.TextureAtlas;
 import danogl.util.Vector2;
 
 import javax.imageio.ImageIO;
@@ -11,7 +13,8 @@ import java.util.Map;
 import java.util.Objects;
 
 /**
- * Used to read images from disk or from within a jar
+ * Used to read images from disk or from within a jar. The images read are converted
+ * to the format of the screen (see {@link CompatibleImages}).
  * @author Dan Nirel
  */
 public class ImageReader {
@@ -47,6 +50,7 @@ public class ImageReader {
     private ResourceReader resReader = new ResourceReader();
     private boolean imageAlreadyContainsAlpha = false;
     private Map<CroppedImageIdentifier, ImageRenderable> cache = new HashMap<>();
+    private TextureAtlas atlas = null;
 
     /** Construct an ImageReader. Usually used by the engine itself */
     public ImageReader(MessageHandler messages) {
@@ -86,7 +90,7 @@ public class ImageReader {
                         MsgLevel.ERROR);
             }
             else {
-                im = croppedIm;
+                im = pack(croppedIm);
                 cache.put(new CroppedImageIdentifier(path, cropTopLeft, cropBottomRight), im);
             }
         }
@@ -120,6 +124,23 @@ public class ImageReader {
         cache.clear();
     }
 
+    /**
+     * Sets an atlas into which the images read from now on are packed, so that they are
+     * drawn from a few large images. Images read before, and already cached, are not packed.
+     * @param atlas the atlas to pack into, or null to not pack images (the default).
+     * @see danogl.GameManager#setRenderBatching(boolean)
+     */
+    public void setAtlas(TextureAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    /**
+     * Returns the atlas images are packed into, or null if they are not packed.
+     */
+    public TextureAtlas atlas() {
+        return atlas;
+    }
+
     /**
      * Returns the window's WindowController
      */
@@ -151,11 +172,17 @@ public class ImageReader {
         //add transparency if requested
         if(isTopLeftPixelTransparency)
             im = addTransparency(im);
-        ImageRenderable fullImage = new ImageRenderable(im);
+        //convert to the screen's format, so that it is not converted whenever it is drawn
+        im = CompatibleImages.toCompatible(im);
+        ImageRenderable fullImage = pack(new ImageRenderable(im));
         cache.put(new CroppedImageIdentifier(path, Vector2.ZERO, Vector2.ZERO), fullImage);
         return fullImage;
     }
 
+    private ImageRenderable pack(ImageRenderable image) {
+        return atlas == null ? image : atlas.add(image);
+    }
+
     private BufferedImage addTransparency(BufferedImage im) {
         if(im == ImageRenderable.DEFAULT_IMAGE.getImage()) {
             //then don't add transparency
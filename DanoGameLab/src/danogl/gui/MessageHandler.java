@@ -1,6 +1,7 @@
 package danogl.gui;
 
 import javax.swing.*;
+import java.awt.GraphicsEnvironment;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Map;
@@ -75,9 +76,12 @@ public class MessageHandler {
     public void showMessage(String msg, EnumSet<OutputMode> outputModes) {
         if(outputModes.contains(OutputMode.STANDARD_OUTPUT))
             System.out.println(msg);
-        if(outputModes.contains(OutputMode.STANDARD_ERROR))
+        //without a display, a message box falls back to the standard error
+        boolean isHeadless = GraphicsEnvironment.isHeadless();
+        if(outputModes.contains(OutputMode.STANDARD_ERROR)
+                || (isHeadless && outputModes.contains(OutputMode.MSG_BOX)))
             System.err.println(msg);
-        if(outputModes.contains(OutputMode.MSG_BOX))
+        if(!isHeadless && outputModes.contains(OutputMode.MSG_BOX))
             JOptionPane.showMessageDialog(parentWindow(), msg);
         if(outputModes.contains(OutputMode.EXIT))
             windowController.closeWindow();
@@ -37,7 +37,8 @@ public class SoundReader {
                 AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(stream);
                 clips[i] = AudioSystem.getClip();
                 clips[i].open(audioInputStream);
-            } catch (LineUnavailableException | IOException | UnsupportedAudioFileException e) {
+            } catch (LineUnavailableException | IOException | UnsupportedAudioFileException
+                     | IllegalArgumentException e) { //the latter when there is no audio device
                 messages.showMessage(
                         String.format("Failed to open audio file '%s': %s", wavFilePath, e.getMessage()),
                         MsgLevel.ERROR);
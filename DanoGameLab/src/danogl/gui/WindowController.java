@@ -75,6 +75,22 @@ public interface WindowController {
      * consumes less resources, at the cost of a choppier experience.</p>*/
     void setTargetFramerate(int targetFramerate);
 
+    /**
+     * Decouples the simulation from rendering: update is called with a fixed deltaTime
+     * of the given duration (scaled by the time-scale), as many times as the time that
+     * passed requires, while frames are rendered at the target framerate.
+     * Objects are rendered between their positions before and after the last update,
+     * and frames are paced by sleeping and then spinning, rather than only sleeping.
+     * <p>With a fixed deltaTime, physics do not depend on the framerate, so collisions
+     * behave the same under load and from run to run.</p>
+     * <p>Takes effect from the start of the next game if called while a game is running,
+     * other than in initializeGame.</p>
+     * @param seconds the duration of each update, or 0 to call update once per frame with the
+     *                time since the previous frame (the default).
+     * @throws IllegalArgumentException if seconds is negative
+     */
+    void setFixedTimestep(float seconds);
+
     /**
      * Sets a key to pause and unpause the game (prevent update calls).
      * By default, pausing is disabled (the game cannot be paused).
@@ -156,6 +156,13 @@ public class AnimationRenderable implements Renderable {
                 isFlippedHorizontally, isFlippedVertically, opaqueness);
     }
 
+    /**
+     * The clip rendered in the current frame of the animation, or null if the animation ended.
+     */
+    public Renderable currentClip() {
+        return currImIndex < clips.length ? clips[currImIndex] : null;
+    }
+
     /**Reset the animation (go back to the first frame).*/
     public void resetAnimation() {
         currImIndex = 0;
@@ -115,11 +115,22 @@ public class Camera extends GameObject {
      * to the window's top left corner)
      */
     public Vector2 worldToScreenCoords(Vector2 worldCoords) {
+        return worldToScreenCoords(worldCoords, 1);
+    }
+
+    /**
+     * Converts world coordinates to screen coordinates, with the camera placed between its
+     * position before the last update and its current position.
+     * @param alpha 0 for the camera's position before the last update, 1 for its current position
+     * @see danogl.components.Transform#getInterpolatedTopLeftCorner(float)
+     */
+    public Vector2 worldToScreenCoords(Vector2 worldCoords, float alpha) {
+        var cameraTopLeftCorner = transform().getInterpolatedTopLeftCorner(alpha);
         float dimFactorX = windowDimensions().x()/getDimensions().x();
         float dimFactorY = windowDimensions().y()/getDimensions().y();
         freeCalculationsVector.setXY(
-                dimFactorX*(worldCoords.x()-getTopLeftCorner().x()),
-                dimFactorY*(worldCoords.y()-getTopLeftCorner().y()));
+                dimFactorX*(worldCoords.x()-cameraTopLeftCorner.x()),
+                dimFactorY*(worldCoords.y()-cameraTopLeftCorner.y()));
         return freeCalculationsVector;
     }
 }
@@ -0,0 +1,87 @@
+package danogl.gui.rendering;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Creates and converts images in the format of the screen, which Java2D draws without
+ * converting them, and can keep in video memory if they do not change.
+ * Images are given the narrowest transparency mode their pixels need: opaque,
+ * bitmask (fully transparent or fully opaque pixels), or translucent.
+ * When there is no screen, plain integer RGB or ARGB images are used instead.
+ */
+public class CompatibleImages {
+    private CompatibleImages() { }
+
+    /**
+     * Creates an image in the format of the screen.
+     * @param transparency one of {@link Transparency#OPAQUE}, {@link Transparency#BITMASK}
+     *                     and {@link Transparency#TRANSLUCENT}
+     */
+    public static BufferedImage create(int width, int height, int transparency) {
+        if(GraphicsEnvironment.isHeadless())
+            return new BufferedImage(width, height, headlessType(transparency));
+        return screenConfiguration().createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+     * Returns the image in the format of the screen: the image itself if it already is,
+     * and otherwise a converted copy.
+     */
+    public static BufferedImage toCompatible(BufferedImage image) {
+        int width = image.getWidth(), height = image.getHeight();
+        int transparency = transparencyOf(image, 0, 0, width, height);
+        if(isCompatible(image, transparency))
+            return image;
+        return copy(image, 0, 0, width, height, transparency);
+    }
+
+    /**
+     * Copies a rectangle of an image into a new image in the format of the screen.
+     */
+    public static BufferedImage copy(BufferedImage image, int x, int y, int width, int height) {
+        return copy(image, x, y, width, height, transparencyOf(image, x, y, width, height));
+    }
+
+    private static BufferedImage copy(BufferedImage image, int x, int y, int width, int height,
+                                      int transparency) {
+        var copy = create(width, height, transparency);
+        Graphics2D g = copy.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, width, height, x, y, x + width, y + height, null);
+        g.dispose();
+        return copy;
+    }
+
+    //the narrowest transparency mode of the rectangle's pixels
+    private static int transparencyOf(BufferedImage image, int x, int y, int width, int height) {
+        if(image.getColorModel().getTransparency() == Transparency.OPAQUE)
+            return Transparency.OPAQUE;
+        int[] pixels = image.getRGB(x, y, width, height, null, 0, width);
+        int transparency = Transparency.OPAQUE;
+        for(int pixel : pixels) {
+            int alpha = pixel >>> 24;
+            if(alpha == 0)
+                transparency = Transparency.BITMASK;
+            else if(alpha != 0xff)
+                return Transparency.TRANSLUCENT;
+        }
+        return transparency;
+    }
+
+    private static boolean isCompatible(BufferedImage image, int transparency) {
+        if(GraphicsEnvironment.isHeadless())
+            return image.getType() == headlessType(transparency);
+        return image.getColorModel().equals(screenConfiguration().getColorModel(transparency));
+    }
+
+    private static int headlessType(int transparency) {
+        return transparency == Transparency.OPAQUE ?
+                BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+    }
+
+    private static GraphicsConfiguration screenConfiguration() {
+        return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
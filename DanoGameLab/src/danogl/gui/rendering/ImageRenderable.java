@@ -13,13 +13,30 @@ public class ImageRenderable implements Renderable {
     public static final ImageRenderable DEFAULT_IMAGE = createDefaultImage();
 
     private final BufferedImage image;
+    //the image drawn from, which is a page of a TextureAtlas if the image was packed into one
+    private final BufferedImage source;
+    private final int sourceX, sourceY;
     private final ConfigureGraphics configureGraphics = new ConfigureGraphics();
 
     /**
      * Constructor. Typically, an instance of this class will be created via
      * {@link danogl.gui.ImageReader}.
      */
-    public ImageRenderable(BufferedImage image) { this.image = image; }
+    public ImageRenderable(BufferedImage image) {
+        this.image = image;
+        this.source = image;
+        sourceX = sourceY = 0;
+    }
+
+    /**
+     * package-private constructor, used by TextureAtlas: an image packed into a page of an atlas.
+     */
+    ImageRenderable(BufferedImage page, int x, int y, int width, int height) {
+        this.image = page.getSubimage(x, y, width, height);
+        this.source = page;
+        sourceX = x;
+        sourceY = y;
+    }
 
     @Override
     public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
@@ -44,17 +61,50 @@ public class ImageRenderable implements Renderable {
             degreesCounterClockwise *= -1;
         }
 
+        var batch = SpriteBatch.activeFor(g);
+        if(batch != null) {
+            batch.add(this, topLeftCornerX, topLeftCornerY, dimX, dimY,
+                    topLeftCorner, dimensions, degreesCounterClockwise, opaqueness);
+            return;
+        }
+
         configureGraphics.init(g, topLeftCorner, dimensions, degreesCounterClockwise, opaqueness);
         configureGraphics.setRotation();
         configureGraphics.setOpaqueness();
 
-        g.drawImage(image,
-                topLeftCornerX, topLeftCornerY,
-                dimX, dimY, null);
+        draw(g, topLeftCornerX, topLeftCornerY, dimX, dimY);
 
         configureGraphics.rollbackChanges();
     }
 
+    /**
+     * package-private. Draws the image; a negative width or height flips it.
+     */
+    void draw(Graphics2D g, int x, int y, int width, int height) {
+        if(source == image) {
+            g.drawImage(image, x, y, width, height, null);
+            return;
+        }
+        g.drawImage(source,
+                x, y, x + width, y + height,
+                sourceX, sourceY, sourceX + image.getWidth(), sourceY + image.getHeight(), null);
+    }
+
+    /**
+     * package-private. The image drawn from: the page of the atlas the image was packed into,
+     * or the image itself.
+     */
+    BufferedImage source() {
+        return source;
+    }
+
+    /**
+     * Whether the image was packed into a {@link TextureAtlas}, and is drawn from one of its pages.
+     */
+    public boolean isPacked() {
+        return source != image;
+    }
+
     /**
      * Returns the image
      */
@@ -85,7 +135,8 @@ public class ImageRenderable implements Renderable {
      *                    The pixel at these coordinates is included. If cropping is not desired, set to Vector2.ZERO.
      * @param bottomRight pixel coordinates of bottom-right rectangle to crop from the image.
      *                        The pixel at these coordinates is excluded. If cropping is not desired, set to Vector2.ZERO.
-     * @return a new, smaller, ImageRenderable. The original remains unchanged. If the input
+     * @return a new, smaller, ImageRenderable, in the format of the screen
+     * (see {@link CompatibleImages}). The original remains unchanged. If the input
      * is invalid, returns null.
      */
     public ImageRenderable crop(Vector2 topLeft, Vector2 bottomRight) {
@@ -97,14 +148,8 @@ public class ImageRenderable implements Renderable {
 
         int width = (int)bottomRight.x()-(int)topLeft.x();
         int height = (int)bottomRight.y()-(int)topLeft.y();
-        BufferedImage croppedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-
-        for(int y = 0 ; y < height ; y++) {
-            for (int x = 0; x < width ; x++) {
-                int thisPixel = image.getRGB((int)topLeft.x()+x, (int)topLeft.y()+y);
-                croppedImage.setRGB(x, y, thisPixel);
-            }
-        }
+        BufferedImage croppedImage = CompatibleImages.copy(
+                image, (int)topLeft.x(), (int)topLeft.y(), width, height);
         return new ImageRenderable(croppedImage);
     }
 
@@ -18,6 +18,11 @@ public class RectangleRenderable extends ShapeRenderable {
         super(color);
     }
 
+    @Override
+    protected boolean isRectangle() {
+        return true;
+    }
+
     @Override
     protected void callGraphicsMethod(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions) {
         g.fillRect(
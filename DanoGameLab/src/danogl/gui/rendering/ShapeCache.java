@@ -0,0 +1,197 @@
+package danogl.gui.rendering;
+
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps shapes of {@link RectangleRenderable}s and {@link OvalRenderable}s rasterized
+ * into images, so that drawing them again is a blit rather than an antialiased fill.
+ * Shapes are cached by kind, size in whole pixels, color and angle, where the angle is
+ * rounded to the nearest step; a rotated shape is therefore drawn at up to half a step
+ * from its angle, and placed to the nearest pixel. Once the cache holds its capacity, the least recently drawn
+ * shape is dropped for each new one.
+ * <br>Shapes only use the cache after it was passed to their setCache method, and only
+ * when the cache saves work: axis-aligned rectangles are filled directly.
+ * A cache should only be used by the rendering thread.
+ */
+public class ShapeCache {
+    /** The capacity of a cache created with the default constructor */
+    public static final int DEFAULT_CAPACITY = 512;
+    /** The angle step, in degrees, of a cache created with the default constructor */
+    public static final float DEFAULT_ANGLE_STEP = 2;
+
+    //the shape of a cached image
+    private static class Key {
+        Class<?> kind;
+        int width, height, rgb, angleStep;
+
+        void set(Class<?> kind, int width, int height, int rgb, int angleStep) {
+            this.kind = kind;
+            this.width = width;
+            this.height = height;
+            this.rgb = rgb;
+            this.angleStep = angleStep;
+        }
+
+        Key copy() {
+            var copy = new Key();
+            copy.set(kind, width, height, rgb, angleStep);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Key))
+                return false;
+            var other = (Key)obj;
+            return kind == other.kind && width == other.width && height == other.height
+                    && rgb == other.rgb && angleStep == other.angleStep;
+        }
+
+        @Override
+        public int hashCode() {
+            //not Objects.hash, which allocates on every lookup
+            int hash = kind.hashCode();
+            hash = 31*hash + width;
+            hash = 31*hash + height;
+            hash = 31*hash + rgb;
+            return 31*hash + angleStep;
+        }
+    }
+
+    private final int capacity;
+    private final int stepsPerTurn;
+    private final Map<Key, BufferedImage> images;
+    private final Key probe = new Key();
+    private long hits = 0, misses = 0;
+
+    /**
+     * Creates a cache with the default capacity and angle step.
+     */
+    public ShapeCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_ANGLE_STEP);
+    }
+
+    /**
+     * Creates a cache.
+     * @param capacity the number of images kept
+     * @param angleStep the step, in degrees, to which the angles of shapes are rounded
+     * @throws IllegalArgumentException if capacity is not positive, or angleStep is not
+     * in (0, 360]
+     */
+    public ShapeCache(int capacity, float angleStep) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        if(!(angleStep > 0 && angleStep <= 360))
+            throw new IllegalArgumentException("Angle step must be in (0, 360]");
+        this.capacity = capacity;
+        stepsPerTurn = Math.max(1, Math.round(360 / angleStep));
+        images = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+                return size() > ShapeCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * The number of images cached.
+     */
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * The number of shapes drawn from an image already in the cache.
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * The number of shapes that had to be rasterized into the cache.
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * Drops all cached images.
+     */
+    public void clear() {
+        images.clear();
+    }
+
+    /**
+     * package-private. Draws the shape, rotated around the center of topLeftCorner and dimensions,
+     * where the shape itself would draw it.
+     */
+    void render(Graphics2D g, ShapeRenderable shape, Color color,
+                Vector2 topLeftCorner, Vector2 dimensions, double degreesCounterClockwise) {
+        int width = (int)dimensions.x(), height = (int)dimensions.y();
+        if(width <= 0 || height <= 0)
+            return;
+        int angleStep = Math.floorMod(
+                Math.round(degreesCounterClockwise * stepsPerTurn / 360), stepsPerTurn);
+        var image = imageOf(shape, color, width, height, angleStep);
+        //shapes are drawn at even coordinates, see RectangleRenderable
+        int x = (int)topLeftCorner.x()/2*2, y = (int)topLeftCorner.y()/2*2;
+        if(angleStep == 0) {
+            g.drawImage(image, x, y, null);
+            return;
+        }
+        //the image is centered on the shape's center, rotated around the center of its box
+        double radians = Math.toRadians(-angleStep * 360.0 / stepsPerTurn);
+        double boxCenterX = topLeftCorner.x() + dimensions.x()/2;
+        double boxCenterY = topLeftCorner.y() + dimensions.y()/2;
+        double offsetX = x + width/2.0 - boxCenterX, offsetY = y + height/2.0 - boxCenterY;
+        double centerX = boxCenterX + offsetX*Math.cos(radians) - offsetY*Math.sin(radians);
+        double centerY = boxCenterY + offsetX*Math.sin(radians) + offsetY*Math.cos(radians);
+        g.drawImage(image,
+                (int)Math.round(centerX - image.getWidth()/2.0),
+                (int)Math.round(centerY - image.getHeight()/2.0), null);
+    }
+
+    private BufferedImage imageOf(ShapeRenderable shape, Color color, int width, int height, int angleStep) {
+        probe.set(shape.getClass(), width, height, color.getRGB(), angleStep);
+        var image = images.get(probe);
+        if(image != null) {
+            hits++;
+            return image;
+        }
+        misses++;
+        image = rasterize(shape, color, width, height, angleStep);
+        images.put(probe.copy(), image);
+        return image;
+    }
+
+    private BufferedImage rasterize(ShapeRenderable shape, Color color, int width, int height, int angleStep) {
+        BufferedImage image;
+        Graphics2D g;
+        if(angleStep == 0) {
+            image = CompatibleImages.create(width, height, Transparency.TRANSLUCENT);
+            g = image.createGraphics();
+        }
+        else {
+            double radians = Math.toRadians(-angleStep * 360.0 / stepsPerTurn);
+            double cos = Math.abs(Math.cos(radians)), sin = Math.abs(Math.sin(radians));
+            //the rotated shape's bounding box, with a pixel to spare on each side
+            int imageWidth = (int)Math.ceil(width*cos + height*sin) + 2;
+            int imageHeight = (int)Math.ceil(width*sin + height*cos) + 2;
+            image = CompatibleImages.create(imageWidth, imageHeight, Transparency.TRANSLUCENT);
+            g = image.createGraphics();
+            g.translate(imageWidth/2.0, imageHeight/2.0);
+            g.rotate(radians);
+            g.translate(-width/2.0, -height/2.0);
+        }
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(color);
+        shape.callGraphicsMethod(g, Vector2.ZERO, new Vector2(width, height));
+        g.dispose();
+        return image;
+    }
+}
@@ -3,6 +3,7 @@ package danogl.gui.rendering;
 import danogl.util.Vector2;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 
 /**
  * A package-visibility superclass for Renderables of simple shapes
@@ -11,11 +12,23 @@ import java.awt.*;
 abstract class ShapeRenderable implements Renderable {
     ConfigureGraphics configureGraphics = new ConfigureGraphics();
     private Color color;
+    private ShapeCache cache = null;
 
     public ShapeRenderable(Color color) {
         this.color = color;
     }
 
+    /**
+     * Sets a cache from which the shape is drawn as an image when it is rotated,
+     * or is not a rectangle, rather than filled every time. Several shapes can share a cache.
+     * With a cache, an axis-aligned rectangle is filled without antialiasing when the graphics
+     * only translates by whole pixels, since it then looks the same.
+     * @param cache the cache to draw from, or null to always fill the shape (the default).
+     */
+    public void setCache(ShapeCache cache) {
+        this.cache = cache;
+    }
+
     @Override
     public void render(
             Graphics2D g,
@@ -31,13 +44,42 @@ abstract class ShapeRenderable implements Renderable {
             degreesCounterClockwise *= -1;
 
         configureGraphics.init(g, topLeftCorner, dimensions, degreesCounterClockwise, opaqueness);
+        boolean isAxisAlignedRectangle = degreesCounterClockwise == 0 && isRectangle();
+        if(cache != null && !isAxisAlignedRectangle) {
+            configureGraphics.setOpaqueness();
+            cache.render(g, this, color, topLeftCorner, dimensions, degreesCounterClockwise);
+            return;
+        }
         configureGraphics.setRotation();
         configureGraphics.setOpaqueness();
         g.setColor(color);
+        boolean isAntialiasingSkipped = cache != null && isAxisAlignedRectangle
+                && g.getRenderingHint(RenderingHints.KEY_ANTIALIASING) == RenderingHints.VALUE_ANTIALIAS_ON
+                && isWholePixelTranslation(g.getTransform());
+        if(isAntialiasingSkipped)
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
         callGraphicsMethod(g, topLeftCorner, dimensions);
+        if(isAntialiasingSkipped)
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         configureGraphics.rollbackChanges();
     }
 
+    //under such a transform, an axis-aligned rectangle at whole pixels looks the same without antialiasing
+    private static boolean isWholePixelTranslation(AffineTransform transform) {
+        int type = transform.getType();
+        if(type != AffineTransform.TYPE_IDENTITY && type != AffineTransform.TYPE_TRANSLATION)
+            return false;
+        return transform.getTranslateX() == Math.rint(transform.getTranslateX())
+                && transform.getTranslateY() == Math.rint(transform.getTranslateY());
+    }
+
+    /**
+     * Whether the shape fills its whole box.
+     */
+    protected boolean isRectangle() {
+        return false;
+    }
+
     protected abstract void callGraphicsMethod(Graphics2D g,
                                           Vector2 topLeftCorner,
                                           Vector2 dimensions);
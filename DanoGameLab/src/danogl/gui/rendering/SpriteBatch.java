@@ -0,0 +1,193 @@
+package danogl.gui.rendering;
+
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Collects the images drawn into a Graphics2D and draws them grouped by the image they are
+ * drawn from, changing the Graphics2D's composite and transform only when needed.
+ * Images packed into the same page of a {@link TextureAtlas} are drawn from the same image,
+ * and are therefore grouped together.
+ * <br>Between {@link #begin(Graphics2D)} and {@link #end()}, {@link ImageRenderable}s rendered
+ * into that Graphics2D are collected rather than drawn. On {@link #flush()}, they are drawn in the
+ * order in which the image they are drawn from was first rendered, and images drawn from the same
+ * image in the order they were rendered. Images drawn from different images, that were rendered
+ * between flushes, can therefore be drawn in a different order; flush whenever order matters,
+ * for example between layers, and before anything else is drawn. Objects that draw into the
+ * Graphics2D themselves should be rendered between {@link #suspend()} and {@link #resume()}.
+ * <br>Only one batch is active at a time, and it should only be used by the rendering thread.
+ * @see danogl.GameManager#setRenderBatching(boolean)
+ */
+public class SpriteBatch {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static SpriteBatch active = null;
+
+    private Graphics2D g = null;
+    private boolean isSuspended = false;
+    private int count = 0;
+    private int drawsInLastFrame = 0, flushesInLastFrame = 0;
+    private int draws = 0, flushes = 0;
+    //the collected images, and where to draw them
+    private ImageRenderable[] images = new ImageRenderable[INITIAL_CAPACITY];
+    private int[] rects = new int[INITIAL_CAPACITY*4];
+    private float[] centers = new float[INITIAL_CAPACITY*2];
+    private double[] angles = new double[INITIAL_CAPACITY];
+    private double[] opaquenesses = new double[INITIAL_CAPACITY];
+    //the group of each collected image in the high bits and its index in the low bits
+    private long[] order = new long[INITIAL_CAPACITY];
+    //the group of each image drawn from, by the order in which it was first rendered
+    private final Map<BufferedImage, Integer> groups = new IdentityHashMap<>();
+
+    /**
+     * Starts collecting the images rendered into g.
+     * @throws IllegalStateException if a batch is already active
+     */
+    public void begin(Graphics2D g) {
+        if(active != null)
+            throw new IllegalStateException("A sprite batch is already active");
+        active = this;
+        this.g = g;
+        draws = flushes = 0;
+    }
+
+    /**
+     * Draws the collected images and stops collecting. The batch is no longer active
+     * afterwards even if drawing fails, and images it failed to draw are dropped.
+     */
+    public void end() {
+        try {
+            flush();
+        }
+        finally {
+            Arrays.fill(images, 0, count, null);
+            count = 0;
+            groups.clear();
+            drawsInLastFrame = draws;
+            flushesInLastFrame = flushes;
+            g = null;
+            isSuspended = false;
+            if(active == this)
+                active = null;
+        }
+    }
+
+    /**
+     * Draws the images collected so far, and draws the images rendered from now on immediately,
+     * until {@link #resume()}, so that they are drawn in order with whatever else is drawn.
+     */
+    public void suspend() {
+        flush();
+        isSuspended = true;
+    }
+
+    /**
+     * Collects the images rendered again, after {@link #suspend()}.
+     */
+    public void resume() {
+        isSuspended = false;
+    }
+
+    /**
+     * Draws the images collected so far.
+     */
+    public void flush() {
+        if(count == 0)
+            return;
+        for(int i = 0 ; i < count ; i++) {
+            var group = groups.get(images[i].source());
+            if(group == null) {
+                group = groups.size();
+                groups.put(images[i].source(), group);
+            }
+            order[i] = ((long)group << 32) | i;
+        }
+        Arrays.sort(order, 0, count);
+
+        var originalComposite = g.getComposite();
+        AffineTransform originalTransform = null;
+        double currentOpaqueness = -1;
+        for(int k = 0 ; k < count ; k++) {
+            int i = (int)order[k];
+            if(opaquenesses[i] != currentOpaqueness) {
+                currentOpaqueness = opaquenesses[i];
+                g.setComposite(currentOpaqueness < 1 ?
+                        AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float)currentOpaqueness)
+                        : AlphaComposite.SrcOver);
+            }
+            if(angles[i] != 0) {
+                if(originalTransform == null)
+                    originalTransform = g.getTransform();
+                g.rotate(Math.toRadians(-angles[i]), centers[i*2], centers[i*2+1]);
+            }
+            images[i].draw(g, rects[i*4], rects[i*4+1], rects[i*4+2], rects[i*4+3]);
+            if(angles[i] != 0)
+                g.setTransform(originalTransform);
+            images[i] = null;
+        }
+        g.setComposite(originalComposite);
+        draws += count;
+        flushes++;
+        count = 0;
+        groups.clear();
+    }
+
+    /**
+     * The number of images drawn between the last calls to begin and end.
+     */
+    public int drawsInLastFrame() {
+        return drawsInLastFrame;
+    }
+
+    /**
+     * The number of groups of images drawn together between the last calls to begin and end.
+     */
+    public int flushesInLastFrame() {
+        return flushesInLastFrame;
+    }
+
+    /**
+     * package-private. The active batch, if it collects the images rendered into g.
+     */
+    static SpriteBatch activeFor(Graphics2D g) {
+        var batch = active;
+        return batch != null && batch.g == g && !batch.isSuspended ? batch : null;
+    }
+
+    /**
+     * package-private. Collects an image, to be drawn at x, y with the given width and height
+     * (negative to flip), rotated around the center of topLeftCorner and dimensions.
+     */
+    void add(ImageRenderable image, int x, int y, int width, int height,
+             Vector2 topLeftCorner, Vector2 dimensions,
+             double degreesCounterClockwise, double opaqueness) {
+        if(count == images.length)
+            grow();
+        images[count] = image;
+        rects[count*4] = x;
+        rects[count*4+1] = y;
+        rects[count*4+2] = width;
+        rects[count*4+3] = height;
+        centers[count*2] = topLeftCorner.x() + dimensions.x()/2;
+        centers[count*2+1] = topLeftCorner.y() + dimensions.y()/2;
+        angles[count] = degreesCounterClockwise;
+        opaquenesses[count] = opaqueness;
+        count++;
+    }
+
+    private void grow() {
+        int capacity = images.length*2;
+        images = Arrays.copyOf(images, capacity);
+        rects = Arrays.copyOf(rects, capacity*4);
+        centers = Arrays.copyOf(centers, capacity*2);
+        angles = Arrays.copyOf(angles, capacity);
+        opaquenesses = Arrays.copyOf(opaquenesses, capacity);
+        order = Arrays.copyOf(order, capacity);
+    }
+}
@@ -24,6 +24,8 @@ public class TextRenderable implements Renderable {
     private static final String LINE_BREAK = "\n";
     private static final String DEFAULT_FONT = Font.SANS_SERIF;
     private static final float FONT_PTS_PER_INCH = 2*72f;
+    //the resolution assumed when there is no screen
+    private static final int HEADLESS_SCREEN_RESOLUTION = 96;
 
     private ConfigureGraphics configureGraphics = new ConfigureGraphics();
     private String str;
@@ -128,6 +130,12 @@ public class TextRenderable implements Renderable {
         }
         font = new Font(font.getFontName(), font.getStyle(),
                 (int)(FONT_PTS_PER_INCH *
-                        (float)linePixelHeight/Toolkit.getDefaultToolkit().getScreenResolution()));
+                        (float)linePixelHeight/screenResolution()));
+    }
+
+    private static int screenResolution() {
+        if(GraphicsEnvironment.isHeadless())
+            return HEADLESS_SCREEN_RESOLUTION;
+        return Toolkit.getDefaultToolkit().getScreenResolution();
     }
 }
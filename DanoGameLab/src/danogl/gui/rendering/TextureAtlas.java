@@ -0,0 +1,102 @@
+package danogl.gui.rendering;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs images into a few large pages, so that many different sprites are drawn from
+ * the same image. Drawing from fewer, larger images lets Java2D keep them accelerated and
+ * lets a {@link SpriteBatch} group the draws of a frame by page.
+ * <br>Images are packed in the order they are added, into rows ("shelves") of each page.
+ * The pages are in the format of the screen (see {@link CompatibleImages}).
+ * Images larger than half a page are not packed, since they gain nothing from sharing one.
+ * Typically, an atlas is passed to {@link danogl.gui.ImageReader#setAtlas(TextureAtlas)}, which
+ * then packs every image it reads.
+ */
+public class TextureAtlas {
+    /** The width and height, in pixels, of the pages of an atlas created with the default constructor */
+    public static final int DEFAULT_PAGE_SIZE = 2048;
+    //transparent pixels between images, so that scaled images do not sample their neighbors
+    private static final int PADDING = 1;
+
+    private final int pageSize;
+    private final List<BufferedImage> pages = new ArrayList<>();
+    //the shelf being filled in the last page
+    private int shelfX, shelfY, shelfHeight;
+    //the position reserved by the last successful call to reserve
+    private int reservedX, reservedY;
+
+    /**
+     * Creates an atlas with pages of the default size.
+     */
+    public TextureAtlas() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Creates an atlas.
+     * @param pageSize the width and height, in pixels, of each page
+     * @throws IllegalArgumentException if pageSize is not positive
+     */
+    public TextureAtlas(int pageSize) {
+        if(pageSize <= 0)
+            throw new IllegalArgumentException("Page size must be positive");
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Copies an image into a page of the atlas.
+     * @param image the image to pack. The image itself is not changed.
+     * @return an ImageRenderable of the same image that is drawn from its page, or the given
+     * image if it is too large to be packed or was already packed
+     */
+    public ImageRenderable add(ImageRenderable image) {
+        if(image.isPacked())
+            return image;
+        int width = image.width(), height = image.height();
+        if(width > pageSize/2 || height > pageSize/2)
+            return image;
+        if(pages.isEmpty() || !reserve(width, height)) {
+            pages.add(createPage());
+            shelfX = shelfY = shelfHeight = 0;
+            reserve(width, height);
+        }
+        var page = pages.get(pages.size()-1);
+        Graphics2D g = page.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image.getImage(), reservedX, reservedY, null);
+        g.dispose();
+        return new ImageRenderable(page, reservedX, reservedY, width, height);
+    }
+
+    /**
+     * The number of pages the images were packed into so far.
+     */
+    public int pageCount() {
+        return pages.size();
+    }
+
+    //reserves room for an image on the last page, if there is any
+    private boolean reserve(int width, int height) {
+        if(pages.isEmpty())
+            return false;
+        if(shelfX + width > pageSize) {
+            //start a new shelf below the current one
+            shelfY += shelfHeight;
+            shelfX = shelfHeight = 0;
+        }
+        if(shelfY + height > pageSize)
+            return false;
+        reservedX = shelfX;
+        reservedY = shelfY;
+        shelfX += width + PADDING;
+        shelfHeight = Math.max(shelfHeight, height + PADDING);
+        return true;
+    }
+
+    private BufferedImage createPage() {
+        return CompatibleImages.create(pageSize, pageSize, Transparency.TRANSLUCENT);
+    }
+}
@@ -0,0 +1,222 @@
+package danogl.gui.rendering;
+
+import danogl.GameObject;
+import danogl.components.GameObjectPhysics;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A grid of colored tiles held by a single object, for worlds made of many equal
+ * blocks (such as terrain). The tiles are kept in a dense array, and only the tiles
+ * within the Graphics2D's clip are drawn, as rows of filled rectangles, where
+ * neighboring tiles of the same color are filled together.
+ * <br>The tile map itself is left out of the collision detection (see
+ * {@link danogl.components.GameObjectPhysics#setCollisionFilter(int, int)}). Instead,
+ * {@link #createColliders()} creates immovable objects covering its solid tiles, merged
+ * into as few boxes as the columns allow, which should be added to the game alongside it.
+ */
+public class TileMap extends GameObject {
+    private final int columns, rows;
+    //the palette index of each tile plus one, row by row, where 0 is an empty tile
+    private final int[] tiles;
+    private final List<Color> palette = new ArrayList<>();
+    private final Map<Color, Integer> paletteIndices = new HashMap<>();
+    private final ConfigureGraphics configureGraphics = new ConfigureGraphics();
+
+    /**
+     * Creates an empty tile map.
+     * @param topLeftCorner the world-coordinates of the top-left corner of the map
+     * @param columns the number of tiles in a row
+     * @param rows the number of tiles in a column
+     * @param tileSize the width and height, in world-coordinates, of each tile
+     * @throws IllegalArgumentException if columns, rows or tileSize are not positive
+     */
+    public TileMap(Vector2 topLeftCorner, int columns, int rows, float tileSize) {
+        super(topLeftCorner, new Vector2(columns, rows).mult(tileSize), null);
+        if(columns <= 0 || rows <= 0)
+            throw new IllegalArgumentException("A tile map must have at least one row and column");
+        if(!(tileSize > 0))
+            throw new IllegalArgumentException("Tile size must be positive");
+        this.columns = columns;
+        this.rows = rows;
+        tiles = new int[columns*rows];
+        renderer().setRenderable(this::renderTiles);
+        //its colliders collide instead
+        physics().setCollisionFilter(0, 0);
+    }
+
+    /**
+     * The number of tiles in a row.
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * The number of tiles in a column.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Sets the color of a tile.
+     * @param color the color of the tile, or null to leave the tile empty
+     * @throws IndexOutOfBoundsException if the tile is not in the map
+     */
+    public void setTile(int column, int row, Color color) {
+        int ind = indexOf(column, row);
+        if(color == null) {
+            tiles[ind] = 0;
+            return;
+        }
+        var paletteIndex = paletteIndices.get(color);
+        if(paletteIndex == null) {
+            paletteIndex = palette.size();
+            palette.add(color);
+            paletteIndices.put(color, paletteIndex);
+        }
+        tiles[ind] = paletteIndex + 1;
+    }
+
+    /**
+     * The color of a tile, or null if it is empty.
+     * @throws IndexOutOfBoundsException if the tile is not in the map
+     */
+    public Color getTile(int column, int row) {
+        int tile = tiles[indexOf(column, row)];
+        return tile == 0 ? null : palette.get(tile - 1);
+    }
+
+    /**
+     * Whether a tile has a color.
+     * @throws IndexOutOfBoundsException if the tile is not in the map
+     */
+    public boolean isSolid(int column, int row) {
+        return tiles[indexOf(column, row)] != 0;
+    }
+
+    /**
+     * Creates immovable objects that together cover exactly the solid tiles of the map,
+     * where it is currently placed. Each column's uninterrupted runs of solid tiles are
+     * covered by one box, and boxes of neighboring columns with the same runs are merged.
+     * The objects have no renderable, and the map's tag.
+     * The objects do not follow later changes to the map or its position.
+     * @return the objects, from the left column to the right and from the top down
+     */
+    public List<GameObject> createColliders() {
+        var colliders = new ArrayList<GameObject>();
+        //the boxes reaching the previous column, each as its first column, first row and end row
+        List<int[]> open = new ArrayList<>();
+        for(int column = 0 ; column <= columns ; column++) {
+            List<int[]> stillOpen = new ArrayList<>();
+            int openInd = 0;
+            int row = 0;
+            while(column < columns && row < rows) {
+                if(!isSolid(column, row)) {
+                    row++;
+                    continue;
+                }
+                int runStart = row;
+                while(row < rows && isSolid(column, row))
+                    row++;
+                //the open boxes are sorted by rows, as are the runs
+                while(openInd < open.size() && open.get(openInd)[1] < runStart)
+                    closeBox(open.get(openInd++), column, colliders);
+                if(openInd < open.size()
+                        && open.get(openInd)[1] == runStart && open.get(openInd)[2] == row)
+                    stillOpen.add(open.get(openInd++));
+                else
+                    stillOpen.add(new int[] {column, runStart, row});
+            }
+            while(openInd < open.size())
+                closeBox(open.get(openInd++), column, colliders);
+            open = stillOpen;
+        }
+        colliders.sort((a, b) -> {
+            int byX = Float.compare(a.getTopLeftCorner().x(), b.getTopLeftCorner().x());
+            return byX != 0 ? byX : Float.compare(a.getTopLeftCorner().y(), b.getTopLeftCorner().y());
+        });
+        return colliders;
+    }
+
+    private void closeBox(int[] box, int endColumn, List<GameObject> colliders) {
+        float tileWidth = getDimensions().x()/columns, tileHeight = getDimensions().y()/rows;
+        var collider = new GameObject(
+                getTopLeftCorner().add(new Vector2(box[0]*tileWidth, box[1]*tileHeight)),
+                new Vector2((endColumn - box[0])*tileWidth, (box[2] - box[1])*tileHeight),
+                null);
+        collider.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        collider.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+        collider.setTag(getTag());
+        colliders.add(collider);
+    }
+
+    private int indexOf(int column, int row) {
+        if(column < 0 || column >= columns || row < 0 || row >= rows)
+            throw new IndexOutOfBoundsException(
+                    "Tile (" + column + ", " + row + ") is not in a " + columns + "x" + rows + " map");
+        return row*columns + column;
+    }
+
+    private void renderTiles(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                             double degreesCounterClockwise,
+                             boolean isFlippedHorizontally, boolean isFlippedVertically,
+                             double opaqueness) {
+        configureGraphics.init(g, topLeftCorner, dimensions, degreesCounterClockwise, opaqueness);
+        configureGraphics.setRotation();
+        configureGraphics.setOpaqueness();
+        float left = topLeftCorner.x(), top = topLeftCorner.y();
+        float tileWidth = dimensions.x()/columns, tileHeight = dimensions.y()/rows;
+
+        //the tiles in the clip; a rotated map is drawn whole
+        int firstColumn = 0, endColumn = columns, firstRow = 0, endRow = rows;
+        Rectangle view = g.getClipBounds();
+        if(view == null)
+            view = g.getDeviceConfiguration().getBounds();
+        if(degreesCounterClockwise == 0) {
+            firstColumn = Math.max(0, (int)Math.floor((view.x - left)/tileWidth));
+            endColumn = Math.min(columns, (int)Math.ceil((view.x + view.width - left)/tileWidth));
+            firstRow = Math.max(0, (int)Math.floor((view.y - top)/tileHeight));
+            endRow = Math.min(rows, (int)Math.ceil((view.y + view.height - top)/tileHeight));
+        }
+
+        //tiles are whole pixels that meet exactly, so they look the same without antialiasing
+        boolean isAntialiasingSkipped = degreesCounterClockwise == 0
+                && g.getRenderingHint(RenderingHints.KEY_ANTIALIASING) == RenderingHints.VALUE_ANTIALIAS_ON;
+        if(isAntialiasingSkipped)
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        int currentTile = 0;
+        for(int screenRow = firstRow ; screenRow < endRow ; screenRow++) {
+            int row = isFlippedVertically ? rows - 1 - screenRow : screenRow;
+            int y = (int)Math.floor(top + screenRow*tileHeight);
+            int height = (int)Math.floor(top + (screenRow + 1)*tileHeight) - y;
+            int screenColumn = firstColumn;
+            while(screenColumn < endColumn) {
+                int tile = tiles[row*columns
+                        + (isFlippedHorizontally ? columns - 1 - screenColumn : screenColumn)];
+                int runStart = screenColumn++;
+                if(tile == 0)
+                    continue;
+                //neighboring tiles of the same color are filled at once
+                while(screenColumn < endColumn && tiles[row*columns
+                        + (isFlippedHorizontally ? columns - 1 - screenColumn : screenColumn)] == tile)
+                    screenColumn++;
+                if(tile != currentTile) {
+                    g.setColor(palette.get(tile - 1));
+                    currentTile = tile;
+                }
+                int x = (int)Math.floor(left + runStart*tileWidth);
+                g.fillRect(x, y, (int)Math.floor(left + screenColumn*tileWidth) - x, height);
+            }
+        }
+        if(isAntialiasingSkipped)
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        configureGraphics.rollbackChanges();
+    }
+}
@@ -0,0 +1,30 @@
+package danogl.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * package-private. A Java Flight Recorder event committed by a {@link FrameProfiler}
+ * for every frame it records.
+ */
+@Name("danogl.Frame")
+@Label("Frame")
+@Category("DanoGameLab")
+@Description("The durations of the phases of a game frame, in milliseconds")
+class FrameEvent extends Event {
+    @Label("Frame") double frameMillis;
+    @Label("Object Update") double objectUpdateMillis;
+    @Label("Camera Update") double cameraUpdateMillis;
+    @Label("Collection Flush") double collectionFlushMillis;
+    @Label("Collisions") double collisionsMillis;
+    @Label("Render") double renderMillis;
+    @Label("Present") double presentMillis;
+    @Label("Objects") int objects;
+    @Label("Pairs Checked") int pairs;
+    @Label("Objects Culled") int culled;
+    @Label("Allocated") @DataAmount long allocatedBytes;
+}
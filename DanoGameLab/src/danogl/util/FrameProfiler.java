@@ -0,0 +1,252 @@
+package danogl.util;
+
+import jdk.jfr.EventType;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records how long each phase of a frame took, how many objects and collision pairs the frame
+ * handled, how many objects were culled from rendering, and how many bytes it allocated, for the last {@link #CAPACITY} frames.
+ * <br>To use, pass an instance to {@link danogl.GameManager#setFrameProfiler(FrameProfiler)};
+ * the game loop, windowed or headless, then records every frame. The frames can be viewed
+ * in-game with {@link ProfilerOverlay}, read over JMX after {@link #registerMBean()}, and
+ * recorded by Java Flight Recorder as "danogl.Frame" events.
+ * <br>Frames are recorded by the thread running the game loop, into a ring buffer of arrays.
+ * Other threads can read it without locking: a frame is published only after it was written,
+ * and a reader that the writer overtook while it was reading reads again.
+ * <br>Allocations are those of the game loop's thread, if the JVM can measure them
+ * (otherwise they are reported as -1); objects updated on an update pool
+ * (see {@link danogl.GameManager#setUpdatePool}) are not included.
+ */
+public class FrameProfiler implements FrameProfilerMXBean {
+    /** The number of most recent frames kept */
+    public static final int CAPACITY = 256;
+    //one slot more than the frames kept, for the frame being written while others are read
+    private static final int SLOTS = CAPACITY + 1;
+    private static final int PHASE_COUNT = Phase.values().length;
+    private static final Phase[] PHASES = Phase.values();
+
+    /**
+     * The phases of a frame.
+     */
+    public enum Phase {
+        /** Updating the game objects, and integrating the transform world if there is one */
+        OBJECT_UPDATE,
+        /** Updating the camera */
+        CAMERA_UPDATE,
+        /** Applying the additions and removals of game objects */
+        COLLECTION_FLUSH,
+        /** Finding and handling collisions */
+        COLLISIONS,
+        /** Drawing the game objects */
+        RENDER,
+        /** Showing the drawn frame on the screen */
+        PRESENT
+    }
+
+    //the frame at index i is kept at slot i % SLOTS
+    private final long[] phaseNanos = new long[SLOTS*PHASE_COUNT];
+    private final long[] frameNanos = new long[SLOTS];
+    private final long[] objectCounts = new long[SLOTS];
+    private final long[] pairCounts = new long[SLOTS];
+    private final long[] culledCounts = new long[SLOTS];
+    private final long[] allocatedBytes = new long[SLOTS];
+    //the number of frames recorded; written only after the frame's slot was written
+    private volatile long framesRecorded = 0;
+
+    //the frame being recorded
+    private final long[] currentPhaseNanos = new long[PHASE_COUNT];
+    private long frameStartNanos;
+    private long frameStartAllocatedBytes;
+    private int currentObjectCount, currentPairCount, currentCulledCount;
+    private boolean isFrameStarted = false;
+
+    private final com.sun.management.ThreadMXBean threadBean = allocationMeasuringBean();
+    private final EventType frameEventType = EventType.getEventType(FrameEvent.class);
+
+    /**
+     * Starts recording a frame. Called by the game loop.
+     */
+    public void beginFrame() {
+        Arrays.fill(currentPhaseNanos, 0);
+        currentObjectCount = currentPairCount = currentCulledCount = 0;
+        frameStartAllocatedBytes = threadAllocatedBytes();
+        frameStartNanos = System.nanoTime();
+        isFrameStarted = true;
+    }
+
+    /**
+     * Adds to the time a phase took in the current frame (a phase can run several times
+     * in a frame, for example several updates in a fixed-timestep frame).
+     */
+    public void addPhaseNanos(Phase phase, long nanos) {
+        currentPhaseNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Sets the number of objects in the current frame.
+     */
+    public void setObjectCount(int objectCount) {
+        currentObjectCount = objectCount;
+    }
+
+    /**
+     * Adds to the number of pairs checked for collisions in the current frame.
+     */
+    public void addPairCount(int pairCount) {
+        currentPairCount += pairCount;
+    }
+
+    /**
+     * Adds to the number of objects that were not rendered in the current frame
+     * because they were outside the camera's view.
+     */
+    public void addCulledCount(int culledCount) {
+        currentCulledCount += culledCount;
+    }
+
+    /**
+     * Finishes recording the current frame and publishes it. Called by the game loop.
+     * Does nothing if no frame was started.
+     */
+    public void endFrame() {
+        if(!isFrameStarted)
+            return;
+        isFrameStarted = false;
+        long frame = framesRecorded;
+        int slot = (int)(frame % SLOTS);
+        frameNanos[slot] = System.nanoTime() - frameStartNanos;
+        System.arraycopy(currentPhaseNanos, 0, phaseNanos, slot*PHASE_COUNT, PHASE_COUNT);
+        objectCounts[slot] = currentObjectCount;
+        pairCounts[slot] = currentPairCount;
+        culledCounts[slot] = currentCulledCount;
+        long allocatedNow = threadAllocatedBytes();
+        allocatedBytes[slot] = allocatedNow < 0 ? -1 : allocatedNow - frameStartAllocatedBytes;
+        framesRecorded = frame + 1;
+        if(frameEventType.isEnabled())
+            commitFrameEvent(slot);
+    }
+
+    /**
+     * Registers this profiler with the platform's MBean server, under the name
+     * "danogl:type=FrameProfiler", replacing a profiler registered before it.
+     * @throws IllegalStateException if the registration fails
+     */
+    public void registerMBean() {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(MBEAN_NAME);
+            if(server.isRegistered(name))
+                server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register the frame profiler", e);
+        }
+    }
+
+    @Override
+    public long getFramesRecorded() {
+        return framesRecorded;
+    }
+
+    /**
+     * The number of recorded frames that are still kept, at most {@link #CAPACITY}.
+     */
+    public int framesAvailable() {
+        return (int)Math.min(framesRecorded, CAPACITY);
+    }
+
+    @Override
+    public double getAverageFrameMillis() {
+        return average(frameNanos, 1, 0) / 1_000_000;
+    }
+
+    @Override
+    public Map<String, Double> getAveragePhaseMillis() {
+        Map<String, Double> averages = new LinkedHashMap<>();
+        for(var phase : PHASES)
+            averages.put(phase.name(), averagePhaseMillis(phase));
+        return averages;
+    }
+
+    /**
+     * The average time, in milliseconds, a phase took in the recent frames.
+     */
+    public double averagePhaseMillis(Phase phase) {
+        return average(phaseNanos, PHASE_COUNT, phase.ordinal()) / 1_000_000;
+    }
+
+    @Override
+    public double getAverageObjectCount() {
+        return average(objectCounts, 1, 0);
+    }
+
+    @Override
+    public double getAveragePairCount() {
+        return average(pairCounts, 1, 0);
+    }
+
+    @Override
+    public double getAverageCulledCount() {
+        return average(culledCounts, 1, 0);
+    }
+
+    @Override
+    public double getAverageAllocatedBytes() {
+        return average(allocatedBytes, 1, 0);
+    }
+
+    //the average over the kept frames of values[slot*stride + offset].
+    //values of frames that are overwritten while reading are discarded by retrying
+    private double average(long[] values, int stride, int offset) {
+        while(true) {
+            long end = framesRecorded;
+            long start = Math.max(0, end - CAPACITY);
+            if(end == start)
+                return 0;
+            double sum = 0;
+            for(long frame = start ; frame < end ; frame++)
+                sum += values[(int)(frame % SLOTS)*stride + offset];
+            //the writer may have moved on to the oldest frame's slot meanwhile
+            if(framesRecorded - start <= CAPACITY)
+                return sum / (end - start);
+        }
+    }
+
+    private void commitFrameEvent(int slot) {
+        var event = new FrameEvent();
+        event.frameMillis = frameNanos[slot] / 1_000_000D;
+        int phases = slot*PHASE_COUNT;
+        event.objectUpdateMillis = phaseNanos[phases + Phase.OBJECT_UPDATE.ordinal()] / 1_000_000D;
+        event.cameraUpdateMillis = phaseNanos[phases + Phase.CAMERA_UPDATE.ordinal()] / 1_000_000D;
+        event.collectionFlushMillis = phaseNanos[phases + Phase.COLLECTION_FLUSH.ordinal()] / 1_000_000D;
+        event.collisionsMillis = phaseNanos[phases + Phase.COLLISIONS.ordinal()] / 1_000_000D;
+        event.renderMillis = phaseNanos[phases + Phase.RENDER.ordinal()] / 1_000_000D;
+        event.presentMillis = phaseNanos[phases + Phase.PRESENT.ordinal()] / 1_000_000D;
+        event.objects = (int)objectCounts[slot];
+        event.pairs = (int)pairCounts[slot];
+        event.culled = (int)culledCounts[slot];
+        event.allocatedBytes = allocatedBytes[slot];
+        event.commit();
+    }
+
+    private long threadAllocatedBytes() {
+        return threadBean == null ? -1 : threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMeasuringBean() {
+        var bean = ManagementFactory.getThreadMXBean();
+        if(!(bean instanceof com.sun.management.ThreadMXBean))
+            return null;
+        var allocationBean = (com.sun.management.ThreadMXBean) bean;
+        if(!allocationBean.isThreadAllocatedMemorySupported())
+            return null;
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        return allocationBean;
+    }
+}
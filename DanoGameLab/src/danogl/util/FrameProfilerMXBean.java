@@ -0,0 +1,34 @@
+package danogl.util;
+
+import java.util.Map;
+
+/**
+ * The management interface of a {@link FrameProfiler}, through which tools such as
+ * JConsole or VisualVM read the averages of the recent frames.
+ * @see FrameProfiler#registerMBean()
+ */
+public interface FrameProfilerMXBean {
+    /** The name under which {@link FrameProfiler#registerMBean()} registers the profiler */
+    String MBEAN_NAME = "danogl:type=FrameProfiler";
+
+    /** The number of frames recorded since the profiler was created */
+    long getFramesRecorded();
+
+    /** The average duration, in milliseconds, of the recent frames */
+    double getAverageFrameMillis();
+
+    /** The average duration, in milliseconds, of each phase in the recent frames, by phase name */
+    Map<String, Double> getAveragePhaseMillis();
+
+    /** The average number of objects in the recent frames */
+    double getAverageObjectCount();
+
+    /** The average number of pairs checked for collisions in the recent frames */
+    double getAveragePairCount();
+
+    /** The average number of objects not rendered for being outside the camera's view in the recent frames */
+    double getAverageCulledCount();
+
+    /** The average number of bytes allocated by the game loop in the recent frames, or -1 if unknown */
+    double getAverageAllocatedBytes();
+}
@@ -1,14 +1,22 @@
 package danogl.util;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
  * Represents a list that can be modified while iterated,
- * as opposed to Java's builtin lists
+ * as opposed to Java's builtin lists.
+ * <br>Elements are told apart by identity (==) rather than by equals, so adding, removing
+ * and looking up an element take constant time whatever the element type, and applying
+ * the changes takes time linear in the size of the list.
  * @param <E> The element type
  * @author Dan Nirel
  */
@@ -46,25 +54,29 @@ public class ModifiableList<E> implements Iterable<E> {
     private class Reverse implements Iterable<E> {
         @Override
         public Iterator<E> iterator() {
-            if(iterator.tryReset(list.size()-1, -1, -1))
-                return iterator;
-            var newIt = new MyIterator();
-            newIt.tryReset(list.size()-1, -1, -1);
-            return newIt;
+            return obtainIterator(list.size()-1, -1, -1);
         }
     }
 
-    private List<E> list = new ArrayList<>();
+    //iterations nested deeper than this allocate their iterators
+    private static final int MAX_POOLED_ITERATORS = 4;
+
+    private ArrayList<E> list = new ArrayList<>();
     private List<E> toAdd = new ArrayList<>();
-    private List<E> toRemove = new ArrayList<>();
-    private MyIterator iterator = new MyIterator();
+    private Set<E> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+    //the number of occurrences of each element in list and in toAdd, for constant-time lookups
+    private Map<E, Integer> countInList = new IdentityHashMap<>();
+    private Map<E, Integer> countInToAdd = new IdentityHashMap<>();
+    //iterators not in use are reused, so that nested iterations do not allocate
+    private List<MyIterator> iterators = new ArrayList<>(MAX_POOLED_ITERATORS);
     private Reverse reverseIterable;
     private boolean allowDuplicates;
+    private int modificationCount = 0;
 
     /**
      * Creates a new modfiable list
      * @param allowDuplicates whether the list should allow duplicate elements
-     *                        (elements that are "equal" according to equals)
+     *                        (the same object more than once)
      */
     public ModifiableList(boolean allowDuplicates) {
         this.allowDuplicates = allowDuplicates;
@@ -78,41 +90,69 @@ public class ModifiableList<E> implements Iterable<E> {
      * if the list does not allow duplicates and the element was already added.
      */
     public boolean add(E item) {
-        if(!allowDuplicates && (toAdd.contains(item) || list.contains(item)))
+        if(!allowDuplicates && (countInToAdd.containsKey(item) || countInList.containsKey(item)))
             return false;
         toAdd.add(item);
+        countInToAdd.merge(item, 1, Integer::sum);
         return true;
     }
 
     /**
      * Remove an element from the list. More specifically, it removes the first
-     * element in the list that "equals" the specified item.
+     * occurrence of the specified object in the list.
      * The element is not removed immediately;
      * it's stored in a temporary buffer whose contents is only removed from the list
      * on the next call to {@link #flushChanges()}. If the element in question was
      * added recently, before a call to flushChanges, the method will remove it from
      * the buffer waiting to be added.
-     * <br>Note: in order to remove all elements equal to the argument, flushChanges must be called
+     * <br>Note: in order to remove all occurrences of the argument, flushChanges must be called
      * in between calls to this method.
      * @return true iff some element will indeed be removed. If the element was already removed
      * recently, before a call to flushChanges, the method will return false and have no effect.
      */
     public boolean remove(E item) {
-        boolean removedFromToAdd = toAdd.remove(item);
-        if(!list.contains(item) || toRemove.contains(item))
+        boolean removedFromToAdd = false;
+        //toAdd is only scanned if the element is known to be in it
+        if(countInToAdd.containsKey(item)) {
+            removeFirstOccurrence(toAdd, item);
+            decrement(countInToAdd, item);
+            removedFromToAdd = true;
+        }
+        if(!countInList.containsKey(item))
             return removedFromToAdd;
-        toRemove.add(item);
-        return true;
+        return toRemove.add(item) || removedFromToAdd;
     }
 
     /**
      * Applies to the list the modifications made to it since the last call to this method.
      */
     public void flushChanges() {
-        list.removeAll(toRemove);
-        toRemove.clear();
-        list.addAll(toAdd);
-        toAdd.clear();
+        if(!toRemove.isEmpty() || !toAdd.isEmpty())
+            modificationCount++;
+        if(!toRemove.isEmpty()) {
+            //a single pass that keeps the order of the remaining elements
+            list.removeIf(toRemove::contains);
+            for(E item : toRemove)
+                countInList.remove(item);
+            toRemove.clear();
+        }
+        //addAll copies toAdd into a new array, even when it is empty
+        if(!toAdd.isEmpty()) {
+            for(int i = 0 ; i < toAdd.size() ; i++)
+                countInList.merge(toAdd.get(i), 1, Integer::sum);
+            list.addAll(toAdd);
+            toAdd.clear();
+            countInToAdd.clear();
+        }
+    }
+
+    /**
+     * Returns a number that changes whenever {@link #flushChanges()} applies
+     * pending modifications to the list. Can be used to cache data derived from the
+     * list's contents and indices, and recompute it only when the list actually changes.
+     */
+    public int modificationCount() {
+        return modificationCount;
     }
 
     /**
@@ -139,16 +179,39 @@ public class ModifiableList<E> implements Iterable<E> {
      * would still remain after the removal is applied.
      */
     public boolean contains(E item) {
-        return (list.contains(item) || toAdd.contains(item)) && !toRemove.contains(item);
+        return (countInList.containsKey(item) || countInToAdd.containsKey(item))
+                && !toRemove.contains(item);
     }
 
+    /**
+     * Returns an iterator over the list, in order.
+     * The iterator is reused once it is exhausted, so iterating does not allocate,
+     * unless many iterations are nested or left unfinished (e.g. with a break).
+     * Prefer {@link #forEach(Consumer)} in such cases.
+     */
     @Override
     public Iterator<E> iterator() {
-        if(iterator.tryReset(0, 1, list.size()))
-            return iterator;
-        var newIt = new MyIterator();
-        newIt.tryReset(0, 1, list.size());
-        return newIt;
+        return obtainIterator(0, 1, list.size());
+    }
+
+    /**
+     * Performs the action for each element, in order, without allocating.
+     * As with iterating, changes made during the iteration are only applied on the next
+     * call to {@link #flushChanges()}.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for(int i = 0 ; i < list.size() ; i++)
+            action.accept(list.get(i));
+    }
+
+    /**
+     * Performs the action for each element, in reverse order, without allocating.
+     * @see #forEach(Consumer)
+     */
+    public void forEachInReverse(Consumer<? super E> action) {
+        for(int i = list.size()-1 ; i >= 0 ; i--)
+            action.accept(list.get(i));
     }
 
     @Override
@@ -170,14 +233,43 @@ public class ModifiableList<E> implements Iterable<E> {
      * or null if none is found.
      */
     public E findFirst(Predicate<E> predicate) {
-        for(E el : this) {
+        //indices rather than iterators, since returning early would leave an iterator in use
+        for(int i = 0 ; i < list.size() ; i++) {
+            var el = list.get(i);
             if(!toRemove.contains(el) && predicate.test(el))
                 return el;
         }
-        for(E el : toAdd) {
+        for(int i = 0 ; i < toAdd.size() ; i++) {
+            var el = toAdd.get(i);
             if(predicate.test(el))
                 return el;
         }
         return null;
     }
+
+    private MyIterator obtainIterator(int startIndex, int indexStep, int illegalIndex) {
+        for(int i = 0 ; i < iterators.size() ; i++) {
+            if(iterators.get(i).tryReset(startIndex, indexStep, illegalIndex))
+                return iterators.get(i);
+        }
+        var newIt = new MyIterator();
+        newIt.tryReset(startIndex, indexStep, illegalIndex);
+        if(iterators.size() < MAX_POOLED_ITERATORS)
+            iterators.add(newIt);
+        return newIt;
+    }
+
+    private static <E> void removeFirstOccurrence(List<E> items, E item) {
+        for(int i = 0 ; i < items.size() ; i++) {
+            if(items.get(i) == item) {
+                items.remove(i);
+                return;
+            }
+        }
+    }
+
+    private static <E> void decrement(Map<E, Integer> counts, E item) {
+        if(counts.merge(item, -1, Integer::sum) == 0)
+            counts.remove(item);
+    }
 }
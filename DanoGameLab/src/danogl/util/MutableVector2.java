@@ -1,8 +1,5 @@
 package danogl.util;
 
-import java.util.function.Function;
-import java.util.function.Supplier;
-
 /**
  * A mutable 2D vector, extending Vector2.
  * All methods are self explanatory, with most corresponding to
@@ -16,10 +13,6 @@ import java.util.function.Supplier;
  * @author Dan Nirel
  */
 public class MutableVector2 extends Vector2 {
-    private static interface FloatToVecFunction {
-        Vector2 apply(float f);
-    }
-
     private boolean mutateSelf = false;
 
     public MutableVector2() { super(0, 0); }
@@ -31,20 +24,22 @@ public class MutableVector2 extends Vector2 {
     public void setXY(float x, float y) { setX(x); setY(y); }
     public void setXY(Vector2 v) { setX(v.x); setY(v.y); }
 
-    public MutableVector2 selfMult(float factor) { return mutableOperator(this::mult, factor); }
-    public MutableVector2 selfMultX(float factor) { return mutableOperator(this::multX, factor); }
-    public MutableVector2 selfMultY(float factor) { return mutableOperator(this::multY, factor); }
-    public MutableVector2 selfAdd(Vector2 v) { return mutableOperator(this::add, v); }
-    public MutableVector2 selfSubtract(Vector2 v) { return mutableOperator(this::subtract, v); }
+    //the operators call the superclass's method directly rather than through a method
+    //reference, which would allocate a new object on every call
+    public MutableVector2 selfMult(float factor) { mutateSelf = true; mult(factor); return endMutation(); }
+    public MutableVector2 selfMultX(float factor) { mutateSelf = true; multX(factor); return endMutation(); }
+    public MutableVector2 selfMultY(float factor) { mutateSelf = true; multY(factor); return endMutation(); }
+    public MutableVector2 selfAdd(Vector2 v) { mutateSelf = true; add(v); return endMutation(); }
+    public MutableVector2 selfSubtract(Vector2 v) { mutateSelf = true; subtract(v); return endMutation(); }
 
     public MutableVector2 selfZeroAlongNormal(Vector2 normal)
-            { return mutableOperator(this::zeroedAlongNormal, normal); }
+            { mutateSelf = true; zeroedAlongNormal(normal); return endMutation(); }
     public MutableVector2 selfFlip(Vector2 normal)
-            { return mutableOperator(this::flipped, normal);}
+            { mutateSelf = true; flipped(normal); return endMutation(); }
     public MutableVector2 selfRotateToNearestAxis()
-            { return mutableOperator(this::rotatedToNearestAxis); }
+            { mutateSelf = true; rotatedToNearestAxis(); return endMutation(); }
     public MutableVector2 selfRotate(float degreesCounterclockwise)
-            { return mutableOperator(this::rotated, degreesCounterclockwise); }
+            { mutateSelf = true; rotated(degreesCounterclockwise); return endMutation(); }
 
     public MutableVector2 selfNormalize() {
         if(isZero())
@@ -66,23 +61,7 @@ public class MutableVector2 extends Vector2 {
         return this;
     }
 
-    private MutableVector2 mutableOperator(Function<Vector2, Vector2> method, Vector2 param){
-        mutateSelf = true;
-        method.apply(param);
-        mutateSelf = false;
-        return this;
-    }
-
-    private MutableVector2 mutableOperator(FloatToVecFunction method, float param) {
-        mutateSelf = true;
-        method.apply(param);
-        mutateSelf = false;
-        return this;
-    }
-
-    private MutableVector2 mutableOperator(Supplier<Vector2> method) {
-        mutateSelf = true;
-        method.get();
+    private MutableVector2 endMutation() {
         mutateSelf = false;
         return this;
     }
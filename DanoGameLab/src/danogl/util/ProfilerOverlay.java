@@ -0,0 +1,60 @@
+package danogl.util;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.components.ScheduledTask;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.FrameProfiler.Phase;
+
+import java.awt.*;
+
+/**
+ * A factory for a GameObject that displays the averages of the recent frames
+ * recorded by a {@link FrameProfiler}: the duration of each phase, the number of objects,
+ * of pairs checked for collisions and of objects culled from rendering, and the bytes allocated.
+ */
+public class ProfilerOverlay {
+    private static final float TIME_BETWEEN_REFRESHES = 0.5f;
+
+    private ProfilerOverlay() { }
+
+    /**
+     * Create a GameObject that displays the frames recorded by the profiler. Like any GameObject,
+     * this object needs to be added to a GameObjectCollection or otherwise updated and rendered
+     * in order to work. If added to GameObjectCollection, make sure as usual to add it AFTER any
+     * other GameObjects that might occupy the same place on the screen.
+     * @param profiler the profiler whose frames are displayed; it should also be passed to
+     *                 {@link danogl.GameManager#setFrameProfiler(FrameProfiler)}
+     * @param topLeftCorner The upper-left corner of the overlay.
+     * @param height Height, in pixels, of each of the overlay's two lines.
+     */
+    public static GameObject create(FrameProfiler profiler, Vector2 topLeftCorner, int height, Color color) {
+        GameObject overlay = new GameObject(topLeftCorner, Vector2.DOWN.mult(2*height), null);
+        TextRenderable text = new TextRenderable("");
+        text.setColor(color);
+        new ScheduledTask(
+                overlay, TIME_BETWEEN_REFRESHES, true,
+                ()->text.setString(describe(profiler)));
+        overlay.renderer().setRenderable(text);
+        overlay.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        return overlay;
+    }
+
+    private static String describe(FrameProfiler profiler) {
+        double allocatedBytes = profiler.getAverageAllocatedBytes();
+        return String.format(
+                "frame %.2fms: update %.2f camera %.2f flush %.2f collisions %.2f render %.2f present %.2f\n"
+                        + "objects %.0f, pairs %.0f, culled %.0f, allocated %s/frame",
+                profiler.getAverageFrameMillis(),
+                profiler.averagePhaseMillis(Phase.OBJECT_UPDATE),
+                profiler.averagePhaseMillis(Phase.CAMERA_UPDATE),
+                profiler.averagePhaseMillis(Phase.COLLECTION_FLUSH),
+                profiler.averagePhaseMillis(Phase.COLLISIONS),
+                profiler.averagePhaseMillis(Phase.RENDER),
+                profiler.averagePhaseMillis(Phase.PRESENT),
+                profiler.getAverageObjectCount(),
+                profiler.getAveragePairCount(),
+                profiler.getAverageCulledCount(),
+                allocatedBytes < 0 ? "?" : String.format("%.1fKB", allocatedBytes/1024));
+    }
+}
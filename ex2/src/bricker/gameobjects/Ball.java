@@ -35,6 +35,8 @@ public class Ball extends GameObject {
                 Sound collisionSound) {
         super(topLeftCorner, dimensions, renderable);
         this.collisionSound = collisionSound;
+        //the ball is fast and the bricks are thin, so it shouldn't pass through them in one frame
+        physics().setContinuousCollisionDetection(true);
     }
 
     /**
@@ -8,6 +8,7 @@ import danogl.GameManager;
 import danogl.GameObject;
 import danogl.gui.*;
 import danogl.gui.rendering.Renderable;
+import danogl.gui.rendering.TextureAtlas;
 import danogl.util.Vector2;
 import bricker.gameobjects.Brick;
 import bricker.gameobjects.UserGraphic;
@@ -113,6 +114,10 @@ public class BrickerGameManager extends GameManager{
                 inputListener,
                 windowController);
         windowController.setTargetFramerate(80);
+        //the many bricks, balls and hearts are drawn from one image, in batches
+        if(imageReader.atlas() == null)
+            imageReader.setAtlas(new TextureAtlas());
+        setRenderBatching(true);
 
         /**
          * The images and sounds are read from the files.
@@ -2,6 +2,7 @@ package pepse;
 import danogl.GameManager;
 import danogl.GameObject;
 import danogl.collisions.Layer;
+import danogl.collisions.SweepAndPruneBroadPhase;
 import danogl.components.ScheduledTask;
 import danogl.gui.ImageReader;
 import danogl.gui.SoundReader;
@@ -13,13 +14,13 @@ import danogl.util.Vector2;
 import pepse.util.Const;
 import pepse.util.Observer;
 import pepse.world.Avatar;
-import pepse.world.Block;
 import pepse.world.Terrain;
 import pepse.world.trees.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -88,6 +89,17 @@ public class PepseGameManager extends GameManager {
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
 
         windowController.setTargetFramerate(80);
+        ///the world is a long horizontal strip, which suits sweep-and-prune
+        gameObjects().layers().setBroadPhase(new SweepAndPruneBroadPhase());
+        ///only the avatar collides with the terrain, the trunks and the fruits
+        gameObjects().layers().shouldLayersCollide(Layer.STATIC_OBJECTS, Layer.DEFAULT, false);
+        gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Layer.DEFAULT, false);
+        gameObjects().layers().shouldLayersCollide(Layer.STATIC_OBJECTS, Const.AVATAR_LAYER, true);
+        gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Const.AVATAR_LAYER, true);
+        ///the leaves, the sun and the night only animate themselves, so they update in parallel
+        setUpdatePool(ForkJoinPool.commonPool());
+        ///the terrain and trees reach far beyond the camera, so only what it sees is rendered
+        setRenderCulling(true);
 
         ///set the min and max x values
         minX = -150;
@@ -144,7 +156,7 @@ public class PepseGameManager extends GameManager {
                 windowDimensions.y() * (2.0f / 3.0f) - 50);
         this.avatar = new Avatar(avatarLocation, inputListener, imageReader, observer);
         avatarLocation = avatar.getCenter();
-        gameObjects().addGameObject(avatar);
+        gameObjects().addGameObject(avatar, Const.AVATAR_LAYER);
     }
 
 
@@ -156,9 +168,9 @@ public class PepseGameManager extends GameManager {
      * @param maxX the maximum x value
      */
     private void creatTerrainInRang(Terrain terrain, int minX, int maxX) {
-        List<Block> blocks = terrain.createInRange(minX, maxX);
-        for (Block block : blocks) {
-            gameObjects().addGameObject(block, Layer.STATIC_OBJECTS);
+        List<GameObject> ground = terrain.createInRange(minX, maxX);
+        for (GameObject gameObject : ground) {
+            gameObjects().addGameObject(gameObject, Layer.STATIC_OBJECTS);
         }
     }
 
@@ -199,14 +211,9 @@ public class PepseGameManager extends GameManager {
      * @param minX the minimum x value
      */
     private void removeObjectsFromLeft(float minX) {
-        ArrayList<Block> temp = new ArrayList<>();
-        for (Block gameObject :terrain.getAllTerrain()) {
-            if (gameObject.getTopLeftCorner().x() <= minX ) {
-                gameObjects().removeGameObject(gameObject,Layer.STATIC_OBJECTS);
-                temp.add(gameObject);
-            }
+        for (GameObject gameObject : terrain.removeFromLeft(minX)) {
+            gameObjects().removeGameObject(gameObject,Layer.STATIC_OBJECTS);
         }
-        terrain.getAllTerrain().removeAll(temp);
         flora.removeObjectsFromLeft(minX);
     }
 
@@ -215,14 +222,9 @@ public class PepseGameManager extends GameManager {
      * @param maxX the maximum x value
      */
     private void removeObjectsFromRight(float maxX) {
-        ArrayList<Block> temp = new ArrayList<>();
-        for (Block gameObject :terrain.getAllTerrain()) {
-            if (gameObject.getTopLeftCorner().x() >= maxX ) {
-                gameObjects().removeGameObject(gameObject,Layer.STATIC_OBJECTS);
-                temp.add(gameObject);
-            }
+        for (GameObject gameObject : terrain.removeFromRight(maxX)) {
+            gameObjects().removeGameObject(gameObject,Layer.STATIC_OBJECTS);
         }
-        terrain.getAllTerrain().removeAll(temp);
         flora.removeObjectsFromRight(maxX);
     }
 
@@ -1,5 +1,6 @@
 package pepse.util;
 
+import danogl.collisions.Layer;
 import danogl.util.Vector2;
 
 import java.awt.*;
@@ -128,4 +129,14 @@ public class Const {
      * Max energy
      */
     public static final float MAX_ENERGY = 1000.0f;
+
+    /**
+     * The avatar's layer. Blocks, trunks and fruits collide only with this layer
+     */
+    public static final int AVATAR_LAYER = Layer.DEFAULT + 1;
+    /**
+     * The leaves' layer, which collides with nothing. Drawn over the blocks and trunks,
+     * and behind the avatar and the fruits
+     */
+    public static final int LEAVES_LAYER = Layer.STATIC_OBJECTS + 1;
 }
@@ -4,7 +4,6 @@ import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.util.Const;
 
 /**
  * Class for creating the block object
@@ -26,14 +25,4 @@ public class Block extends GameObject {
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
     }
-
-    /**
-     * Checks if the block object should collide with another object
-     * @param other the other object
-     * @return true if the block object should collide with the other object
-     */
-    @Override
-    public boolean shouldCollideWith(GameObject other) {
-        return other.getTag().equals(Const.AvatarTag);
-    }
 }
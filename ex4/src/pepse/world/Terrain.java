@@ -1,19 +1,22 @@
 package pepse.world;
 
-import danogl.gui.rendering.RectangleRenderable;
+import danogl.GameObject;
+import danogl.gui.rendering.TileMap;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
 import pepse.util.NoiseGenerator;
-import pepse.util.UtilsFunction;
 
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
 /**
  * Class for creating the terrain object
  * creats land in the game
- * The terrain object is a rectangle that is the terrain
+ * The terrain is drawn by a few tile maps, and collides through the columns of their blocks
  */
 public class Terrain {
     private static final float initHeightFactor = 2.0f / 3.0f;
@@ -22,8 +25,11 @@ public class Terrain {
     private static final Color GROUND_COLOR  = new Color(212,123, 74);
     private static final float factorSize = Block.BLOCK_SIZE * 7;
     private static final int TERRAIN_DEPTH = 20;
+    private static final int CHUNK_COLUMNS = 8;
+    private static final int CHUNK_WIDTH = CHUNK_COLUMNS * Block.BLOCK_SIZE;
     private NoiseGenerator noiseGenerator ;
-    private final ArrayList<Block> allTerrain = new ArrayList<>();
+    ///the objects of each chunk, by its index
+    private final Map<Integer, List<GameObject>> chunks = new HashMap<>();
 
     /**
      * Creates the terrain object
@@ -38,50 +44,101 @@ public class Terrain {
 
     /**
      * Returns the height of the ground at a given x value
+     * The ground is made of blocks, so the height is the top of the block column at x
      * @param x the x value
      * @return the height of the ground at the x value
      */
     public float groundHeight(float x) {
-        return (float) noiseGenerator.noise(x, factorSize) + firsHeight;
+        float columnX = (float) Math.floor(x / Block.BLOCK_SIZE) * Block.BLOCK_SIZE;
+        float height = (float) noiseGenerator.noise(columnX, factorSize) + firsHeight;
+        return (float) Math.floor(height / Block.BLOCK_SIZE) * Block.BLOCK_SIZE;
     }
 
     /**
-     * Creates the terrain object
-     * The terrain object is a rectangle that is the terrain
+     * Creates the terrain in a range of x values
+     * The terrain is made of chunks of CHUNK_COLUMNS block columns, each a single tile map
+     * and the colliders of its columns, so a chunk that already exists is not created again
      * @param minX the minimum x value
      * @param maxX the maximum x value
-     * @return the list of blocks that make up the terrain
+     * @return the game objects of the new chunks
      */
-    public List<Block> createInRange(int minX, int maxX) {
-        List<Block> blocks = new java.util.ArrayList<>();
-        float xMin = UtilsFunction.roundMinX(minX);
-        float xMax = UtilsFunction.roundMaxX(maxX);
-        for(float i = xMin; i < xMax; i+= Block.BLOCK_SIZE)
-        {
-            float startHeight = groundHeight(i);
-            int depth = (int) startHeight + (TERRAIN_DEPTH * Block.BLOCK_SIZE);
-            for (int j = (int)startHeight; j < depth; j+= Block.BLOCK_SIZE)
-            {
-                RectangleRenderable rectangleRenderable =
-                        new RectangleRenderable(ColorSupplier.approximateColor(GROUND_COLOR));
-                Block block = new Block(new Vector2(i, j), rectangleRenderable);
-                block.setTag(Ground_tag);
-                blocks.add(block);
-                allTerrain.add(block);
+    public List<GameObject> createInRange(int minX, int maxX) {
+        List<GameObject> objects = new ArrayList<>();
+        int firstChunk = Math.floorDiv(minX, CHUNK_WIDTH);
+        int lastChunk = Math.floorDiv(maxX, CHUNK_WIDTH);
+        for (int chunk = firstChunk; chunk <= lastChunk; chunk++) {
+            if (chunks.containsKey(chunk)) {
+                continue;
             }
+            List<GameObject> chunkObjects = createChunk(chunk * CHUNK_WIDTH);
+            chunks.put(chunk, chunkObjects);
+            objects.addAll(chunkObjects);
         }
-        return blocks;
+        return objects;
      }
 
-
     /**
-     * Returns all the terrain blocks that arr in the game
-     * @return all the terrain blocks that arr in the game
+     * Removes the chunks that are entirely to the left of an x value
+     * @param minX the x value
+     * @return the game objects of the removed chunks
      */
-    public ArrayList<Block> getAllTerrain() {
-        return allTerrain;}
-
+    public List<GameObject> removeFromLeft(float minX) {
+        return removeChunks(chunk -> (chunk + 1) * CHUNK_WIDTH <= minX);
+    }
 
+    /**
+     * Removes the chunks that are entirely to the right of an x value
+     * @param maxX the x value
+     * @return the game objects of the removed chunks
+     */
+    public List<GameObject> removeFromRight(float maxX) {
+        return removeChunks(chunk -> chunk * CHUNK_WIDTH >= maxX);
+    }
 
+    /**
+     * Creates the tile map of a chunk and the colliders of its columns
+     * @param chunkX the x value of the left edge of the chunk
+     * @return the tile map followed by its colliders
+     */
+    private List<GameObject> createChunk(int chunkX) {
+        int[] topRows = new int[CHUNK_COLUMNS];
+        int firstRow = Integer.MAX_VALUE;
+        int lastTopRow = Integer.MIN_VALUE;
+        for (int i = 0; i < CHUNK_COLUMNS; i++) {
+            topRows[i] = (int) (groundHeight(chunkX + i * Block.BLOCK_SIZE) / Block.BLOCK_SIZE);
+            firstRow = Math.min(firstRow, topRows[i]);
+            lastTopRow = Math.max(lastTopRow, topRows[i]);
+        }
+        TileMap tileMap = new TileMap(new Vector2(chunkX, firstRow * Block.BLOCK_SIZE),
+                CHUNK_COLUMNS, lastTopRow - firstRow + TERRAIN_DEPTH, Block.BLOCK_SIZE);
+        for (int i = 0; i < CHUNK_COLUMNS; i++) {
+            for (int j = 0; j < TERRAIN_DEPTH; j++) {
+                tileMap.setTile(i, topRows[i] - firstRow + j,
+                        ColorSupplier.approximateColor(GROUND_COLOR));
+            }
+        }
+        tileMap.setTag(Ground_tag);
+        List<GameObject> objects = new ArrayList<>();
+        objects.add(tileMap);
+        objects.addAll(tileMap.createColliders());
+        return objects;
+    }
 
+    /**
+     * Removes the chunks that match a condition
+     * @param shouldRemove the condition, on the index of a chunk
+     * @return the game objects of the removed chunks
+     */
+    private List<GameObject> removeChunks(IntPredicate shouldRemove) {
+        List<GameObject> removed = new ArrayList<>();
+        Iterator<Map.Entry<Integer, List<GameObject>>> iterator = chunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, List<GameObject>> chunk = iterator.next();
+            if (shouldRemove.test(chunk.getKey())) {
+                removed.addAll(chunk.getValue());
+                iterator.remove();
+            }
+        }
+        return removed;
+    }
 }
@@ -27,6 +27,7 @@ public class Night {
         GameObject night = new GameObject(Vector2.ZERO,windowDimensions,rectangle);
         night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         night.setTag(Const.NIGHT_TAG);
+        night.setUpdateSelfContained(true);
 
         new Transition<>(night,
                 night.renderer()::setOpaqueness,
@@ -37,6 +37,7 @@ public class Sun {
         GameObject sunObject = new GameObject(init_loc, DIMENSIONS, sun);
         sunObject.setCoordinateSpace(danogl.components.CoordinateSpace.CAMERA_COORDINATES);
         sunObject.setTag(Const.SUN_TAG);
+        sunObject.setUpdateSelfContained(true);
         
         // The sun moves in a circular path
         new Transition<Float>(
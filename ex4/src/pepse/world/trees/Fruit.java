@@ -7,6 +7,7 @@ import pepse.util.Const;
 import pepse.util.Observer;
 import pepse.util.executeFunc;
 
+import java.awt.Color;
 import java.util.function.BiConsumer;
 /**
  * Class for creating the fruit object
@@ -29,22 +30,12 @@ public class Fruit  extends GameObject implements executeFunc {
     public Fruit(Vector2 topLeftCorner,
                  Vector2 dimensions,
                  BiConsumer<Fruit, GameObject> onCollision) {
-        super(topLeftCorner, dimensions, new OvalRenderable(Const.FruitColor[0]));
+        super(topLeftCorner, dimensions, createRenderable(Const.FruitColor[0]));
         this.onCollision = onCollision;
         this.setTag(Const.treeComponent);
 
     }
 
-    /**
-     * Determines if the fruit object should collide with another object
-     * @param other the other object
-     * @return true if the fruit object should collide with the other object
-     */
-    @Override
-    public boolean shouldCollideWith(GameObject other) {
-        return other.getTag().equals(Const.AvatarTag);
-    }
-
     /**
      * Determines what happens when the fruit object collides with another object
      * @param other the other object
@@ -63,10 +54,19 @@ public class Fruit  extends GameObject implements executeFunc {
     @Override
     public void execute() {
         if(x >= Const.FruitColor.length) x = 0;
-        this.renderer().setRenderable(new OvalRenderable(Const.FruitColor[x]));
+        this.renderer().setRenderable(createRenderable(Const.FruitColor[x]));
         x++;
     }
 
+    /**
+     * Creates an oval of the given color, drawn from the trees' shape cache
+     */
+    private static OvalRenderable createRenderable(Color color) {
+        OvalRenderable renderable = new OvalRenderable(color);
+        renderable.setCache(Tree.SHAPES);
+        return renderable;
+    }
+
 
 
 
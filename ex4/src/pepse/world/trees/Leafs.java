@@ -45,6 +45,8 @@ public class Leafs extends GameObject implements executeFunc {
                 false,
                 this::TransitionFloat);
         this.setTag(Const.treeComponent);
+        // The leaf only animates itself, so it can be updated in parallel
+        this.setUpdateSelfContained(true);
     }
 
 
@@ -96,14 +98,4 @@ public class Leafs extends GameObject implements executeFunc {
                 Transition.TransitionType.TRANSITION_ONCE,
                 ()->this.inRotation = false);
     }
-
-    /**
-     * Determines if the leafs object should collide with another object
-     * @param other the other object
-     * @return true if the leafs object should collide with the other object
-     */
-    @Override
-    public boolean shouldCollideWith(GameObject other) {
-        return false;
-    }
 }
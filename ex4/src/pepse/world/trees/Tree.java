@@ -4,6 +4,7 @@ import java.util.function.BiConsumer;
 import danogl.GameObject;
 import danogl.collisions.Layer;
 import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.ShapeCache;
 import danogl.util.Vector2;
 import pepse.util.Const;
 import pepse.util.Observer;
@@ -18,6 +19,11 @@ import pepse.util.ColorSupplier;
  * The trees are created at random positions
  */
 public class Tree {
+    /**
+     * The swaying leaves and the fruits are drawn from images cached here,
+     * rather than filled rotated and antialiased every frame
+     */
+    static final ShapeCache SHAPES = new ShapeCache();
     private final float block_size = Block.BLOCK_SIZE;
     private final BiConsumer<Fruit,GameObject> collision;
     private static final int leafBlock = 5;
@@ -115,9 +121,11 @@ public class Tree {
             {
                 if(hashRandom.nextDouble() <= 0.3f ){continue;}
                 Vector2 leafLoc = new Vector2(x_loc + i * block_size, y_loc + j * block_size);
-                Leafs leaf = new Leafs(leafLoc, Const.LEAF_DIM, new RectangleRenderable(Const.LEAF_COLOR));
+                RectangleRenderable leafRenderable = new RectangleRenderable(Const.LEAF_COLOR);
+                leafRenderable.setCache(SHAPES);
+                Leafs leaf = new Leafs(leafLoc, Const.LEAF_DIM, leafRenderable);
                 leafs.add(leaf);
-                add.accept(leaf, Layer.STATIC_OBJECTS);
+                add.accept(leaf, Const.LEAVES_LAYER);
                 //register to the event when the avatar jumps
                 observer.registerEvent(Const.ON_JUMP, leaf);
                 if(hashRandom.nextDouble() >= 0.7f)
@@ -165,7 +173,7 @@ public class Tree {
         remove.accept(trunks, Layer.STATIC_OBJECTS);
         observer.unregisterEvent(Const.ON_JUMP, trunks);
         for (Leafs leaf : leafs) {
-            remove.accept(leaf, Layer.STATIC_OBJECTS);
+            remove.accept(leaf, Const.LEAVES_LAYER);
             observer.unregisterEvent(Const.ON_JUMP, leaf);
         }
         for (Fruit fruit : fruits) {